@@ -0,0 +1,50 @@
+package model;
+
+import java.util.List;
+
+// Represents the ways the computer can pick which of the enemies in range a warrior attacks. The enemies
+// are given nearest first, and every strategy keeps the nearest of the ones it likes equally
+public enum AiStrategy {
+    // attacks the nearest enemy
+    NEAREST {
+        @Override
+        Warrior chooseTarget(Warrior attacker, List<Warrior> opponents, CombatForecaster forecaster) {
+            return opponents.get(0);
+        }
+    },
+    // attacks the enemy with the least hp left
+    WEAKEST {
+        @Override
+        Warrior chooseTarget(Warrior attacker, List<Warrior> opponents, CombatForecaster forecaster) {
+            Warrior target = opponents.get(0);
+            for (Warrior opponent : opponents) {
+                if (opponent.getHP() < target.getHP()) {
+                    target = opponent;
+                }
+            }
+            return target;
+        }
+    },
+    // attacks the enemy with the best chance of dying in the battle minus the chance of the attacker dying
+    BEST_ODDS {
+        @Override
+        Warrior chooseTarget(Warrior attacker, List<Warrior> opponents, CombatForecaster forecaster) {
+            Warrior target = null;
+            double best = 0;
+            for (Warrior opponent : opponents) {
+                CombatForecast forecast = forecaster.forecast(attacker, opponent);
+                double odds = forecast.getDefenderDeathChance() - forecast.getAttackerDeathChance();
+                if (target == null || odds > best) {
+                    target = opponent;
+                    best = odds;
+                }
+            }
+            return target;
+        }
+    };
+
+    // REQUIRES: opponents is not empty, and attacker and every opponent are alive and have positions
+    // MODIFIES: forecaster
+    // EFFECTS: returns the opponent attacker should attack
+    abstract Warrior chooseTarget(Warrior attacker, List<Warrior> opponents, CombatForecaster forecaster);
+}
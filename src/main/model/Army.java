@@ -1,7 +1,6 @@
 package model;
 
 import model.exceptions.DuplicateNameException;
-import model.exceptions.InvalidPositionException;
 import model.exceptions.NoPositionAvailableException;
 import model.exceptions.CheckedGameException;
 import org.json.JSONArray;
@@ -33,6 +32,18 @@ public class Army implements Savable, Iterable<Warrior> {
         warriors = new ArrayList<>();
     }
 
+    // EFFECTS: creates an army with the given name and warriors without claiming the name
+    private Army(String name, ArrayList<Warrior> warriors) {
+        factionName = name;
+        this.warriors = warriors;
+    }
+
+    // EFFECTS: returns an army with the given name and no warriors that does not claim the name, for battles
+    //          played away from the game such as simulations on other threads
+    static Army unclaimed(String name) {
+        return new Army(name, new ArrayList<>());
+    }
+
     // MODIFIES: this
     // EFFECTS: stores the old set of names into the old army names and sets the collection
     //          of used names to an empty set
@@ -56,7 +67,7 @@ public class Army implements Savable, Iterable<Warrior> {
     public void addWarrior(Warrior warrior) {
         warrior.setFaction(factionName);
         warriors.add(warrior);
-        EventLog.getInstance().logEvent(new GameEvent(warrior.getName() + " was added to " + factionName));
+        EventLog.getInstance().logEvent(() -> warrior.getName() + " was added to " + factionName);
     }
 
     // EFFECTS: returns the warrior with the same name, or null if warrior doesn't exist
@@ -81,12 +92,7 @@ public class Army implements Savable, Iterable<Warrior> {
             } else if (warriorPosition == null) {
                 return false;
             }
-            try {
-                Position stagePosition = stage.getPosition(warriorPosition.getPosX(), warriorPosition.getPosY());
-                if (stagePosition.getUnit() != warrior) {
-                    return false;
-                }
-            } catch (InvalidPositionException e) {
+            if (stage.unitAtOrNull(warriorPosition.getPosX(), warriorPosition.getPosY()) != warrior) {
                 return false;
             }
         }
@@ -133,7 +139,7 @@ public class Army implements Savable, Iterable<Warrior> {
             warrior.setCanMove(false);
             warrior.setCanAttack(false);
         }
-        EventLog.getInstance().logEvent(new GameEvent(factionName + " ended their turn."));
+        EventLog.getInstance().logEvent(() -> factionName + " ended their turn.");
     }
 
     // MODIFIES: warriors in army, EventLog
@@ -147,7 +153,7 @@ public class Army implements Savable, Iterable<Warrior> {
             }
         }
         String plural = factionName.endsWith("s") ? "'" : "'s";
-        EventLog.getInstance().logEvent(new GameEvent("It is " + factionName + plural + " turn"));
+        EventLog.getInstance().logEvent(() -> "It is " + factionName + plural + " turn");
     }
 
     // MODIFIES: warriors in army, EventLog
@@ -156,7 +162,7 @@ public class Army implements Savable, Iterable<Warrior> {
         for (Warrior warrior : warriors) {
             warrior.setIsAlive(false);
         }
-        EventLog.getInstance().logEvent(new GameEvent(factionName + " has forfeit the game"));
+        EventLog.getInstance().logEvent(() -> factionName + " has forfeit the game");
     }
 
     // REQUIRES: warriors.size() == 0
@@ -210,6 +216,9 @@ public class Army implements Savable, Iterable<Warrior> {
         int enemyNum = 0;
         for (int offset = 0; offset < gap; offset++) {
             for (int y = 0; y <= stage.getFarthestBottom(); y++) {
+                if (stage.countFreeCells(0, y, stage.getFarthestRight(), y) == 0) {
+                    continue;
+                }
                 for (int x = ((offset + y) % gap); x <= stage.getFarthestRight(); x = x + gap) {
                     enemyNum = autoPlaceNextWarrior(enemyNum, stage, x, y);
                     if (enemyNum == warriors.size()) {
@@ -234,6 +243,9 @@ public class Army implements Savable, Iterable<Warrior> {
                 return enemyNum;
             }
         }
+        if (stage.unitAtOrNull(x, y) != null) {
+            return enemyNum;
+        }
         try {
             warriors.get(enemyNum).placeWarrior(stage, x, y);
             enemyNum++;
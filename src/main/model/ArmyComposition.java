@@ -0,0 +1,44 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Represents the make-up of an army for simulated battles: the name, hp and stats of each of its living
+// warriors. Every army built from it is made of new copies of those warriors that do not claim their
+// names, so many battles between the same compositions can be played at once on different threads
+public class ArmyComposition {
+
+    private final String name;
+    private final List<Warrior> templates;
+
+    // REQUIRES: army has at least one living warrior
+    // EFFECTS: constructs the composition named name of the living warriors of army
+    public ArmyComposition(String name, Army army) {
+        this.name = name;
+        templates = new ArrayList<>();
+        for (Warrior warrior : army) {
+            if (warrior.getIsAlive()) {
+                templates.add(new Warrior(warrior));
+            }
+        }
+    }
+
+    // MODIFIES: EventLog
+    // EFFECTS: returns a new army named faction of new copies of the warriors of this composition
+    Army build(String faction) {
+        Army army = Army.unclaimed(faction);
+        for (Warrior template : templates) {
+            army.addWarrior(new Warrior(template));
+        }
+        return army;
+    }
+
+    // EFFECTS: returns the number of warriors in this composition
+    public int size() {
+        return templates.size();
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,156 @@
+package model;
+
+import java.util.Arrays;
+
+// Represents, for the units of one faction that attack with the same range, how far every cell of a
+// stage is from the nearest attack spot and which enemy that spot attacks. The attack spots are the
+// empty passable cells within range of an enemy, and they all seed a single Dijkstra search that walks
+// out from them backwards, paying the movement cost of the cell being walked onto, through every cell
+// a unit of the faction can walk through. Built once per turn, it gives every unit of the faction its
+// way to the nearest enemy it can attack from one lookup per cell it can stop on, instead of searching
+// for the enemies around each of them. Every cell also keeps the direction of its first step on that
+// walk, so the field is a flow field the units can follow down to an attack spot without searching
+final class AttackField {
+
+    static final int UNREACHED = -1;
+    static final int NONE = -1;
+    static final int[] STEP_X = {-1, 1, 0, 0};
+    static final int[] STEP_Y = {0, 0, -1, 1};
+
+    private final StageGrid cells;
+    private final int width;
+    private final int length;
+    private final int[] distance;
+    private final int[] costs;
+    private final int[] target;
+    private final byte[] direction;
+    private final BucketQueue buckets;
+    private boolean built;
+    private String faction;
+
+    // EFFECTS: constructs a field over the cells of a stage that has not been built yet
+    AttackField(StageGrid cells) {
+        this.cells = cells;
+        width = cells.getWidth();
+        length = cells.getLength();
+        distance = new int[width * length];
+        costs = new int[width * length];
+        target = new int[width * length];
+        direction = new byte[width * length];
+        buckets = new BucketQueue();
+    }
+
+    // REQUIRES: every warrior in enemies is not part of faction, range >= 1
+    // MODIFIES: this
+    // EFFECTS: seeds every empty passable cell within range of a living enemy on the stage and finds the
+    //          cheapest walk from every cell a unit of faction can walk through to one of those cells
+    void build(String faction, int range, Iterable<Warrior> enemies) {
+        this.faction = faction;
+        Arrays.fill(distance, UNREACHED);
+        cells.fillMoveCosts(costs, faction);
+        DiamondOffsets diamond = DiamondOffsets.of(range);
+        for (Warrior enemy : enemies) {
+            if (enemy.getIsAlive() && enemy.getPosition() != null) {
+                seed(enemy.getPosition().getPosX(), enemy.getPosition().getPosY(), diamond);
+            }
+        }
+        while (!buckets.isEmpty()) {
+            int cell = buckets.pop();
+            int cost = buckets.cost();
+            if (distance[cell] != cost) {
+                continue;
+            }
+            int next = cost + costs[cell];
+            int y = cell / width;
+            int x = cell - y * width;
+            visit(x > 0 ? cell - 1 : UNREACHED, next, cell, 1);
+            visit(x < width - 1 ? cell + 1 : UNREACHED, next, cell, 0);
+            visit(y > 0 ? cell - width : UNREACHED, next, cell, 3);
+            visit(y < length - 1 ? cell + width : UNREACHED, next, cell, 2);
+        }
+        buckets.clear();
+        built = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes every empty passable cell of diamond around x,y, other than x,y itself, an attack
+    //          spot of the enemy on x,y unless it is already one of another enemy
+    private void seed(int x, int y, DiamondOffsets diamond) {
+        int enemy = cells.indexOf(x, y);
+        for (int i = 1; i < diamond.size(); i++) {
+            int spotX = x + diamond.getX(i);
+            int spotY = y + diamond.getY(i);
+            if (spotX < 0 || spotX >= width || spotY < 0 || spotY >= length) {
+                continue;
+            }
+            int spot = cells.indexOf(spotX, spotY);
+            if (distance[spot] == UNREACHED && costs[spot] != Position.IMPASSABLE && !cells.isOccupied(spot)) {
+                distance[spot] = 0;
+                target[spot] = enemy;
+                direction[spot] = NONE;
+                buckets.push(spot, 0);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if cell is on the stage, passable, has no enemy of the faction being built for on it and
+    //          walking from it to an attack spot through from, which is one step in step's direction, for
+    //          cost is cheaper than any walk found so far, records the walk and adds cell to the bucket queue
+    private void visit(int cell, int cost, int from, int step) {
+        if (cell == UNREACHED || costs[cell] == Position.IMPASSABLE
+                || (distance[cell] != UNREACHED && distance[cell] <= cost)) {
+            return;
+        }
+        distance[cell] = cost;
+        target[cell] = target[from];
+        direction[cell] = (byte) step;
+        buckets.push(cell, cost);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks this field as out of date, so it is built again before its next use
+    void invalidate() {
+        built = false;
+    }
+
+    // EFFECTS: returns true if this field is up to date and was last built for faction
+    boolean isBuiltFor(String faction) {
+        return built && faction.equals(this.faction);
+    }
+
+    // EFFECTS: returns the movement spent on the cheapest walk from x,y to an attack spot, 0 if x,y is
+    //          one, or UNREACHED if x,y is off the stage or no attack spot can be walked to from it
+    int distanceAt(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= length) {
+            return UNREACHED;
+        }
+        return distance[cells.indexOf(x, y)];
+    }
+
+    // EFFECTS: returns the index into STEP_X and STEP_Y of the first step of the cheapest walk from x,y to
+    //          an attack spot, or NONE if x,y is an attack spot or no attack spot can be walked to from it
+    int directionAt(int x, int y) {
+        if (distanceAt(x, y) <= 0) {
+            return NONE;
+        }
+        return direction[cells.indexOf(x, y)];
+    }
+
+    // EFFECTS: returns true if the cheapest walk from x,y leads to an attack spot of a unit that has since
+    //          left the stage or joined faction
+    boolean isStaleAt(int x, int y, String faction) {
+        if (distanceAt(x, y) == UNREACHED) {
+            return false;
+        }
+        Warrior enemy = cells.unitAt(target[cells.indexOf(x, y)]);
+        return enemy == null || enemy.getFaction().equals(faction);
+    }
+
+    // REQUIRES: distanceAt(x, y) != UNREACHED
+    // EFFECTS: returns the number of cells between x,y and the enemy its nearest attack spot attacks
+    int targetDistance(int x, int y) {
+        int enemy = target[cells.indexOf(x, y)];
+        return Math.abs(enemy % width - x) + Math.abs(enemy / width - y);
+    }
+}
@@ -19,8 +19,26 @@ public class Battle implements Iterable<Position>, Savable {
     public static final int BATTLE = 3;
     public static final int FINISH = 4;
 
+    // bands of the colours of positions, from the weakest colour to the strongest
+    private static final int BLANK_BAND = 0;
+    private static final int FAR_BAND = 1;
+    private static final int CLOSE_BAND = 2;
+    private static final int EXACT_BAND = 3;
+    private static final int THREATENED_BAND = 4;
+
     private final Stage stage;
     private final List<Army> competitors;
+    private final ReachabilityCache reachabilityCache;
+    // attack fields by range, shared by every faction: each is built for the faction that uses it and
+    // all of them are invalidated when a faction's computer turn begins, so keeping one per faction as
+    // well would only hold on to fields that are out of date by the time that faction uses them again
+    private final Map<Integer, AttackField> attackFields;
+    private final Visibility visibility;
+    private final ThreatMap threatMap;
+    private final CombatForecaster forecaster;
+    private final Map<String, AiStrategy> strategies;
+    private long seed;
+    private SplittableRandom random;
     private Warrior activeWarrior;
     private Position activePosition;
     private Position activePosition2;
@@ -29,9 +47,18 @@ public class Battle implements Iterable<Position>, Savable {
     private int computerIndex;
     private List<Warrior> actionableWarriors;
 
-    // EFFECTS: begins a battle on stage between the competitors
+    // EFFECTS: begins a battle on stage between the competitors whose critical hits are drawn from a
+    //          generator with a fresh seed
     //          throws invalid battle exception if the armies have not yet been placed on the stage
     public Battle(Stage stage, List<Army> competitors) {
+        this(stage, competitors, new SplittableRandom().nextLong());
+    }
+
+    // EFFECTS: begins a battle on stage between the competitors whose critical hits are drawn from a
+    //          generator seeded with seed, so two battles set up the same way with the same seed and played
+    //          the same way have the same critical hits
+    //          throws invalid battle exception if the armies have not yet been placed on the stage
+    public Battle(Stage stage, List<Army> competitors, long seed) {
         int count = 0;
         for (Army army : competitors) {
             if (!army.validPositions(stage)) {
@@ -47,11 +74,19 @@ public class Battle implements Iterable<Position>, Savable {
         turn = 1;
         activeArmyIndex = 0;
         computerIndex = -1;
+        reachabilityCache = new ReachabilityCache(stage);
+        attackFields = new HashMap<>();
+        visibility = new Visibility(stage, competitors);
+        threatMap = new ThreatMap(stage, competitors, visibility, getActiveFaction().getFactionName());
+        forecaster = new CombatForecaster();
+        strategies = new HashMap<>();
+        reseed(seed);
     }
 
     // REQUIRES: pos must be on the stage
     // MODIFIES: this
-    // EFFECTS: sets pos to be the active position.
+    // EFFECTS: sets pos to be the active position. A position whose warrior the active faction cannot see is
+    //          treated as having no warrior on it.
     //          If the warrior on this position is the same as the active warrior, returns DESELECT
     //          If there is no active warrior or the active warrior is not part of the active faction,
     //              sets the active warrior to be the positions warrior and returns SELECT
@@ -59,22 +94,23 @@ public class Battle implements Iterable<Position>, Savable {
     //          Else, returns BATTLE
     public int selectPosition(Position pos) {
         activePosition = pos;
+        Warrior unit = pos.getUnit() == null || isSeenByActiveFaction(pos.getUnit()) ? pos.getUnit() : null;
         if (activeWarrior == null || !activeWarrior.getFaction().equals(getActiveFaction().getFactionName())) {
-            if (activeWarrior == pos.getUnit()) {
+            if (activeWarrior == unit) {
                 activeWarrior = null;
                 return DESELECT;
             } else {
-                activeWarrior = pos.getUnit();
+                activeWarrior = unit;
                 return SELECT;
             }
         } else {
-            if (pos.getUnit() == null) {
+            if (unit == null) {
                 return MOVE;
-            } else if (pos.getUnit().equals(activeWarrior)) {
+            } else if (unit.equals(activeWarrior)) {
                 activeWarrior = null;
                 return DESELECT;
-            } else if (pos.getUnit().getFaction().equals(getActiveFaction().getFactionName())) {
-                activeWarrior = pos.getUnit();
+            } else if (unit.getFaction().equals(getActiveFaction().getFactionName())) {
+                activeWarrior = unit;
                 return SELECT;
             } else {
                 return BATTLE;
@@ -106,16 +142,42 @@ public class Battle implements Iterable<Position>, Savable {
                 activePosition.getPosY() - activeWarrior.getPosition().getPosY());
     }
 
+    // REQUIRES: selectPosition should have returned BATTLE when last called
+    // MODIFIES: this
+    // EFFECTS: returns the exact chances of every outcome of the active warrior battling the warrior in the
+    //          active position from where they both stand
+    public CombatForecast forecastBattle() {
+        return forecaster.forecast(activeWarrior, activePosition.getUnit());
+    }
+
+    // REQUIRES: selectPosition should have returned BATTLE when last called
+    // EFFECTS: returns the plan of the active warrior battling the warrior in the active position, followed by
+    //          every other warrior of the active faction that can still attack and reaches that warrior from
+    //          where it stands, in the order of their army
+    public BattlePlan planFocusedAttack() {
+        Warrior defender = activePosition.getUnit();
+        BattlePlan plan = new BattlePlan();
+        plan.addBattle(activeWarrior, defender);
+        for (Warrior ally : getActiveFaction().canAttack()) {
+            if (ally != activeWarrior && ally.getPosition() != null
+                    && ally.checkValidOpponents(stage).contains(defender)) {
+                plan.addBattle(ally, defender);
+            }
+        }
+        return plan;
+    }
+
     // REQUIRES: selectPosition should have returned BATTLE when last called
     // MODIFIES: this
     // EFFECTS: the active warrior attempts to battle the warrior in active position. Throws ImmobileException
-    //          if this warrior is unable to attack, and TooFarException if the opponent is too far away
+    //          if this warrior is unable to attack, and TooFarException if the opponent is too far away or
+    //          the active faction cannot see it
     //          deselects the active warrior if the battle is successful
     public void battleWarrior() throws ImmobileException, TooFarException {
         if (activeWarrior.checkValidOpponents(stage).contains(activePosition.getUnit())
-                && activeWarrior.getCanAttack()) {
+                && isSeenByActiveFaction(activePosition.getUnit()) && activeWarrior.getCanAttack()) {
             activePosition2 = activeWarrior.getPosition();
-            activeWarrior.battle(activePosition.getUnit());
+            activeWarrior.battle(activePosition.getUnit(), random);
             activeWarrior = null;
         } else if (!activeWarrior.getCanAttack()) {
             throw new ImmobileException();
@@ -124,52 +186,49 @@ public class Battle implements Iterable<Position>, Savable {
         }
     }
 
-    // EFFECTS: returns a colour map associated each position to a colour
+    // EFFECTS: returns the colour of every position of the stage, the one at x,y at index y * getStageWidth() + x
     // note: since this function is mainly used for UI, it does not have associated tests
-    public Map<Position, Color> positionColors() {
+    public Color[] positionColors() {
         if (activeWarrior == null) {
-            Map<Position, Color> positions = new HashMap<>();
-            for (Position pos : stage) {
-                positions.put(pos, UiFormatter.BLANK);
-            }
-            return positions;
+            Color[] colors = new Color[getStageWidth() * getStageHeight()];
+            Arrays.fill(colors, UiFormatter.BLANK);
+            return colors;
+        } else if (!activeWarrior.getFaction().equals(getActiveFaction().getFactionName())
+                || activeWarrior.getCanMove()) {
+            return getPositionColors(activeWarrior.getRealMovement(), activeWarrior.getRealRange(), true);
         } else {
-            int closeThreshHold;
-            int farThreshHold;
-            if (!activeWarrior.getFaction().equals(getActiveFaction().getFactionName()) || activeWarrior.getCanMove()) {
-                closeThreshHold = activeWarrior.getRealMovement();
-                farThreshHold = activeWarrior.getRealMovement() + activeWarrior.getRealRange();
-            } else {
-                closeThreshHold = activeWarrior.getCanAttack() ? activeWarrior.getRealRange() : 0;
-                farThreshHold = closeThreshHold;
-            }
-            return getPositionColors(closeThreshHold, farThreshHold);
+            return getPositionColors(0, activeWarrior.getCanAttack() ? activeWarrior.getRealRange() : 0, false);
         }
     }
 
-    // EFFECTS: returns a colour map of positions based on the active warrior's affiliation and proximity to
-    //          nearby positions
-    private Map<Position, Color> getPositionColors(int close, int far) {
-        Map<Position, Color> positionColorMap = new HashMap<>();
-        Color exactColor = activeWarrior.getFaction().equals(getActiveFaction().getFactionName())
-                ? UiFormatter.PLAYER1_UNIT : UiFormatter.PLAYER2_UNIT;
-        Color closeColor = activeWarrior.getFaction().equals(getActiveFaction().getFactionName())
-                ? UiFormatter.CLOSE_GOOD : UiFormatter.CLOSE_EVIL;
-        Color farColor = activeWarrior.getFaction().equals(getActiveFaction().getFactionName())
-                ? UiFormatter.FAR_GOOD : UiFormatter.FAR_EVIL;
-        for (Position pos : stage) {
-            int dist = activeWarrior.getPosition().getDistance(pos);
-            if (dist == 0) {
-                positionColorMap.put(pos, exactColor);
-            } else if (dist <= close) {
-                positionColorMap.put(pos, closeColor);
-            } else if (dist <= far) {
-                positionColorMap.put(pos, farColor);
-            } else {
-                positionColorMap.put(pos, UiFormatter.BLANK);
-            }
-        }
-        return positionColorMap;
+    // EFFECTS: returns the colours of positions based on the active warrior's affiliation and the positions
+    //          it can reach within movement and attack within range of them. If showMoves, the positions it
+    //          can stop on are close and the ones it can attack are far, otherwise the ones it can attack are close.
+    //          The positions a warrior of the active faction can stop on that an enemy it can see could attack
+    //          next turn are threatened instead of close.
+    //          Every position gets the band of its colour in a flat array first, raised a run of a row at a time,
+    //          then a sweep of the stage, parallel on a large stage, turns the bands into colours
+    private Color[] getPositionColors(int movement, int range, boolean showMoves) {
+        boolean ours = activeWarrior.getFaction().equals(getActiveFaction().getFactionName());
+        Color[] palette = {UiFormatter.BLANK,
+                ours ? UiFormatter.FAR_GOOD : UiFormatter.FAR_EVIL,
+                ours ? UiFormatter.CLOSE_GOOD : UiFormatter.CLOSE_EVIL,
+                ours ? UiFormatter.PLAYER1_UNIT : UiFormatter.PLAYER2_UNIT,
+                UiFormatter.THREATENED_GOOD};
+        ReachableSet reachable = reachabilityCache.get(activeWarrior, movement, range);
+        int width = getStageWidth();
+        int[] bands = new int[width * getStageHeight()];
+        reachable.raiseBands(bands, width, showMoves ? CLOSE_BAND : BLANK_BAND, showMoves ? FAR_BAND : CLOSE_BAND);
+        int[] threats = ours && showMoves ? threatMap.getThreatCounts(activeWarrior.getFaction()) : null;
+        Position origin = activeWarrior.getPosition();
+        bands[origin.getPosY() * width + origin.getPosX()] = EXACT_BAND;
+        Color[] colors = new Color[bands.length];
+        stage.sweep().forEach(position -> {
+            int i = position.getPosY() * width + position.getPosX();
+            boolean threatened = threats != null && bands[i] == CLOSE_BAND && threats[i] > 0;
+            colors[i] = palette[threatened ? THREATENED_BAND : bands[i]];
+        });
+        return colors;
     }
 
     // MODIFIES: this
@@ -195,7 +254,7 @@ public class Battle implements Iterable<Position>, Savable {
     // MODIFIES: this
     // EFFECTS: deselects the active warrior and positions and increments the active army index to the next alive army
     //          if the battle has cycled through all the competitors, increments the turn by 1 and continues searching
-    //          for the next alive army
+    //          for the next alive army, then rebuilds the threat map for that army
     //          if the game is over and this method is called, throws an unchecked game exception
     public void incrementTurn() {
         deselectPosition();
@@ -210,6 +269,7 @@ public class Battle implements Iterable<Position>, Savable {
                 activeArmyIndex++;
             } else {
                 competitors.get(activeArmyIndex).beginTurn();
+                threatMap.rebuild(competitors, competitors.get(activeArmyIndex).getFactionName());
                 return;
             }
         }
@@ -217,7 +277,8 @@ public class Battle implements Iterable<Position>, Savable {
     }
 
     // MODIFIES: this
-    // EFFECTS: performs a possible action for the active faction
+    // EFFECTS: performs a possible action for the active faction, only ever attacking enemies it can see and
+    //          picking which of them to attack by the strategy of the active faction
     //          if this action is moving a warrior, returns MOVE
     //          if this action is engaging in a battle, returns BATTLE
     //          if no actions can be performed, returns FINISH
@@ -230,13 +291,15 @@ public class Battle implements Iterable<Position>, Savable {
                 activeWarrior = actionableWarriors.get(computerIndex);
                 activePosition = activeWarrior.getPosition();
                 List<Warrior> opponents = activeWarrior.checkValidOpponents(stage);
+                opponents.removeIf(opponent -> !isSeenByActiveFaction(opponent));
                 if (!opponents.isEmpty() && activeWarrior.getCanAttack()) {
-                    activePosition2 = opponents.get(0).getPosition();
-                    activeWarrior.battle(activePosition2.getUnit());
+                    activePosition2 = getStrategy(getActiveFaction().getFactionName())
+                            .chooseTarget(activeWarrior, opponents, forecaster).getPosition();
+                    activeWarrior.battle(activePosition2.getUnit(), random);
                     activeWarrior = null;
                     computerIndex++;
                     return BATTLE;
-                } else if (activeWarrior.findMove(stage)) {
+                } else if (activeWarrior.getCanMove() && moveComputerWarrior()) {
                     return MOVE;
                 } else {
                     computerIndex++;
@@ -245,13 +308,87 @@ public class Battle implements Iterable<Position>, Savable {
         }
     }
 
+    // MODIFIES: this
+    // EFFECTS: moves the active warrior towards the nearest spot it can attack an enemy from. If it can reach
+    //          one this turn, it picks the best one by how far it is from its enemy and how many enemies are
+    //          around it; if not, it follows the attack field of its range as far as it can, or if its way is
+    //          blocked, moves to the position it can reach that is nearest to such a spot. Else it moves along
+    //          the route to the nearest enemy. Only the enemies the active faction can see are headed for, and
+    //          if it can see none it has a route to, it moves towards the middle of the stage to look for them.
+    //          Returns true if it moved
+    private boolean moveComputerWarrior() {
+        int range = activeWarrior.getRealRange();
+        ReachableSet reachable;
+        if (range > 0) {
+            AttackField field = attackFieldOf(range);
+            if (field.distanceAt(activePosition.getPosX(), activePosition.getPosY()) > activeWarrior.getRealMovement()
+                    && activeWarrior.followFlow(stage, field)) {
+                return true;
+            }
+            reachable = reachableSetOf(activeWarrior);
+            if (activeWarrior.findMove(stage, reachable, field, threatMap)) {
+                return true;
+            }
+        } else {
+            reachable = reachableSetOf(activeWarrior);
+        }
+        return activeWarrior.approach(stage, reachable, this::isSeenByActiveFaction)
+                || activeWarrior.advance(stage, reachable, stage.getFarthestRight() / 2, stage.getFarthestBottom() / 2);
+    }
+
+    // EFFECTS: returns true if a unit of the active faction can see warrior
+    private boolean isSeenByActiveFaction(Warrior warrior) {
+        Position pos = warrior.getPosition();
+        return visibility.isVisible(getActiveFaction().getFactionName(), pos.getPosX(), pos.getPosY());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the attack field for range towards the enemies the active faction can see, building
+    //          it again if it is out of date, was built for another faction, or leads the active warrior to
+    //          an enemy that has died since it was built
+    private AttackField attackFieldOf(int range) {
+        AttackField field = attackFields.computeIfAbsent(range, r -> stage.attackField());
+        String faction = getActiveFaction().getFactionName();
+        if (!field.isBuiltFor(faction)
+                || field.isStaleAt(activePosition.getPosX(), activePosition.getPosY(), faction)) {
+            List<Warrior> enemies = new ArrayList<>();
+            for (Army army : competitors) {
+                if (!army.getFactionName().equals(faction)) {
+                    for (Warrior enemy : army) {
+                        if (enemy.getIsAlive() && enemy.getPosition() != null && isSeenByActiveFaction(enemy)) {
+                            enemies.add(enemy);
+                        }
+                    }
+                }
+            }
+            field.build(faction, range, enemies);
+        }
+        return field;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks every attack field as out of date
+    private void invalidateAttackFields() {
+        for (AttackField field : attackFields.values()) {
+            field.invalidate();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the cells warrior can reach with its movement and attack with its range
+    private ReachableSet reachableSetOf(Warrior warrior) {
+        return reachabilityCache.get(warrior, warrior.getRealMovement(), warrior.getRealRange());
+    }
+
     // MODIFIES: this
     // EFFECTS: initializes the computer index if it has not been initialized already, and sets the actionable
-    //          warriors to be all warriors in the active faction that are able to attack
+    //          warriors to be all warriors in the active faction that are able to attack and the attack fields
+    //          to be built again for this turn
     private void initComputer() {
         if (computerIndex == -1) {
             computerIndex = 0;
             actionableWarriors = getActiveFaction().canAttack();
+            invalidateAttackFields();
         }
     }
 
@@ -306,8 +443,44 @@ public class Battle implements Iterable<Position>, Savable {
         this.turn = turn;
     }
 
+    // MODIFIES: this
+    // EFFECTS: makes the army at subTurn the active army and rebuilds the threat map for it
     public void setActiveArmyIndex(int subTurn) {
         activeArmyIndex = subTurn;
+        threatMap.rebuild(competitors, getActiveFaction().getFactionName());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops the reachability cache, visibility and threat map of this battle from listening to the
+    //          changes of its stage, so a stage that outlives the battle does not keep telling them; the battle
+    //          must not be played any further after this
+    public void close() {
+        stage.removeCellListener(reachabilityCache);
+        stage.removeCellListener(visibility);
+        threatMap.close();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: restarts the generator the critical hits of this battle are drawn from with seed
+    public void reseed(long seed) {
+        this.seed = seed;
+        random = new SplittableRandom(seed);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the strategy the computer uses to pick targets for the army named faction
+    public void setStrategy(String faction, AiStrategy strategy) {
+        strategies.put(faction, strategy);
+    }
+
+    // EFFECTS: returns the strategy the computer uses to pick targets for the army named faction, which is
+    //          NEAREST unless another one was set
+    public AiStrategy getStrategy(String faction) {
+        return strategies.getOrDefault(faction, AiStrategy.NEAREST);
+    }
+
+    public long getSeed() {
+        return seed;
     }
 
     public int getTurn() {
@@ -318,6 +491,18 @@ public class Battle implements Iterable<Position>, Savable {
         return competitors;
     }
 
+    public ReachabilityCache getReachabilityCache() {
+        return reachabilityCache;
+    }
+
+    public Visibility getVisibility() {
+        return visibility;
+    }
+
+    public ThreatMap getThreatMap() {
+        return threatMap;
+    }
+
     @Override
     public JSONObject toJson() {
         JSONObject json = new JSONObject();
@@ -0,0 +1,57 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Represents a sequence of battles a player plans to start this turn, in order, each between an attacker
+// and a defender that stay where they stand now
+public class BattlePlan {
+
+    private final List<Warrior> attackers;
+    private final List<Warrior> defenders;
+    private final List<Warrior> units;
+
+    // EFFECTS: constructs a plan with no battles
+    public BattlePlan() {
+        attackers = new ArrayList<>();
+        defenders = new ArrayList<>();
+        units = new ArrayList<>();
+    }
+
+    // REQUIRES: attacker and defender are different warriors with positions on the same stage
+    // MODIFIES: this
+    // EFFECTS: adds a battle started by attacker against defender to the end of this plan
+    public void addBattle(Warrior attacker, Warrior defender) {
+        attackers.add(attacker);
+        defenders.add(defender);
+        if (!units.contains(attacker)) {
+            units.add(attacker);
+        }
+        if (!units.contains(defender)) {
+            units.add(defender);
+        }
+    }
+
+    // EFFECTS: returns the number of battles in this plan
+    public int size() {
+        return attackers.size();
+    }
+
+    // EFFECTS: returns every warrior in this plan once, in the order they first appear
+    public List<Warrior> getUnits() {
+        return Collections.unmodifiableList(units);
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns the attacker of the battle at index
+    public Warrior getAttacker(int index) {
+        return attackers.get(index);
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns the defender of the battle at index
+    public Warrior getDefender(int index) {
+        return defenders.get(index);
+    }
+}
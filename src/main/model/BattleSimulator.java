@@ -0,0 +1,106 @@
+package model;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+// Represents a headless engine that plays whole battles with the computer controlling every army, with
+// the event log turned off, and reports how many games it played and how fast. Each game is a fresh
+// battle from the setup; the active army plays its turn through computerizedAction until it has nothing
+// left to do, then the battle moves on through endArmyTurn and incrementTurn until one army is left or
+// the turn limit is passed, which is a draw. Every game is reseeded with the next seed of the simulator's
+// own generator, so a simulator with the same seed plays the same games, and a split simulator plays
+// from an independent stream of seeds that another thread can use
+public class BattleSimulator {
+
+    public static final int DEFAULT_TURN_LIMIT = 200;
+
+    private final Supplier<Battle> setup;
+    private final int turnLimit;
+    private final SplittableRandom seeds;
+
+    // REQUIRES: turnLimit >= 1, every battle setup gives has its armies placed and is not over
+    // EFFECTS: constructs a simulator that plays the battles setup gives for at most turnLimit turns, seeding
+    //          them from a fresh generator
+    public BattleSimulator(Supplier<Battle> setup, int turnLimit) {
+        this(setup, turnLimit, new SplittableRandom());
+    }
+
+    // REQUIRES: turnLimit >= 1, every battle setup gives has its armies placed and is not over
+    // EFFECTS: constructs a simulator that plays the battles setup gives for at most turnLimit turns, seeding
+    //          them from a generator seeded with seed
+    public BattleSimulator(Supplier<Battle> setup, int turnLimit, long seed) {
+        this(setup, turnLimit, new SplittableRandom(seed));
+    }
+
+    // EFFECTS: constructs a simulator that plays the battles setup gives for at most turnLimit turns, seeding
+    //          them from seeds
+    private BattleSimulator(Supplier<Battle> setup, int turnLimit, SplittableRandom seeds) {
+        this.setup = setup;
+        this.turnLimit = turnLimit;
+        this.seeds = seeds;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns a simulator of the same battles whose seeds come from a stream split off from this one,
+    //          so the two can play on different threads without sharing a generator
+    public BattleSimulator split() {
+        return new BattleSimulator(setup, turnLimit, seeds.split());
+    }
+
+    // REQUIRES: games >= 0
+    // MODIFIES: this, EventLog
+    // EFFECTS: plays games battles from the setup, each reseeded with the next seed of this simulator and
+    //          closed once it is over, with the event log turned off for this thread, and returns the report of
+    //          their outcomes and the wall-clock time and CPU time of this thread they took; the event log is
+    //          turned back on for this thread afterwards if it was on
+    public SimulationReport run(int games) {
+        EventLog log = EventLog.getInstance();
+        boolean logging = log.isEnabled();
+        log.setEnabled(false);
+        try {
+            SimulationReport report = new SimulationReport();
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            long start = System.nanoTime();
+            long cpuStart = threads.getCurrentThreadCpuTime();
+            for (int i = 0; i < games; i++) {
+                Battle battle = setup.get();
+                battle.reseed(seeds.nextLong());
+                String winner = play(battle);
+                report.addGame(winner, battle.getTurn());
+                battle.close();
+            }
+            report.setElapsedNanos(System.nanoTime() - start);
+            report.setCpuNanos(threads.getCurrentThreadCpuTime() - cpuStart);
+            return report;
+        } finally {
+            log.setEnabled(logging);
+        }
+    }
+
+    // MODIFIES: battle
+    // EFFECTS: plays battle to its end with the computer controlling every army and returns the faction
+    //          name of the winning army, or null if the battle passes the turn limit first
+    public String play(Battle battle) {
+        battle.getActiveFaction().beginTurn();
+        while (!battle.checkIfOver()) {
+            if (battle.getTurn() > turnLimit) {
+                return null;
+            }
+            while (battle.computerizedAction() != Battle.FINISH) {
+                // keep acting until the active army has nothing left to do
+            }
+            if (!battle.endArmyTurn()) {
+                break;
+            }
+            battle.incrementTurn();
+        }
+        for (Army army : battle.getCompetitors()) {
+            if (army.isAlive()) {
+                return army.getFactionName();
+            }
+        }
+        return null;
+    }
+}
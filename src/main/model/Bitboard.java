@@ -0,0 +1,245 @@
+package model;
+
+import java.util.Arrays;
+
+// Represents a set of cells of a width x length grid stored as bits in a long[]. Rows are packed
+// so each row starts on a new word, which lets a run of cells in a row be tested, counted, or
+// searched a whole word at a time, and whole sets be combined, counted and dilated a word at a time.
+// Bits past the width of a row are always 0
+final class Bitboard {
+
+    private static final int WORD_BITS = Long.SIZE;
+
+    private final int width;
+    private final int length;
+    private final int wordsPerRow;
+    private final long[] words;
+
+    // REQUIRES: width > 0, length > 0
+    // EFFECTS: constructs an empty bitboard of width x length cells
+    Bitboard(int width, int length) {
+        this.width = width;
+        this.length = length;
+        wordsPerRow = (width + WORD_BITS - 1) / WORD_BITS;
+        words = new long[wordsPerRow * length];
+    }
+
+    // EFFECTS: returns true if the cell at x,y is in this set
+    boolean get(int x, int y) {
+        return (words[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the cell at x,y to this set
+    void set(int x, int y) {
+        words[y * wordsPerRow + (x >>> 6)] |= 1L << x;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the cell at x,y from this set
+    void clear(int x, int y) {
+        words[y * wordsPerRow + (x >>> 6)] &= ~(1L << x);
+    }
+
+    // REQUIRES: 0 <= y < length, 0 <= x0 <= x1 < width, exclude is null or has the same dimensions
+    // EFFECTS: returns true if any cell of row y from x0 to x1 inclusive is in this set and
+    //          not in exclude
+    boolean anyInRow(int y, int x0, int x1, Bitboard exclude) {
+        int first = x0 >>> 6;
+        int last = x1 >>> 6;
+        int rowStart = y * wordsPerRow;
+        for (int w = first; w <= last; w++) {
+            long bits = words[rowStart + w];
+            if (exclude != null) {
+                bits &= ~exclude.words[rowStart + w];
+            }
+            if ((bits & rowMask(w, first, last, x0, x1)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // REQUIRES: 0 <= y < length, 0 <= x0 <= x1 < width
+    // EFFECTS: returns the number of cells of row y from x0 to x1 inclusive that are in this set
+    int countInRow(int y, int x0, int x1) {
+        int first = x0 >>> 6;
+        int last = x1 >>> 6;
+        int rowStart = y * wordsPerRow;
+        int count = 0;
+        for (int w = first; w <= last; w++) {
+            count += Long.bitCount(words[rowStart + w] & rowMask(w, first, last, x0, x1));
+        }
+        return count;
+    }
+
+    // REQUIRES: 0 <= y < length, 0 <= x < width
+    // EFFECTS: returns the index row * width + column of the first cell not in this set at or after
+    //          x,y in row-major order, or -1 if every such cell is in this set
+    int nextClear(int x, int y) {
+        int column = x;
+        for (int row = y; row < length; row++) {
+            int first = column >>> 6;
+            int last = (width - 1) >>> 6;
+            for (int w = first; w <= last; w++) {
+                long free = ~words[row * wordsPerRow + w] & rowMask(w, first, last, column, width - 1);
+                if (free != 0) {
+                    return row * width + (w << 6) + Long.numberOfTrailingZeros(free);
+                }
+            }
+            column = 0;
+        }
+        return -1;
+    }
+
+    // REQUIRES: 0 <= y < length, 0 <= x < width
+    // EFFECTS: returns the index row * width + column of the first cell in this set at or after x,y in
+    //          row-major order, or -1 if there is none
+    int nextSet(int x, int y) {
+        int column = x;
+        for (int row = y; row < length; row++) {
+            int first = column >>> 6;
+            int last = (width - 1) >>> 6;
+            for (int w = first; w <= last; w++) {
+                long bits = words[row * wordsPerRow + w] & rowMask(w, first, last, column, width - 1);
+                if (bits != 0) {
+                    return row * width + (w << 6) + Long.numberOfTrailingZeros(bits);
+                }
+            }
+            column = 0;
+        }
+        return -1;
+    }
+
+    // EFFECTS: returns the number of cells in this set
+    int count() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    // REQUIRES: other has the same dimensions as this
+    // MODIFIES: this
+    // EFFECTS: keeps only the cells of this set that are also in other
+    void and(Bitboard other) {
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= other.words[i];
+        }
+    }
+
+    // REQUIRES: other has the same dimensions as this
+    // MODIFIES: this
+    // EFFECTS: removes the cells of other from this set
+    void andNot(Bitboard other) {
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= ~other.words[i];
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every cell outside the rectangle from x0,y0 to x1,y1 inclusive from this set
+    void retainRect(int x0, int y0, int x1, int y1) {
+        int minX = Math.max(x0, 0);
+        int maxX = Math.min(x1, width - 1);
+        for (int y = 0; y < length; y++) {
+            int rowStart = y * wordsPerRow;
+            if (y < y0 || y > y1 || minX > maxX) {
+                Arrays.fill(words, rowStart, rowStart + wordsPerRow, 0);
+                continue;
+            }
+            int first = minX >>> 6;
+            int last = maxX >>> 6;
+            for (int w = 0; w < wordsPerRow; w++) {
+                words[rowStart + w] &= (w < first || w > last) ? 0 : rowMask(w, first, last, minX, maxX);
+            }
+        }
+    }
+
+    // EFFECTS: returns a new bitboard of this set grown by every cell within radius of one of its cells,
+    //          made by shifting every row one cell left and right and every row one row up and down,
+    //          and or-ing them together radius times
+    Bitboard dilate(int radius) {
+        Bitboard current = copy();
+        Bitboard next = new Bitboard(width, length);
+        long tail = -1L >>> (63 - ((width - 1) & 63));
+        for (int step = 0; step < Math.min(radius, width + length); step++) {
+            for (int y = 0; y < length; y++) {
+                int rowStart = y * wordsPerRow;
+                for (int w = 0; w < wordsPerRow; w++) {
+                    int i = rowStart + w;
+                    long bits = current.words[i];
+                    long right = (bits << 1) | (w > 0 ? current.words[i - 1] >>> 63 : 0);
+                    long left = (bits >>> 1) | (w < wordsPerRow - 1 ? current.words[i + 1] << 63 : 0);
+                    long up = y > 0 ? current.words[i - wordsPerRow] : 0;
+                    long down = y < length - 1 ? current.words[i + wordsPerRow] : 0;
+                    next.words[i] = (bits | right | left | up | down) & (w == wordsPerRow - 1 ? tail : -1L);
+                }
+            }
+            Bitboard swap = current;
+            current = next;
+            next = swap;
+        }
+        return current;
+    }
+
+    // REQUIRES: windowWidth > 0, windowLength > 0
+    // EFFECTS: returns a new windowWidth x windowLength bitboard holding the cells of this set from x0,y0 on,
+    //          where cells outside this set's grid are not in it
+    Bitboard window(int x0, int y0, int windowWidth, int windowLength) {
+        Bitboard window = new Bitboard(windowWidth, windowLength);
+        long tail = -1L >>> (63 - ((windowWidth - 1) & 63));
+        for (int y = 0; y < windowLength; y++) {
+            for (int w = 0; w < window.wordsPerRow; w++) {
+                long bits = wordAt(x0 + (w << 6), y0 + y);
+                window.words[y * window.wordsPerRow + w] = w == window.wordsPerRow - 1 ? bits & tail : bits;
+            }
+        }
+        return window;
+    }
+
+    // EFFECTS: returns the 64 cells of row y from column x on as the bits of a word, where cells outside
+    //          the grid are not in it
+    private long wordAt(int x, int y) {
+        if (y < 0 || y >= length) {
+            return 0;
+        }
+        int w = Math.floorDiv(x, WORD_BITS);
+        int shift = Math.floorMod(x, WORD_BITS);
+        long low = w >= 0 && w < wordsPerRow ? words[y * wordsPerRow + w] : 0;
+        if (shift == 0) {
+            return low;
+        }
+        long high = w + 1 >= 0 && w + 1 < wordsPerRow ? words[y * wordsPerRow + w + 1] : 0;
+        return (low >>> shift) | (high << (WORD_BITS - shift));
+    }
+
+    // EFFECTS: returns a new bitboard holding the same cells as this
+    Bitboard copy() {
+        Bitboard copy = new Bitboard(width, length);
+        System.arraycopy(words, 0, copy.words, 0, words.length);
+        return copy;
+    }
+
+    // EFFECTS: returns the mask of the bits of word w of a row that lie between columns x0 and x1
+    //          inclusive, where first and last are the words holding x0 and x1
+    private static long rowMask(int w, int first, int last, int x0, int x1) {
+        long mask = -1L;
+        if (w == first) {
+            mask &= -1L << (x0 & 63);
+        }
+        if (w == last) {
+            mask &= -1L >>> (63 - (x1 & 63));
+        }
+        return mask;
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getLength() {
+        return length;
+    }
+}
@@ -0,0 +1,69 @@
+package model;
+
+import java.util.Arrays;
+
+// Represents a priority queue of cells for path searches whose steps cost between 1 and
+// Position.MAX_MOVE_COST. Cells are kept in MAX_MOVE_COST + 1 circular buckets by their cost, so
+// pushing and popping take constant time. A cell can be pushed again with a lower cost, and it is up
+// to the search to skip the stale copy when it is popped. Buckets only ever grow, so a queue reused
+// between searches stops allocating once it has seen its largest search
+final class BucketQueue {
+
+    private static final int BUCKETS = Position.MAX_MOVE_COST + 1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int[][] buckets;
+    private final int[] sizes;
+    private int pending;
+    private int current;
+    private int read;
+
+    // EFFECTS: constructs an empty queue
+    BucketQueue() {
+        buckets = new int[BUCKETS][INITIAL_CAPACITY];
+        sizes = new int[BUCKETS];
+    }
+
+    // REQUIRES: cost is at least the cost of the last popped cell and at most MAX_MOVE_COST more than it
+    // MODIFIES: this
+    // EFFECTS: adds cell to the queue with cost, growing its bucket if it is full
+    void push(int cell, int cost) {
+        int bucket = cost % BUCKETS;
+        if (sizes[bucket] == buckets[bucket].length) {
+            buckets[bucket] = Arrays.copyOf(buckets[bucket], buckets[bucket].length * 2);
+        }
+        buckets[bucket][sizes[bucket]++] = cell;
+        pending++;
+    }
+
+    // REQUIRES: !isEmpty()
+    // MODIFIES: this
+    // EFFECTS: removes and returns a cell with the lowest cost in the queue
+    int pop() {
+        while (read == sizes[current % BUCKETS]) {
+            sizes[current % BUCKETS] = 0;
+            read = 0;
+            current++;
+        }
+        pending--;
+        return buckets[current % BUCKETS][read++];
+    }
+
+    // EFFECTS: returns the cost of the last popped cell
+    int cost() {
+        return current;
+    }
+
+    boolean isEmpty() {
+        return pending == 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: empties the queue and resets its cost to 0, keeping the capacity of its buckets
+    void clear() {
+        Arrays.fill(sizes, 0);
+        pending = 0;
+        current = 0;
+        read = 0;
+    }
+}
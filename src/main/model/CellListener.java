@@ -0,0 +1,8 @@
+package model;
+
+// Interface for objects that need to know when the unit, faction or stat modifiers of a
+// position of a stage change
+public interface CellListener {
+    // EFFECTS: responds to a change of the position at x,y
+    void cellChanged(int posX, int posY);
+}
@@ -0,0 +1,66 @@
+package model;
+
+// Represents the loops that sweep the flat per-cell int arrays kept for a stage, such as the threat
+// grids of a ThreatMap, the colour bands of a battle's stage and the block sums of its stat regions.
+// Every loop is a plain counted loop over ints with no branches or calls in its body, so the JIT
+// compiler turns it into SIMD instructions where the processor has them and runs it one cell at a
+// time where it does not; integer adds and maxes give the same result either way
+final class CellSweeps {
+
+    private CellSweeps() {
+    }
+
+    // REQUIRES: 0 <= from <= to <= cells.length
+    // MODIFIES: cells
+    // EFFECTS: adds amount to every cell from from inclusive to to exclusive
+    static void add(int[] cells, int from, int to, int amount) {
+        for (int i = from; i < to; i++) {
+            cells[i] += amount;
+        }
+    }
+
+    // REQUIRES: 0 <= from <= to <= cells.length
+    // MODIFIES: cells
+    // EFFECTS: raises every cell from from inclusive to to exclusive to at least value
+    static void raise(int[] cells, int from, int to, int value) {
+        for (int i = from; i < to; i++) {
+            cells[i] = Math.max(cells[i], value);
+        }
+    }
+
+    // REQUIRES: target and source have the same length
+    // MODIFIES: target
+    // EFFECTS: adds every cell of source to the same cell of target
+    static void addAll(int[] target, int[] source) {
+        addAll(target, 0, source, 0, target.length);
+    }
+
+    // REQUIRES: count >= 0, the count cells from targetFrom are in target and those from sourceFrom are in
+    //           source, and if target is source the two runs do not overlap
+    // MODIFIES: target
+    // EFFECTS: adds the count cells of source from sourceFrom to the count cells of target from targetFrom
+    static void addAll(int[] target, int targetFrom, int[] source, int sourceFrom, int count) {
+        for (int i = 0; i < count; i++) {
+            target[targetFrom + i] += source[sourceFrom + i];
+        }
+    }
+
+    // REQUIRES: target and source have the same length
+    // MODIFIES: target
+    // EFFECTS: raises every cell of target to at least the same cell of source
+    static void raiseAll(int[] target, int[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] = Math.max(target[i], source[i]);
+        }
+    }
+
+    // REQUIRES: threshold >= 1 and every cell is >= 0
+    // EFFECTS: returns the number of cells that are at least threshold
+    static int countAtLeast(int[] cells, int threshold) {
+        int count = 0;
+        for (int i = 0; i < cells.length; i++) {
+            count += (threshold - 1 - cells[i]) >>> 31;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,408 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Represents a hierarchical view of the cells of a stage for long range path searches. The stage is
+// divided into square clusters of CLUSTER_SIZE x CLUSTER_SIZE cells. Wherever two neighbouring
+// clusters share a run of open cells across their border, the run is an entrance that is crossed at
+// its middle, or at both of its ends if it is long, and the cells on either side of a crossing are
+// nodes of the cluster graph. Each cluster keeps the cheapest walk between every pair of its nodes
+// that stays inside it. A route is found by linking the start and goal to the nodes of their clusters
+// and searching the much smaller cluster graph. Impassable cells and cells with a unit on them are
+// closed, other than the start and goal of a route. Clusters are only built the first time a route
+// needs them, and a change to a cell only marks the clusters whose nodes or walks it can change to
+// be built again
+final class ClusterGraph implements CellListener {
+
+    static final int CLUSTER_SIZE = 16;
+
+    private static final int LONG_ENTRANCE = 6;
+    private static final int UNREACHED = -1;
+    private static final int TIE_BREAKS = 1 << 12;
+    // orders the entries of a route search, each a priority and a cell, by priority and then by cell
+    private static final Comparator<long[]> BY_PRIORITY =
+            Comparator.<long[]>comparingLong(entry -> entry[0]).thenComparingLong(entry -> entry[1]);
+
+    private final StageGrid cells;
+    private final int width;
+    private final int length;
+    private final int clustersX;
+    private final int clustersY;
+    private final int[][] eastCrossings;
+    private final int[][] southCrossings;
+    private final int[][] nodes;
+    private final int[][] nodeCosts;
+    private final boolean[] built;
+    private final int[] localCosts;
+    private final PriorityQueue<Long> localQueue;
+    private int builds;
+
+    // EFFECTS: constructs a cluster graph over the cells of a stage with no clusters built
+    ClusterGraph(StageGrid cells) {
+        this.cells = cells;
+        width = cells.getWidth();
+        length = cells.getLength();
+        clustersX = (width + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+        clustersY = (length + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+        eastCrossings = new int[clustersX * clustersY][];
+        southCrossings = new int[clustersX * clustersY][];
+        nodes = new int[clustersX * clustersY][];
+        nodeCosts = new int[clustersX * clustersY][];
+        built = new boolean[clustersX * clustersY];
+        localCosts = new int[CLUSTER_SIZE * CLUSTER_SIZE];
+        localQueue = new PriorityQueue<>();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks the cluster of x,y to be built again, and the neighbouring cluster across any
+    //          border x,y lies on, since the entrances of that border may have changed
+    @Override
+    public void cellChanged(int posX, int posY) {
+        int cx = posX / CLUSTER_SIZE;
+        int cy = posY / CLUSTER_SIZE;
+        built[cy * clustersX + cx] = false;
+        if (posX % CLUSTER_SIZE == 0 && cx > 0) {
+            built[cy * clustersX + cx - 1] = false;
+        }
+        if (posX % CLUSTER_SIZE == CLUSTER_SIZE - 1 && cx < clustersX - 1) {
+            built[cy * clustersX + cx + 1] = false;
+        }
+        if (posY % CLUSTER_SIZE == 0 && cy > 0) {
+            built[(cy - 1) * clustersX + cx] = false;
+        }
+        if (posY % CLUSTER_SIZE == CLUSTER_SIZE - 1 && cy < clustersY - 1) {
+            built[(cy + 1) * clustersX + cx] = false;
+        }
+    }
+
+    // REQUIRES: start and goal are indices of cells of the stage
+    // MODIFIES: this
+    // EFFECTS: returns the cells of the cheapest route from start to goal through the cluster graph,
+    //          starting with start and ending with goal, with the crossings between clusters in between,
+    //          or null if there is no route
+    int[] route(int start, int goal) {
+        Map<Integer, Integer> fromStart = linksOf(start, goal, false);
+        Map<Integer, Integer> toGoal = linksOf(goal, start, true);
+        Map<Integer, Integer> costs = new HashMap<>();
+        Map<Integer, Integer> parents = new HashMap<>();
+        PriorityQueue<long[]> open = new PriorityQueue<>(BY_PRIORITY);
+        costs.put(start, 0);
+        open.add(new long[]{priority(0, start, goal), start});
+        while (!open.isEmpty()) {
+            long[] entry = open.poll();
+            int cell = (int) entry[1];
+            int cost = costs.get(cell);
+            if (entry[0] != priority(cost, cell, goal)) {
+                continue;
+            }
+            if (cell == goal) {
+                return path(start, goal, parents);
+            }
+            if (cell == start) {
+                for (Map.Entry<Integer, Integer> link : fromStart.entrySet()) {
+                    relax(start, link.getKey(), link.getValue(), goal, costs, parents, open);
+                }
+            }
+            if (toGoal.containsKey(cell)) {
+                relax(cell, goal, toGoal.get(cell), goal, costs, parents, open);
+            }
+            expand(cell, goal, costs, parents, open);
+        }
+        return null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the cheapest walks inside the cluster of source from source to each node of the
+    //          cluster and to other if it is in the same cluster, or from them to source if reverse;
+    //          source and other are open to the walks
+    private Map<Integer, Integer> linksOf(int source, int other, boolean reverse) {
+        int cluster = clusterOf(source);
+        ensureBuilt(cluster);
+        searchLocal(cluster, source, source, other, reverse);
+        Map<Integer, Integer> links = new HashMap<>();
+        for (int node : nodes[cluster]) {
+            if (localCost(cluster, node) != UNREACHED) {
+                links.put(node, localCost(cluster, node));
+            }
+        }
+        if (clusterOf(other) == cluster && localCost(cluster, other) != UNREACHED) {
+            links.put(other, localCost(cluster, other));
+        }
+        return links;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: relaxes the walks from node to the other nodes of its cluster and across the borders it
+    //          is a crossing of
+    private void expand(int node, int goal, Map<Integer, Integer> costs, Map<Integer, Integer> parents,
+                        PriorityQueue<long[]> open) {
+        int cluster = clusterOf(node);
+        ensureBuilt(cluster);
+        int[] clusterNodes = nodes[cluster];
+        int from = indexOfNode(cluster, node);
+        if (from >= 0) {
+            for (int to = 0; to < clusterNodes.length; to++) {
+                int step = nodeCosts[cluster][from * clusterNodes.length + to];
+                relax(node, clusterNodes[to], step, goal, costs, parents, open);
+            }
+        }
+        int x = node % width;
+        int y = node / width;
+        int cx = x / CLUSTER_SIZE;
+        int cy = y / CLUSTER_SIZE;
+        if (x % CLUSTER_SIZE == CLUSTER_SIZE - 1 && cx < clustersX - 1 && contains(eastCrossings[cluster], node)) {
+            relax(node, node + 1, cells.getMoveCost(node + 1), goal, costs, parents, open);
+        }
+        if (x % CLUSTER_SIZE == 0 && cx > 0 && contains(eastCrossings[cluster - 1], node - 1)) {
+            relax(node, node - 1, cells.getMoveCost(node - 1), goal, costs, parents, open);
+        }
+        if (y % CLUSTER_SIZE == CLUSTER_SIZE - 1 && cy < clustersY - 1 && contains(southCrossings[cluster], node)) {
+            relax(node, node + width, cells.getMoveCost(node + width), goal, costs, parents, open);
+        }
+        if (y % CLUSTER_SIZE == 0 && cy > 0 && contains(southCrossings[cluster - clustersX], node - width)) {
+            relax(node, node - width, cells.getMoveCost(node - width), goal, costs, parents, open);
+        }
+    }
+
+    // MODIFIES: costs, parents, open
+    // EFFECTS: if walking from one cell to another for step is the cheapest way to the other found so far,
+    //          records it and queues the other cell by its priority
+    private void relax(int from, int to, int step, int goal, Map<Integer, Integer> costs,
+                       Map<Integer, Integer> parents, PriorityQueue<long[]> open) {
+        if (step == UNREACHED || from == to) {
+            return;
+        }
+        int cost = costs.get(from) + step;
+        Integer known = costs.get(to);
+        if (known == null || cost < known) {
+            costs.put(to, cost);
+            parents.put(to, from);
+            open.add(new long[]{priority(cost, to, goal), to});
+        }
+    }
+
+    // EFFECTS: returns the cells from start to goal by following the recorded parents back from goal
+    private int[] path(int start, int goal, Map<Integer, Integer> parents) {
+        int size = 1;
+        for (int cell = goal; cell != start; cell = parents.get(cell)) {
+            size++;
+        }
+        int[] path = new int[size];
+        int cell = goal;
+        for (int i = size - 1; i >= 0; i--) {
+            path[i] = cell;
+            cell = i > 0 ? parents.get(cell) : cell;
+        }
+        return path;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: finds the entrances of the borders of cluster and the cheapest walks between its nodes,
+    //          if it is not built already
+    private void ensureBuilt(int cluster) {
+        if (built[cluster]) {
+            return;
+        }
+        int cx = cluster % clustersX;
+        int cy = cluster / clustersX;
+        int x0 = cx * CLUSTER_SIZE;
+        int y0 = cy * CLUSTER_SIZE;
+        int x1 = Math.min(x0 + CLUSTER_SIZE, width) - 1;
+        int y1 = Math.min(y0 + CLUSTER_SIZE, length) - 1;
+        if (cx < clustersX - 1) {
+            eastCrossings[cluster] = findCrossings(x1 + y0 * width, width, y1 - y0 + 1, 1);
+        }
+        if (cx > 0) {
+            eastCrossings[cluster - 1] = findCrossings(x0 - 1 + y0 * width, width, y1 - y0 + 1, 1);
+        }
+        if (cy < clustersY - 1) {
+            southCrossings[cluster] = findCrossings(x0 + y1 * width, 1, x1 - x0 + 1, width);
+        }
+        if (cy > 0) {
+            southCrossings[cluster - clustersX] = findCrossings(x0 + (y0 - 1) * width, 1, x1 - x0 + 1, width);
+        }
+        int[] clusterNodes = collectNodes(cluster);
+        int[] costs = new int[clusterNodes.length * clusterNodes.length];
+        for (int from = 0; from < clusterNodes.length; from++) {
+            searchLocal(cluster, clusterNodes[from], UNREACHED, UNREACHED, false);
+            for (int to = 0; to < clusterNodes.length; to++) {
+                costs[from * clusterNodes.length + to] = localCost(cluster, clusterNodes[to]);
+            }
+        }
+        nodes[cluster] = clusterNodes;
+        nodeCosts[cluster] = costs;
+        built[cluster] = true;
+        builds++;
+    }
+
+    // EFFECTS: returns the cells on the near side of the crossings of a border that starts at first,
+    //          walks along it in steps of along for size cells, and crosses it in a step of across;
+    //          a run of open pairs is crossed at its middle, or at both ends if it is long
+    private int[] findCrossings(int first, int along, int size, int across) {
+        int[] crossings = new int[size];
+        int count = 0;
+        int runStart = UNREACHED;
+        for (int i = 0; i <= size; i++) {
+            int cell = first + i * along;
+            boolean open = i < size && isOpen(cell) && isOpen(cell + across);
+            if (open && runStart == UNREACHED) {
+                runStart = i;
+            } else if (!open && runStart != UNREACHED) {
+                int runEnd = i - 1;
+                if (runEnd - runStart + 1 >= LONG_ENTRANCE) {
+                    crossings[count++] = first + runStart * along;
+                    crossings[count++] = first + runEnd * along;
+                } else {
+                    crossings[count++] = first + ((runStart + runEnd) / 2) * along;
+                }
+                runStart = UNREACHED;
+            }
+        }
+        return Arrays.copyOf(crossings, count);
+    }
+
+    // EFFECTS: returns the cells of cluster that are on its side of a crossing of one of its borders,
+    //          without repeats
+    private int[] collectNodes(int cluster) {
+        int cx = cluster % clustersX;
+        int cy = cluster / clustersX;
+        int[] east = cx < clustersX - 1 ? eastCrossings[cluster] : new int[0];
+        int[] west = cx > 0 ? eastCrossings[cluster - 1] : new int[0];
+        int[] south = cy < clustersY - 1 ? southCrossings[cluster] : new int[0];
+        int[] north = cy > 0 ? southCrossings[cluster - clustersX] : new int[0];
+        int[] all = new int[east.length + west.length + south.length + north.length];
+        int count = 0;
+        for (int cell : east) {
+            all[count++] = cell;
+        }
+        for (int cell : west) {
+            all[count++] = cell + 1;
+        }
+        for (int cell : south) {
+            all[count++] = cell;
+        }
+        for (int cell : north) {
+            all[count++] = cell + width;
+        }
+        Arrays.sort(all);
+        int unique = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (i == 0 || all[i] != all[i - 1]) {
+                all[unique++] = all[i];
+            }
+        }
+        return Arrays.copyOf(all, unique);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: finds the cheapest walks inside cluster from source to every cell of it, or from every cell
+    //          of it to source if reverse, through open cells and the cells start and goal
+    private void searchLocal(int cluster, int source, int start, int goal, boolean reverse) {
+        Arrays.fill(localCosts, UNREACHED);
+        localQueue.clear();
+        int x0 = (cluster % clustersX) * CLUSTER_SIZE;
+        int y0 = (cluster / clustersX) * CLUSTER_SIZE;
+        int x1 = Math.min(x0 + CLUSTER_SIZE, width) - 1;
+        int y1 = Math.min(y0 + CLUSTER_SIZE, length) - 1;
+        localCosts[localIndex(source, x0, y0)] = 0;
+        localQueue.add((long) source);
+        while (!localQueue.isEmpty()) {
+            long entry = localQueue.poll();
+            int cell = (int) entry;
+            int cost = (int) (entry >>> 32);
+            if (localCosts[localIndex(cell, x0, y0)] != cost) {
+                continue;
+            }
+            int x = cell % width;
+            int y = cell / width;
+            int enter = reverse ? cells.getMoveCost(cell) : 0;
+            visitLocal(x > x0 ? cell - 1 : UNREACHED, cost, enter, reverse, start, goal, x0, y0);
+            visitLocal(x < x1 ? cell + 1 : UNREACHED, cost, enter, reverse, start, goal, x0, y0);
+            visitLocal(y > y0 ? cell - width : UNREACHED, cost, enter, reverse, start, goal, x0, y0);
+            visitLocal(y < y1 ? cell + width : UNREACHED, cost, enter, reverse, start, goal, x0, y0);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if cell is in the cluster and open, or is start or goal, and reaching it for cost plus the
+    //          cost of the step is cheaper than before, records the new cost and queues it. A forward step
+    //          costs the movement cost of cell, a reverse step costs enter, the cost of the cell stepped from
+    private void visitLocal(int cell, int cost, int enter, boolean reverse, int start, int goal, int x0, int y0) {
+        if (cell == UNREACHED || (!isOpen(cell) && cell != start && cell != goal)) {
+            return;
+        }
+        int next = cost + (reverse ? enter : cells.getMoveCost(cell));
+        int local = localIndex(cell, x0, y0);
+        if (localCosts[local] == UNREACHED || next < localCosts[local]) {
+            localCosts[local] = next;
+            localQueue.add(((long) next << 32) | cell);
+        }
+    }
+
+    // REQUIRES: searchLocal was last called on cluster and cell is in cluster
+    // EFFECTS: returns the cost the last local search found for cell, or -1 if it was not reached
+    private int localCost(int cluster, int cell) {
+        int x0 = (cluster % clustersX) * CLUSTER_SIZE;
+        int y0 = (cluster / clustersX) * CLUSTER_SIZE;
+        return localCosts[localIndex(cell, x0, y0)];
+    }
+
+    // EFFECTS: returns the index of cell in the local buffers of the cluster whose corner is x0,y0
+    private int localIndex(int cell, int x0, int y0) {
+        return (cell / width - y0) * CLUSTER_SIZE + (cell % width - x0);
+    }
+
+    // EFFECTS: returns true if a route can go through cell, which is when it is passable and has no unit
+    private boolean isOpen(int cell) {
+        return cells.getMoveCost(cell) != Position.IMPASSABLE && !cells.isOccupied(cell);
+    }
+
+    // EFFECTS: returns the index of node in the nodes of cluster, or -1 if it is not one of them
+    private int indexOfNode(int cluster, int node) {
+        int[] clusterNodes = nodes[cluster];
+        for (int i = 0; i < clusterNodes.length; i++) {
+            if (clusterNodes[i] == node) {
+                return i;
+            }
+        }
+        return UNREACHED;
+    }
+
+    // EFFECTS: returns true if crossings contains cell
+    private static boolean contains(int[] crossings, int cell) {
+        for (int crossing : crossings) {
+            if (crossing == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // EFFECTS: returns the cluster containing cell
+    private int clusterOf(int cell) {
+        return (cell / width / CLUSTER_SIZE) * clustersX + (cell % width) / CLUSTER_SIZE;
+    }
+
+    // EFFECTS: returns the priority of reaching cell for cost on the way to goal: its cost plus its distance
+    //          to goal, with ties going to the cell nearer to goal so that routes across open ground do not
+    //          spread out over every equally cheap cell. Worked out as a long, since cost + distance times
+    //          TIE_BREAKS overflows an int once a route costs more than about half a million
+    private long priority(int cost, int cell, int goal) {
+        int remaining = distance(cell, goal);
+        return (long) (cost + remaining) * TIE_BREAKS + Math.min(remaining, TIE_BREAKS - 1);
+    }
+
+    // EFFECTS: returns the manhattan distance between two cells, which no route between them can beat
+    private int distance(int from, int to) {
+        return Math.abs(from % width - to % width) + Math.abs(from / width - to / width);
+    }
+
+    // EFFECTS: returns the number of times a cluster has been built
+    int getBuilds() {
+        return builds;
+    }
+}
@@ -0,0 +1,111 @@
+package model;
+
+// Represents the exact chances of every outcome of a battle between an attacker and a defender. A battle is
+// at most two blows: the faster unit strikes first, and the unit struck strikes back if it survives and
+// can reach, so the chances are the hp the first unit struck ends with after the first blow, and the hp the
+// other unit ends with if the second blow is struck
+public class CombatForecast {
+
+    private final int attackerHp;
+    private final int defenderHp;
+    private final boolean defenderStruckFirst;
+    private final double[] firstBlow;
+    private final double[] secondBlow;
+
+    // REQUIRES: firstBlow has an entry for every hp from 0 to the starting hp of the unit struck first, and
+    //           so does secondBlow for the other unit unless it is null
+    // EFFECTS: constructs the forecast of a battle where the defender is struck first if defenderStruckFirst,
+    //          else the attacker, with the chances firstBlow of each hp the unit struck first ends with, and
+    //          the chances secondBlow of each hp the other unit ends with if it is struck, or null if it can't be
+    CombatForecast(int attackerHp, int defenderHp, boolean defenderStruckFirst,
+                   double[] firstBlow, double[] secondBlow) {
+        this.attackerHp = attackerHp;
+        this.defenderHp = defenderHp;
+        this.defenderStruckFirst = defenderStruckFirst;
+        this.firstBlow = firstBlow;
+        this.secondBlow = secondBlow;
+    }
+
+    // EFFECTS: returns the chance that the battle ends with the attacker on attackerHp and the defender on
+    //          defenderHp
+    public double getChance(int attackerHp, int defenderHp) {
+        int first = defenderStruckFirst ? defenderHp : attackerHp;
+        int second = defenderStruckFirst ? attackerHp : defenderHp;
+        if (first < 0 || first >= firstBlow.length) {
+            return 0;
+        }
+        boolean struck = first > 0 && secondBlow != null;
+        return firstBlow[first] * (struck ? chanceIn(secondBlow, second) : (second == secondStartHp() ? 1 : 0));
+    }
+
+    // EFFECTS: returns the chance that the attacker ends the battle on hp
+    public double getAttackerHpChance(int hp) {
+        return defenderStruckFirst ? secondHpChance(hp) : chanceIn(firstBlow, hp);
+    }
+
+    // EFFECTS: returns the chance that the defender ends the battle on hp
+    public double getDefenderHpChance(int hp) {
+        return defenderStruckFirst ? chanceIn(firstBlow, hp) : secondHpChance(hp);
+    }
+
+    // EFFECTS: returns the chance that the attacker dies in the battle
+    public double getAttackerDeathChance() {
+        return getAttackerHpChance(0);
+    }
+
+    // EFFECTS: returns the chance that the defender dies in the battle
+    public double getDefenderDeathChance() {
+        return getDefenderHpChance(0);
+    }
+
+    // EFFECTS: returns the hp the attacker is expected to end the battle on
+    public double getExpectedAttackerHp() {
+        double expected = 0;
+        for (int hp = 1; hp <= attackerHp; hp++) {
+            expected += hp * getAttackerHpChance(hp);
+        }
+        return expected;
+    }
+
+    // EFFECTS: returns the hp the defender is expected to end the battle on
+    public double getExpectedDefenderHp() {
+        double expected = 0;
+        for (int hp = 1; hp <= defenderHp; hp++) {
+            expected += hp * getDefenderHpChance(hp);
+        }
+        return expected;
+    }
+
+    // EFFECTS: returns true if the unit struck first strikes back when it survives
+    public boolean hasSecondBlow() {
+        return secondBlow != null;
+    }
+
+    public int getAttackerHp() {
+        return attackerHp;
+    }
+
+    public int getDefenderHp() {
+        return defenderHp;
+    }
+
+    // EFFECTS: returns the chance that the unit struck second, if it is struck, ends the battle on hp; it
+    //          keeps its starting hp if the first unit struck dies or can't strike back
+    private double secondHpChance(int hp) {
+        if (secondBlow == null) {
+            return hp == secondStartHp() ? 1 : 0;
+        }
+        double untouched = hp == secondStartHp() ? firstBlow[0] : 0;
+        return untouched + (1 - firstBlow[0]) * chanceIn(secondBlow, hp);
+    }
+
+    // EFFECTS: returns the starting hp of the unit struck second
+    private int secondStartHp() {
+        return defenderStruckFirst ? attackerHp : defenderHp;
+    }
+
+    // EFFECTS: returns chances[hp], or 0 if hp is out of its bounds
+    private static double chanceIn(double[] chances, int hp) {
+        return hp >= 0 && hp < chances.length ? chances[hp] : 0;
+    }
+}
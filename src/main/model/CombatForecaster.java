@@ -0,0 +1,123 @@
+package model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Represents a calculator of the exact chances of every outcome of Warrior.battle, without playing it.
+// A blow deals strength + bonus - defense damage when that is positive, where the bonus has the closed form
+// of a CriticalHitTable, so the chance of each hp the unit struck ends with is a sum over the bonuses that
+// leave it alive plus the chance of every bigger bonus at once. The crit tables are kept per luck, and
+// forecasts are kept per matchup of the stats that decide a battle, with the stat modifiers of the
+// positions of both units already added in, so asking again about the same matchup is a lookup. Counts how
+// many forecasts were answered from the cache and how many needed a new calculation
+public class CombatForecaster {
+
+    public static final int MAX_CACHED = 1024;
+
+    private final Map<Integer, CriticalHitTable> tables;
+    private final Map<Matchup, CombatForecast> forecasts;
+    private int hits;
+    private int misses;
+
+    // Represents the stats that decide a battle: the hp, strength, defense and luck of both units, whether
+    // the defender is struck first and whether the unit struck first can strike back
+    private static final class Matchup {
+        private final int[] stats;
+
+        private Matchup(int... stats) {
+            this.stats = stats;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Matchup && Arrays.equals(stats, ((Matchup) o).stats);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(stats);
+        }
+    }
+
+    // EFFECTS: constructs a forecaster with no tables or forecasts cached
+    public CombatForecaster() {
+        tables = new HashMap<>();
+        forecasts = new LinkedHashMap<Matchup, CombatForecast>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Matchup, CombatForecast> eldest) {
+                return size() > MAX_CACHED;
+            }
+        };
+    }
+
+    // REQUIRES: attacker and defender are alive and have positions on the same stage
+    // MODIFIES: this
+    // EFFECTS: returns the exact chances of every outcome of attacker.battle(defender) from where both units
+    //          stand now
+    public CombatForecast forecast(Warrior attacker, Warrior defender) {
+        boolean defenderStruckFirst = attacker.strikesFirst(defender);
+        boolean reaches = defender.canStrikeBack(attacker);
+        return forecast(attacker.getHP(), attacker.getRealStrength(), attacker.getRealDefense(),
+                attacker.getRealLuck(), defender.getHP(), defender.getRealStrength(), defender.getRealDefense(),
+                defender.getRealLuck(), defenderStruckFirst || !reaches, reaches);
+    }
+
+    // REQUIRES: attackerHp >= 1, defenderHp >= 1
+    // MODIFIES: this
+    // EFFECTS: returns the exact chances of every outcome of a battle between units with the given stats
+    //          where the defender is struck first if defenderStruckFirst, else the attacker, and the unit
+    //          struck first strikes back if it survives and secondBlow
+    @SuppressWarnings("methodlength")
+    public CombatForecast forecast(int attackerHp, int attackerStrength, int attackerDefense, int attackerLuck,
+                                   int defenderHp, int defenderStrength, int defenderDefense, int defenderLuck,
+                                   boolean defenderStruckFirst, boolean secondBlow) {
+        Matchup matchup = new Matchup(attackerHp, attackerStrength, attackerDefense, attackerLuck, defenderHp,
+                defenderStrength, defenderDefense, defenderLuck, defenderStruckFirst ? 1 : 0, secondBlow ? 1 : 0);
+        CombatForecast forecast = forecasts.get(matchup);
+        if (forecast != null) {
+            hits++;
+            return forecast;
+        }
+        misses++;
+        double[] attackerBlow = blow(attackerStrength, attackerLuck, defenderDefense, defenderHp);
+        double[] defenderBlow = blow(defenderStrength, defenderLuck, attackerDefense, attackerHp);
+        if (defenderStruckFirst) {
+            forecast = new CombatForecast(attackerHp, defenderHp, true, attackerBlow,
+                    secondBlow ? defenderBlow : null);
+        } else {
+            forecast = new CombatForecast(attackerHp, defenderHp, false, defenderBlow,
+                    secondBlow ? attackerBlow : null);
+        }
+        forecasts.put(matchup, forecast);
+        return forecast;
+    }
+
+    // REQUIRES: hp >= 1
+    // MODIFIES: this
+    // EFFECTS: returns the chance of each hp from 0 to hp that a unit with hp and defense ends with after a
+    //          blow from a unit with strength and luck. Every bonus up to -base deals no damage and every bonus
+    //          from hp - base on kills, so only the bonuses in between are added one at a time
+    private double[] blow(int strength, int luck, int defense, int hp) {
+        CriticalHitTable table = tables.computeIfAbsent(luck, CriticalHitTable::new);
+        double[] chances = new double[hp + 1];
+        int base = strength - defense;
+        int firstDamaging = Math.max(1 - base, 0);
+        int firstKilling = Math.max(hp - base, firstDamaging);
+        chances[hp] += 1 - table.chanceOfAtLeast(firstDamaging);
+        for (int bonus = firstDamaging; bonus < firstKilling; bonus++) {
+            chances[hp - base - bonus] += table.chanceOf(bonus);
+        }
+        chances[0] += table.chanceOfAtLeast(firstKilling);
+        return chances;
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,42 @@
+package model;
+
+import java.util.Arrays;
+
+// Represents the exact distribution of the critical hit bonus of a unit with some luck. A unit crits with
+// chance luck / (luck + LUCK_BUFFER), and a crit adds floor(1 / (1 - u)) for u uniform in [0, 1), which is at
+// least k with chance 1 / k and so exactly k with chance 1 / (k (k + 1)). The table keeps the chance of every
+// bonus it has been asked for so far and grows as bigger bonuses are needed
+final class CriticalHitTable {
+
+    private final double critChance;
+    private double[] chances;
+
+    // EFFECTS: constructs the table of a unit with luck
+    CriticalHitTable(int luck) {
+        critChance = luck <= 0 ? 0 : (double) luck / (luck + Warrior.LUCK_BUFFER);
+        chances = new double[] {1 - critChance};
+    }
+
+    // REQUIRES: bonus >= 0
+    // MODIFIES: this
+    // EFFECTS: returns the chance that an attack gets exactly bonus extra damage, where 0 is no crit
+    double chanceOf(int bonus) {
+        if (bonus >= chances.length) {
+            int filled = chances.length;
+            chances = Arrays.copyOf(chances, Math.max(bonus + 1, filled * 2));
+            for (int k = filled; k < chances.length; k++) {
+                chances[k] = critChance / ((double) k * (k + 1));
+            }
+        }
+        return chances[bonus];
+    }
+
+    // EFFECTS: returns the chance that an attack gets at least bonus extra damage
+    double chanceOfAtLeast(int bonus) {
+        return bonus <= 0 ? 1 : critChance / bonus;
+    }
+
+    double getCritChance() {
+        return critChance;
+    }
+}
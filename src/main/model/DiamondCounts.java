@@ -0,0 +1,167 @@
+package model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Represents the number of units of every faction on a grid, kept so that the units within a
+// Manhattan radius of a cell can be counted without visiting them one by one. A diamond of the grid
+// is a square of the grid turned 45 degrees, with u = x + y and v = x - y + length - 1, so every
+// faction counts its units over the rotated grid. The rotated grid is cut into square tiles, and
+// each tile with a unit in it holds a Fenwick tree of its own. A coarse Fenwick tree over the tiles
+// holds the number of units in each tile. A square counts the tiles it covers whole from the coarse
+// tree and asks the tree of every non-empty tile on its edge for the part of it that it covers.
+// Adding a unit costs O(log^2 t) for t tiles, and a count of radius r costs O(log^2 t + r / TILE)
+// plus O(log^2 TILE) for every non-empty tile its edge crosses. A faction holds two ints per tile
+// and a tree only for the tiles it has units in, and a tree is dropped when its tile empties
+final class DiamondCounts {
+
+    private static final int SHIFT = StageChunk.SHIFT;
+    private static final int TILE = StageChunk.SIZE;
+    private static final int MASK = TILE - 1;
+
+    private final int length;
+    private final int size;
+    private final int tiles;
+    private final Map<String, Faction> factions;
+
+    // Represents the counts of the units of one faction over the rotated grid
+    private static final class Faction {
+        private final int[] coarse;
+        private final int[] totals;
+        private final int[][] trees;
+        private int allocated;
+
+        private Faction(int tiles) {
+            coarse = new int[tiles * tiles];
+            totals = new int[tiles * tiles];
+            trees = new int[tiles * tiles][];
+        }
+    }
+
+    // REQUIRES: width > 0, length > 0
+    // EFFECTS: constructs counts over an empty width x length grid
+    DiamondCounts(int width, int length) {
+        this.length = length;
+        size = width + length - 1;
+        tiles = (size + MASK) >> SHIFT;
+        factions = new HashMap<>();
+    }
+
+    // REQUIRES: the number of units of faction on x,y stays at least 0
+    // MODIFIES: this
+    // EFFECTS: adds amount units of faction to the cell at x,y
+    void add(String faction, int x, int y, int amount) {
+        Faction counts = factions.computeIfAbsent(faction, f -> new Faction(tiles));
+        int u = x + y;
+        int v = x - y + length - 1;
+        int tile = (u >> SHIFT) * tiles + (v >> SHIFT);
+        if (counts.trees[tile] == null) {
+            counts.trees[tile] = new int[TILE * TILE];
+            counts.allocated++;
+        }
+        update(counts.trees[tile], TILE, u & MASK, v & MASK, amount);
+        update(counts.coarse, tiles, u >> SHIFT, v >> SHIFT, amount);
+        counts.totals[tile] += amount;
+        if (counts.totals[tile] == 0) {
+            counts.trees[tile] = null;
+            counts.allocated--;
+        }
+    }
+
+    // EFFECTS: returns the number of units of faction within radius of x,y
+    int countWithin(String faction, int x, int y, int radius) {
+        Faction counts = factions.get(faction);
+        return counts == null ? 0 : countSquare(counts, x + y, x - y + length - 1, radius);
+    }
+
+    // EFFECTS: returns the number of units that are not part of faction within radius of x,y
+    int countOthersWithin(String faction, int x, int y, int radius) {
+        int count = 0;
+        for (Map.Entry<String, Faction> entry : factions.entrySet()) {
+            if (!entry.getKey().equals(faction)) {
+                count += countSquare(entry.getValue(), x + y, x - y + length - 1, radius);
+            }
+        }
+        return count;
+    }
+
+    // EFFECTS: returns the number of tiles that hold a tree, over every faction
+    int getAllocatedTiles() {
+        int allocated = 0;
+        for (Faction counts : factions.values()) {
+            allocated += counts.allocated;
+        }
+        return allocated;
+    }
+
+    // REQUIRES: radius >= 0
+    // EFFECTS: returns the number of units counted in the square of the rotated grid within radius of u,v
+    private int countSquare(Faction counts, int u, int v, int radius) {
+        int u0 = Math.max(u - radius, 0);
+        int u1 = Math.min(u + radius, size - 1);
+        int v0 = Math.max(v - radius, 0);
+        int v1 = Math.min(v + radius, size - 1);
+        int firstU = u0 >> SHIFT;
+        int lastU = u1 >> SHIFT;
+        int firstV = v0 >> SHIFT;
+        int lastV = v1 >> SHIFT;
+        int wholeU0 = (u0 & MASK) == 0 ? firstU : firstU + 1;
+        int wholeU1 = (u1 & MASK) == MASK || u1 == size - 1 ? lastU : lastU - 1;
+        int wholeV0 = (v0 & MASK) == 0 ? firstV : firstV + 1;
+        int wholeV1 = (v1 & MASK) == MASK || v1 == size - 1 ? lastV : lastV - 1;
+        int count = 0;
+        if (wholeU0 <= wholeU1 && wholeV0 <= wholeV1) {
+            count += rectangle(counts.coarse, tiles, wholeU0, wholeU1, wholeV0, wholeV1);
+        }
+        for (int tu = firstU; tu <= lastU; tu++) {
+            boolean edgeRow = tu < wholeU0 || tu > wholeU1;
+            for (int tv = firstV; tv <= lastV; tv++) {
+                if (!edgeRow && tv >= wholeV0 && tv <= wholeV1) {
+                    tv = wholeV1;
+                    continue;
+                }
+                int[] tree = counts.trees[tu * tiles + tv];
+                if (tree != null) {
+                    int top = tu << SHIFT;
+                    int left = tv << SHIFT;
+                    count += rectangle(tree, TILE, Math.max(u0, top) - top, Math.min(u1, top + MASK) - top,
+                            Math.max(v0, left) - left, Math.min(v1, left + MASK) - left);
+                }
+            }
+        }
+        return count;
+    }
+
+    // REQUIRES: tree is a Fenwick tree over a side x side grid, 0 <= a < side and 0 <= b < side
+    // MODIFIES: tree
+    // EFFECTS: adds amount to the cell a,b of the grid of tree
+    private static void update(int[] tree, int side, int a, int b, int amount) {
+        for (int i = a; i < side; i |= i + 1) {
+            int row = i * side;
+            for (int j = b; j < side; j |= j + 1) {
+                tree[row + j] += amount;
+            }
+        }
+    }
+
+    // REQUIRES: tree is a Fenwick tree over a side x side grid, 0 <= a0 <= a1 < side, 0 <= b0 <= b1 < side
+    // EFFECTS: returns the sum of the cells of the grid of tree in rows a0 to a1 and columns b0 to b1
+    private static int rectangle(int[] tree, int side, int a0, int a1, int b0, int b1) {
+        return prefix(tree, side, a1, b1) - prefix(tree, side, a0 - 1, b1)
+                - prefix(tree, side, a1, b0 - 1) + prefix(tree, side, a0 - 1, b0 - 1);
+    }
+
+    // REQUIRES: tree is a Fenwick tree over a side x side grid, a < side and b < side
+    // EFFECTS: returns the sum of the cells of the grid of tree in rows 0 to a and columns 0 to b, or 0 if
+    //          a or b is negative
+    private static int prefix(int[] tree, int side, int a, int b) {
+        int sum = 0;
+        for (int i = a; i >= 0; i = (i & (i + 1)) - 1) {
+            int row = i * side;
+            for (int j = b; j >= 0; j = (j & (j + 1)) - 1) {
+                sum += tree[row + j];
+            }
+        }
+        return sum;
+    }
+}
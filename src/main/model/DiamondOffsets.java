@@ -0,0 +1,92 @@
+package model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Represents the immutable table of x,y offsets within a manhattan distance radius of a cell,
+// sorted by distance. The offsets at distance d form ring d, which starts at ringStart(d) and ends
+// before ringEnd(d). Within a ring, offsets are ordered by x descending and then y descending.
+// Tables are shared between all callers, so each radius is only built once
+final class DiamondOffsets {
+
+    private static final Map<Integer, DiamondOffsets> TABLES = new ConcurrentHashMap<>();
+
+    private final int radius;
+    private final int[] offsetX;
+    private final int[] offsetY;
+
+    // REQUIRES: radius >= 0
+    // EFFECTS: builds the offsets of every cell within radius of the origin, ring by ring
+    private DiamondOffsets(int radius) {
+        this.radius = radius;
+        int size = sizeOf(radius);
+        offsetX = new int[size];
+        offsetY = new int[size];
+        int i = 0;
+        for (int d = 0; d <= radius; d++) {
+            for (int x = d; x >= -d; x--) {
+                int y = d - Math.abs(x);
+                offsetX[i] = x;
+                offsetY[i] = y;
+                i++;
+                if (y != 0) {
+                    offsetX[i] = x;
+                    offsetY[i] = -y;
+                    i++;
+                }
+            }
+        }
+    }
+
+    // REQUIRES: radius >= 0
+    // EFFECTS: returns the shared table of offsets within radius, building it if it does not exist yet
+    static DiamondOffsets of(int radius) {
+        return TABLES.computeIfAbsent(radius, DiamondOffsets::new);
+    }
+
+    // REQUIRES: radius >= 0
+    // EFFECTS: returns the number of cells within radius of a cell, including the cell itself
+    static int sizeOf(int radius) {
+        return 2 * radius * (radius + 1) + 1;
+    }
+
+    // EFFECTS: compares the offsets x1,y1 and x2,y2 in the order they appear in a table, returning a
+    //          negative number if x1,y1 comes first, a positive number if x2,y2 comes first and 0 if they are equal
+    static int compare(int x1, int y1, int x2, int y2) {
+        int byDistance = Integer.compare(Math.abs(x1) + Math.abs(y1), Math.abs(x2) + Math.abs(y2));
+        if (byDistance != 0) {
+            return byDistance;
+        } else if (x1 != x2) {
+            return Integer.compare(x2, x1);
+        }
+        return Integer.compare(y2, y1);
+    }
+
+    // REQUIRES: 0 <= d <= radius + 1
+    // EFFECTS: returns the index of the first offset at distance d
+    int ringStart(int d) {
+        return d == 0 ? 0 : 2 * d * (d - 1) + 1;
+    }
+
+    // REQUIRES: 0 <= d <= radius
+    // EFFECTS: returns the index after the last offset at distance d
+    int ringEnd(int d) {
+        return ringStart(d + 1);
+    }
+
+    int size() {
+        return offsetX.length;
+    }
+
+    int getRadius() {
+        return radius;
+    }
+
+    int getX(int i) {
+        return offsetX[i];
+    }
+
+    int getY(int i) {
+        return offsetY[i];
+    }
+}
@@ -3,17 +3,22 @@ package model;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.function.Supplier;
 
-// Represents a log of events related to Warriors in Armies
+// Represents a log of events related to Warriors in Armies, which can be turned off for the thread
+// playing simulated battles, so they do not build and keep events nobody reads while the game and
+// simulations on other threads still log theirs
 // Inspired by https://github.students.cs.ubc.ca/CPSC210/AlarmSystem.git
 public class EventLog implements Iterable<GameEvent> {
 
     private static EventLog theLog;
     private final Collection<GameEvent> events;
+    private final ThreadLocal<Boolean> enabled;
 
-    // EFFECTS: creates a new empty collection of Events
+    // EFFECTS: creates a new empty collection of Events that logs the events of every thread
     private EventLog() {
         events = new ArrayList<>();
+        enabled = ThreadLocal.withInitial(() -> true);
     }
 
     // MODIFIES: this
@@ -27,9 +32,32 @@ public class EventLog implements Iterable<GameEvent> {
     }
 
     // MODIFIES: this
-    // EFFECTS: adds an Event to the log
+    // EFFECTS: adds an Event to the log if logging is on for the calling thread
     public void logEvent(GameEvent e) {
-        events.add(e);
+        if (enabled.get()) {
+            events.add(e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if logging is on for the calling thread, adds an Event with the description given by
+    //          description to the log; otherwise the description is never built
+    public void logEvent(Supplier<String> description) {
+        if (enabled.get()) {
+            events.add(new GameEvent(description.get()));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: turns logging on for the calling thread if enabled is true and off otherwise, leaving
+    //          every other thread as it is
+    public void setEnabled(boolean enabled) {
+        this.enabled.set(enabled);
+    }
+
+    // EFFECTS: returns true if logging is on for the calling thread
+    public boolean isEnabled() {
+        return enabled.get();
     }
 
     // MODIFIES: this
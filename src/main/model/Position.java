@@ -7,32 +7,32 @@ import persistance.Savable;
 import static java.lang.Math.abs;
 
 // Represents an x and y coordinate found on the stage with the unit on it, or null
-// if there is nobody on this position
+// if there is nobody on this position. A position is a view onto one cell of a stage's grid, so
+// two positions are equal when they refer to the same cell of the same grid
 public class Position implements Savable {
 
+    public static final int IMPASSABLE = -1;
+    public static final int MAX_MOVE_COST = 9;
+
+    private final StageGrid grid;
+    private final int index;
     private final int posX;
     private final int posY;
-    private Warrior unit;
-    private int strengthModifier;
-    private int speedModifier;
-    private int defenseModifier;
-    private int luckModifier;
-    private int movementModifier;
-    private int rangeModifier;
 
     // REQUIRES: posX >= 0, posY >=0
     // EFFECTS: initializes position in the x,y coordinates given and with no unit and
-    //          all stat modifiers set to 0
+    //          all stat modifiers set to 0, backed by its own single cell grid
     public Position(int posX, int posY) {
+        this(new StageGrid(1, 1), 0, posX, posY);
+    }
+
+    // REQUIRES: index is the index of the cell at posX, posY in grid
+    // EFFECTS: initializes position as a view onto the cell at index of grid
+    Position(StageGrid grid, int index, int posX, int posY) {
+        this.grid = grid;
+        this.index = index;
         this.posX = posX;
         this.posY = posY;
-        unit = null;
-        strengthModifier = 0;
-        speedModifier = 0;
-        defenseModifier = 0;
-        luckModifier = 0;
-        movementModifier = 0;
-        rangeModifier = 0;
     }
 
     // MODIFIES: this
@@ -40,7 +40,7 @@ public class Position implements Savable {
     //          as its unit and returns true
     //          if there is a unit in this position, returns false
     public boolean placeUnit(Warrior warrior) {
-        if (unit == null) {
+        if (!grid.isOccupied(index)) {
             setWarrior(warrior);
             return true;
         } else {
@@ -51,11 +51,12 @@ public class Position implements Savable {
     // MODIFIES: this, warrior
     // EFFECTS: if warrior is not this position's unit, sets unit to be this warrior
     public void setWarrior(Warrior warrior) {
+        Warrior unit = grid.unitAt(index);
         if (warrior != unit) {
             if (unit != null) {
                 unit.removePosition();
             }
-            unit = warrior;
+            grid.setUnit(index, warrior);
             warrior.setPosition(this);
         }
     }
@@ -63,13 +64,20 @@ public class Position implements Savable {
     // MODIFIES: this, unit
     // EFFECTS: removes the unit on this position
     public void removeUnit() {
-        if (unit != null) {
-            Warrior oldWarrior = unit;
-            unit = null;
+        Warrior oldWarrior = grid.unitAt(index);
+        if (oldWarrior != null) {
+            grid.setUnit(index, null);
             oldWarrior.removePosition();
         }
     }
 
+    // MODIFIES: this
+    // EFFECTS: updates the stage's faction bookkeeping after the unit on this position changed
+    //          faction from oldFaction
+    void refreshFaction(String oldFaction) {
+        grid.changeFaction(index, oldFaction);
+    }
+
     // REQUIRES: other cannot be null
     // EFFECTS: returns the number of positions horizontally + number of positions vertically
     //          from another position
@@ -88,40 +96,68 @@ public class Position implements Savable {
         setRangeModifier(range);
     }
 
+    // EFFECTS: returns the JSON representation of the modifiers set on this position, leaving out those
+    //          of the stat regions over it, which are saved with the stage
     @Override
     public JSONObject toJson() {
         JSONObject json = new JSONObject();
-        json.put(JsonReader.STRENGTH, strengthModifier);
-        json.put(JsonReader.SPEED, speedModifier);
-        json.put(JsonReader.DEFENSE, defenseModifier);
-        json.put(JsonReader.LUCK, luckModifier);
-        json.put(JsonReader.MOVEMENT, movementModifier);
-        json.put(JsonReader.RANGE, rangeModifier);
+        json.put(JsonReader.STRENGTH, grid.getModifier(StageGrid.STRENGTH, index));
+        json.put(JsonReader.SPEED, grid.getModifier(StageGrid.SPEED, index));
+        json.put(JsonReader.DEFENSE, grid.getModifier(StageGrid.DEFENSE, index));
+        json.put(JsonReader.LUCK, grid.getModifier(StageGrid.LUCK, index));
+        json.put(JsonReader.MOVEMENT, grid.getModifier(StageGrid.MOVEMENT, index));
+        json.put(JsonReader.RANGE, grid.getModifier(StageGrid.RANGE, index));
+        json.put(JsonReader.MOVE_COST, getMoveCost());
+        return json;
+    }
+
+    // EFFECTS: returns the JSON representation of only the modifiers set on this position that are not 0
+    //          and its movement cost if it is not 1
+    JSONObject toSparseJson() {
+        JSONObject json = new JSONObject();
+        String[] keys = {JsonReader.STRENGTH, JsonReader.SPEED, JsonReader.DEFENSE, JsonReader.LUCK,
+                JsonReader.MOVEMENT, JsonReader.RANGE};
+        for (int stat = 0; stat < StageGrid.MODIFIER_COUNT; stat++) {
+            int value = grid.getModifier(stat, index);
+            if (value != 0) {
+                json.put(keys[stat], value);
+            }
+        }
+        if (getMoveCost() != 1) {
+            json.put(JsonReader.MOVE_COST, getMoveCost());
+        }
         return json;
     }
 
     public void setStrengthModifier(int strength) {
-        strengthModifier = strength;
+        grid.setModifier(StageGrid.STRENGTH, index, strength);
     }
 
     public void setSpeedModifier(int speed) {
-        speedModifier = speed;
+        grid.setModifier(StageGrid.SPEED, index, speed);
     }
 
     public void setDefenseModifier(int defense) {
-        defenseModifier = defense;
+        grid.setModifier(StageGrid.DEFENSE, index, defense);
     }
 
     public void setLuckModifier(int luck) {
-        luckModifier = luck;
+        grid.setModifier(StageGrid.LUCK, index, luck);
     }
 
     public void setMovementModifier(int movement) {
-        movementModifier = movement;
+        grid.setModifier(StageGrid.MOVEMENT, index, movement);
     }
 
     public void setRangeModifier(int range) {
-        rangeModifier = range;
+        grid.setModifier(StageGrid.RANGE, index, range);
+    }
+
+    // REQUIRES: cost is IMPASSABLE or 1 <= cost <= MAX_MOVE_COST
+    // MODIFIES: this
+    // EFFECTS: sets the movement a warrior spends to walk onto this position, or makes it impassable
+    public void setMoveCost(int cost) {
+        grid.setMoveCost(index, cost);
     }
 
     public int getPosX() {
@@ -133,31 +169,61 @@ public class Position implements Savable {
     }
 
     public Warrior getUnit() {
-        return unit;
+        return grid.unitAt(index);
     }
 
     public int getStrengthModifier() {
-        return strengthModifier;
+        return grid.getStatModifier(StageGrid.STRENGTH, index);
     }
 
     public int getSpeedModifier() {
-        return speedModifier;
+        return grid.getStatModifier(StageGrid.SPEED, index);
     }
 
     public int getDefenseModifier() {
-        return defenseModifier;
+        return grid.getStatModifier(StageGrid.DEFENSE, index);
     }
 
     public int getLuckModifier() {
-        return luckModifier;
+        return grid.getStatModifier(StageGrid.LUCK, index);
     }
 
     public int getMovementModifier() {
-        return movementModifier;
+        return grid.getStatModifier(StageGrid.MOVEMENT, index);
     }
 
     public int getRangeModifier() {
-        return rangeModifier;
+        return grid.getStatModifier(StageGrid.RANGE, index);
+    }
+
+    public int getMoveCost() {
+        return grid.getMoveCost(index);
+    }
+
+    // EFFECTS: returns true if warriors can walk onto this position
+    public boolean isPassable() {
+        return getMoveCost() != IMPASSABLE;
+    }
+
+    // EFFECTS: returns true if other is a position referring to the same cell of the same grid
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Position)) {
+            return false;
+        }
+        Position otherPos = (Position) other;
+        return grid == otherPos.grid && index == otherPos.index
+                && posX == otherPos.posX && posY == otherPos.posY;
+    }
+
+    // EFFECTS: creates a hashcode of the position from the index of its cell, which is distinct for every
+    //          position of a stage however large it is
+    @Override
+    public int hashCode() {
+        return index;
     }
 
     // EFFECTS: returns a string representation of this position
@@ -0,0 +1,164 @@
+package model;
+
+import java.util.Arrays;
+
+// Represents the reachability engine of a stage. For a warrior it finds every cell the warrior can
+// walk to within a movement budget, then every cell it can attack from one of those cells and the
+// enemies standing on them, and returns them as a ReachableSet. Walking onto a cell costs its
+// movement cost, so the walk is a Dijkstra search with a BucketQueue since the costs are small integers.
+// Warriors can walk through their allies but not their enemies or impassable cells, and can only
+// stop on empty cells. Attack ranges spread out from the cells the warrior can stop on, ignoring
+// terrain, by dilating them with bitboard operations, and the enemies in range are read off the
+// dilated cells a word at a time. Distances and buckets are kept in buffers that are reused between
+// searches: a distance is only valid if it is at least the current base, so starting a new search
+// never has to clear them
+final class Reachability {
+
+    private static final int UNREACHED = -1;
+
+    private final StageGrid cells;
+    private final int width;
+    private final int length;
+    private final int[] moveDistance;
+    private final int[] queue;
+    private final BucketQueue buckets;
+    private int base;
+    private int span;
+    private int origin;
+
+    // EFFECTS: constructs an engine over the cells of a stage with no search computed
+    Reachability(StageGrid cells) {
+        this.cells = cells;
+        width = cells.getWidth();
+        length = cells.getLength();
+        int area = width * length;
+        moveDistance = new int[area];
+        queue = new int[area];
+        buckets = new BucketQueue();
+        base = 1;
+        span = 0;
+        origin = UNREACHED;
+    }
+
+    // REQUIRES: warrior has a position on the stage of this engine, movement >= 0, range >= 0
+    // MODIFIES: this
+    // EFFECTS: finds and returns every cell warrior can walk to within movement steps, every cell within
+    //          range of one of those cells and the enemies on them
+    ReachableSet compute(Warrior warrior, int movement, int range) {
+        startSearch(movement + 1);
+        String faction = warrior.getFaction();
+        int originX = warrior.getPosition().getPosX();
+        int originY = warrior.getPosition().getPosY();
+        origin = cells.indexOf(originX, originY);
+        ReachableSet result = new ReachableSet(originX, originY, movement, range);
+        int tail = searchMoves(faction, movement, UNREACHED);
+        for (int i = 0; i < tail; i++) {
+            if (cells.unitAt(queue[i]) == null || queue[i] == origin) {
+                result.addStanding(queue[i] % width, queue[i] / width);
+            }
+        }
+        int radius = movement + range;
+        int size = 2 * radius + 1;
+        Bitboard attacked = result.spreadAttacks(
+                cells.enemiesWindow(originX - radius, originY - radius, size, faction), width, length);
+        int cell = attacked.nextSet(0, 0);
+        while (cell >= 0) {
+            result.addAttackable(cells.unitAt(cells.indexOf(result.stageX(cell % size), result.stageY(cell / size))));
+            cell = cell + 1 < size * size ? attacked.nextSet((cell + 1) % size, (cell + 1) / size) : -1;
+        }
+        result.getAttackable().sort((a, b) -> DiamondOffsets.compare(
+                a.getPosition().getPosX() - originX, a.getPosition().getPosY() - originY,
+                b.getPosition().getPosX() - originX, b.getPosition().getPosY() - originY));
+        return result;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the base past every distance stored so far, clearing the buffers if the base
+    //          would overflow, and sets the span of the distances of the next search
+    private void startSearch(int nextSpan) {
+        if (base > Integer.MAX_VALUE - span - nextSpan) {
+            Arrays.fill(moveDistance, 0);
+            base = 1;
+        } else {
+            base += span;
+        }
+        span = nextSpan;
+    }
+
+    // REQUIRES: warrior has a position on the stage of this engine, movement >= 0
+    // MODIFIES: this
+    // EFFECTS: returns the movement warrior spends on the cheapest walk to x,y, or -1 if it cannot get
+    //          there within movement
+    int moveCost(Warrior warrior, int movement, int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= length) {
+            return UNREACHED;
+        }
+        startSearch(movement + 1);
+        origin = cells.indexOf(warrior.getPosition().getPosX(), warrior.getPosition().getPosY());
+        searchMoves(warrior.getFaction(), movement, cells.indexOf(x, y));
+        return moveDistance(x, y);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: walks out from the origin through passable cells without enemies of faction, settling
+    //          cells from cheapest to dearest until every cell within movement is settled or target is,
+    //          and leaves the settled cells in the queue in that order; returns their count
+    private int searchMoves(String faction, int movement, int target) {
+        int settled = 0;
+        moveDistance[origin] = base;
+        buckets.push(origin, 0);
+        while (!buckets.isEmpty()) {
+            int cell = buckets.pop();
+            int cost = buckets.cost();
+            if (cost > movement) {
+                break;
+            }
+            if (moveDistance[cell] - base != cost) {
+                continue;
+            }
+            queue[settled++] = cell;
+            if (cell == target) {
+                break;
+            }
+            int x = cell % width;
+            int y = cell / width;
+            visitMove(x > 0 ? cell - 1 : UNREACHED, cost, movement, faction);
+            visitMove(x < width - 1 ? cell + 1 : UNREACHED, cost, movement, faction);
+            visitMove(y > 0 ? cell - width : UNREACHED, cost, movement, faction);
+            visitMove(y < length - 1 ? cell + width : UNREACHED, cost, movement, faction);
+        }
+        buckets.clear();
+        return settled;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if cell is on the stage, passable, has no enemy of faction on it and walking onto it from
+    //          a cell that cost cost is cheaper than any walk found so far and within movement, records
+    //          the new cost and adds it to the bucket queue
+    private void visitMove(int cell, int cost, int movement, String faction) {
+        if (cell == UNREACHED) {
+            return;
+        }
+        int stepCost = cells.getMoveCost(cell);
+        int next = cost + stepCost;
+        if (stepCost == Position.IMPASSABLE || next > movement
+                || (moveDistance[cell] >= base && moveDistance[cell] - base <= next)) {
+            return;
+        }
+        Warrior unit = cells.unitAt(cell);
+        if (unit != null && !unit.getFaction().equals(faction)) {
+            return;
+        }
+        moveDistance[cell] = base + next;
+        buckets.push(cell, next);
+    }
+
+    // EFFECTS: returns the movement the warrior spends on the cheapest walk to x,y in the last search,
+    //          or -1 if it cannot get there
+    int moveDistance(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= length || moveDistance[y * width + x] < base) {
+            return UNREACHED;
+        }
+        return moveDistance[y * width + x] - base;
+    }
+}
@@ -0,0 +1,65 @@
+package model;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+// Represents a per-battle cache of the reachable and attackable cells of each warrior. An entry is
+// only thrown away when a position within its warrior's movement + range changes, which is when a
+// unit moves onto or off of it, dies on it, changes faction on it or its stat modifiers change.
+// Counts how many lookups were answered from the cache and how many needed a new search
+public class ReachabilityCache implements CellListener {
+
+    private final Stage stage;
+    private final Map<Warrior, ReachableSet> entries;
+    private int hits;
+    private int misses;
+
+    // EFFECTS: constructs an empty cache listening to the changes of the positions of stage
+    public ReachabilityCache(Stage stage) {
+        this.stage = stage;
+        entries = new HashMap<>();
+        stage.addCellListener(this);
+    }
+
+    // REQUIRES: warrior has a position on the stage of this cache, movement >= 0, range >= 0
+    // MODIFIES: this
+    // EFFECTS: returns the cells warrior can reach within movement and attack within range of them,
+    //          searching the stage only if there is no valid entry for that warrior, movement and range
+    ReachableSet get(Warrior warrior, int movement, int range) {
+        ReachableSet entry = entries.get(warrior);
+        Position position = warrior.getPosition();
+        if (entry != null && entry.matches(position.getPosX(), position.getPosY(), movement, range)) {
+            hits++;
+            return entry;
+        }
+        misses++;
+        entry = stage.reachability().compute(warrior, movement, range);
+        entries.put(warrior, entry);
+        return entry;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every entry that a change to the position at x,y could affect
+    @Override
+    public void cellChanged(int posX, int posY) {
+        Iterator<ReachableSet> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().covers(posX, posY)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    public int getSize() {
+        return entries.size();
+    }
+}
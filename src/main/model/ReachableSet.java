@@ -0,0 +1,162 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Represents the result of a reachability search for a warrior: the cells it can stop on, the cells
+// it can attack from them and the enemies on those cells. Cells are kept in bitboards covering the
+// square around the origin that holds every cell within movement + range of it, so the cells it can
+// attack are the cells it can stop on dilated by its range, and the cells it can attack an enemy from
+// are the enemies dilated by its range and masked by the cells it can stop on
+final class ReachableSet {
+
+    private final int originX;
+    private final int originY;
+    private final int movement;
+    private final int range;
+    private final int radius;
+    private final Bitboard standing;
+    private Bitboard attack;
+    private Bitboard enemies;
+    private Bitboard attackSpots;
+    private final List<Warrior> attackable;
+
+    // REQUIRES: movement >= 0, range >= 0
+    // EFFECTS: constructs an empty set for a search from originX, originY with the given movement and range
+    ReachableSet(int originX, int originY, int movement, int range) {
+        this.originX = originX;
+        this.originY = originY;
+        this.movement = movement;
+        this.range = range;
+        radius = movement + range;
+        standing = new Bitboard(2 * radius + 1, 2 * radius + 1);
+        attack = new Bitboard(2 * radius + 1, 2 * radius + 1);
+        enemies = attack;
+        attackable = new ArrayList<>();
+    }
+
+    // REQUIRES: x,y is within movement of the origin
+    // MODIFIES: this
+    // EFFECTS: records that the warrior can stop on x,y
+    void addStanding(int x, int y) {
+        standing.set(x - originX + radius, y - originY + radius);
+    }
+
+    // REQUIRES: every cell the warrior can stop on has been added, enemies covers the square of this set
+    //           and the stage is stageWidth x stageLength
+    // MODIFIES: this
+    // EFFECTS: records that the warrior can attack every cell of the stage within range of a cell it can stop
+    //          on and returns the cells of enemies among them; keeps enemies to find the cells to attack from
+    Bitboard spreadAttacks(Bitboard enemies, int stageWidth, int stageLength) {
+        this.enemies = enemies;
+        attack = standing.dilate(range);
+        attack.retainRect(radius - originX, radius - originY,
+                radius - originX + stageWidth - 1, radius - originY + stageLength - 1);
+        Bitboard attacked = attack.copy();
+        attacked.and(enemies);
+        return attacked;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that the warrior can attack enemy, after the enemies recorded so far
+    void addAttackable(Warrior enemy) {
+        attackable.add(enemy);
+    }
+
+    // EFFECTS: returns true if the warrior can walk to x,y and stop there, including staying where it is
+    boolean canStand(int x, int y) {
+        return covers(x, y) && standing.get(x - originX + radius, y - originY + radius);
+    }
+
+    // EFFECTS: returns true if the warrior can attack x,y from a cell it can stop on
+    boolean inAttackRange(int x, int y) {
+        return covers(x, y) && attack.get(x - originX + radius, y - originY + radius);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns true if the warrior can move to x,y, other than where it stands, and attack an enemy
+    //          from there
+    boolean canAttackFrom(int x, int y) {
+        return covers(x, y) && !isOrigin(x, y) && attackSpots().get(x - originX + radius, y - originY + radius);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the number of cells other than where it stands that the warrior can move to and attack
+    //          an enemy from
+    int countAttackSpots() {
+        return attackSpots().count() - (attackSpots().get(radius, radius) ? 1 : 0);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the cells the warrior can stop on and attack an enemy from, working them out the first
+    //          time they are needed
+    private Bitboard attackSpots() {
+        if (attackSpots == null) {
+            attackSpots = enemies.dilate(range);
+            attackSpots.and(standing);
+        }
+        return attackSpots;
+    }
+
+    // REQUIRES: bands holds a cell for every position of a stage that is stageWidth wide, the one at x,y at
+    //           index y * stageWidth + x, and every cell of this set is on the stage
+    // MODIFIES: bands
+    // EFFECTS: raises the cells of bands the warrior can attack to at least attackBand and the cells it can stop
+    //          on to at least standBand, a run of cells of a row at a time
+    void raiseBands(int[] bands, int stageWidth, int standBand, int attackBand) {
+        raiseRuns(attack, bands, stageWidth, attackBand);
+        raiseRuns(standing, bands, stageWidth, standBand);
+    }
+
+    // REQUIRES: as for raiseBands, and cells is one of this set's bitboards
+    // MODIFIES: bands
+    // EFFECTS: raises the cells of bands that are in cells to at least band
+    private void raiseRuns(Bitboard cells, int[] bands, int stageWidth, int band) {
+        int side = 2 * radius + 1;
+        int start = cells.nextSet(0, 0);
+        while (start >= 0) {
+            int row = start / side;
+            int from = start % side;
+            int stop = cells.nextClear(from, row);
+            int to = stop < 0 || stop / side != row ? side : stop % side;
+            int rowStart = stageY(row) * stageWidth;
+            CellSweeps.raise(bands, rowStart + stageX(from), rowStart + stageX(to), band);
+            if (to < side) {
+                start = cells.nextSet(to, row);
+            } else {
+                start = row + 1 < side ? cells.nextSet(0, row + 1) : -1;
+            }
+        }
+    }
+
+    // EFFECTS: returns true if x,y is the cell the warrior searched from
+    boolean isOrigin(int x, int y) {
+        return x == originX && y == originY;
+    }
+
+    // EFFECTS: returns true if a change to x,y could change this set, which is when it is within
+    //          movement + range of the origin
+    boolean covers(int x, int y) {
+        return Math.abs(x - originX) + Math.abs(y - originY) <= radius;
+    }
+
+    // EFFECTS: returns true if this set was searched from originX, originY with the given movement and range
+    boolean matches(int originX, int originY, int movement, int range) {
+        return this.originX == originX && this.originY == originY && this.movement == movement && this.range == range;
+    }
+
+    // EFFECTS: returns the x coordinate on the stage of the column of this set's bitboards at column
+    int stageX(int column) {
+        return column + originX - radius;
+    }
+
+    // EFFECTS: returns the y coordinate on the stage of the row of this set's bitboards at row
+    int stageY(int row) {
+        return row + originY - radius;
+    }
+
+    // EFFECTS: returns the enemies the warrior can attack after moving, nearest to the warrior first
+    List<Warrior> getAttackable() {
+        return attackable;
+    }
+}
@@ -0,0 +1,128 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+// Represents the stat regions of a stage and the sum of their modifiers at every cell. The edges of
+// the regions cut the stage into a grid of at most (2r + 1) x (2r + 1) blocks for r regions, and every
+// cell of a block gets the same modifiers. Each region adds its modifiers to a two dimensional
+// difference array over the blocks at its four corners, and a prefix sum over the difference array,
+// along each row and then adding the row above a whole row at a time, turns it into the modifiers of
+// every block. Adding or removing a region rebuilds the blocks in O(r^2), and so does adding many regions
+// at once, such as every region of a saved stage, while reading the modifier of a cell takes two binary
+// searches, so a region of any size costs the same as a single cell
+final class RegionModifiers {
+
+    private final List<StatRegion> regions;
+    private int[] cutsX;
+    private int[] cutsY;
+    private int[][] blocks;
+
+    // EFFECTS: constructs an empty set of regions
+    RegionModifiers() {
+        regions = new ArrayList<>();
+        cutsX = new int[0];
+        cutsY = new int[0];
+        blocks = new int[StageGrid.MODIFIER_COUNT][0];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds region and rebuilds the blocks
+    void add(StatRegion region) {
+        regions.add(region);
+        rebuild();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds every region of added, in order, and rebuilds the blocks once
+    void addAll(Collection<StatRegion> added) {
+        regions.addAll(added);
+        rebuild();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes region and rebuilds the blocks, returning true if it was one of the regions
+    boolean remove(StatRegion region) {
+        if (!regions.remove(region)) {
+            return false;
+        }
+        rebuild();
+        return true;
+    }
+
+    // EFFECTS: returns the sum of the modifiers the regions give to stat at x,y
+    int valueAt(int stat, int x, int y) {
+        int column = floorIndex(cutsX, x);
+        int row = floorIndex(cutsY, y);
+        if (column < 0 || row < 0) {
+            return 0;
+        }
+        return blocks[stat][row * cutsX.length + column];
+    }
+
+    // EFFECTS: returns the regions in the order they were added
+    List<StatRegion> getRegions() {
+        return Collections.unmodifiableList(regions);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: cuts the stage along the edges of every region and sums the modifiers of every block
+    private void rebuild() {
+        cutsX = cuts(true);
+        cutsY = cuts(false);
+        int columns = cutsX.length;
+        for (int stat = 0; stat < StageGrid.MODIFIER_COUNT; stat++) {
+            int[] block = new int[columns * cutsY.length];
+            for (StatRegion region : regions) {
+                int amount = region.getModifier(stat);
+                if (amount != 0) {
+                    int x0 = Arrays.binarySearch(cutsX, region.getLeft());
+                    int x1 = Arrays.binarySearch(cutsX, region.getRight() + 1);
+                    int y0 = Arrays.binarySearch(cutsY, region.getTop());
+                    int y1 = Arrays.binarySearch(cutsY, region.getBottom() + 1);
+                    block[y0 * columns + x0] += amount;
+                    block[y0 * columns + x1] -= amount;
+                    block[y1 * columns + x0] -= amount;
+                    block[y1 * columns + x1] += amount;
+                }
+            }
+            for (int rowStart = 0; rowStart < block.length; rowStart += columns) {
+                for (int i = rowStart + 1; i < rowStart + columns; i++) {
+                    block[i] += block[i - 1];
+                }
+                if (rowStart > 0) {
+                    CellSweeps.addAll(block, rowStart, block, rowStart - columns, columns);
+                }
+            }
+            blocks[stat] = block;
+        }
+    }
+
+    // EFFECTS: returns the sorted distinct columns, if vertical, or rows where a region starts or ends
+    //          one past its last cell
+    private int[] cuts(boolean vertical) {
+        int[] cuts = new int[regions.size() * 2];
+        for (int i = 0; i < regions.size(); i++) {
+            StatRegion region = regions.get(i);
+            cuts[2 * i] = vertical ? region.getLeft() : region.getTop();
+            cuts[2 * i + 1] = (vertical ? region.getRight() : region.getBottom()) + 1;
+        }
+        Arrays.sort(cuts);
+        int distinct = 0;
+        for (int i = 0; i < cuts.length; i++) {
+            if (i == 0 || cuts[i] != cuts[i - 1]) {
+                cuts[distinct++] = cuts[i];
+            }
+        }
+        return Arrays.copyOf(cuts, distinct);
+    }
+
+    // EFFECTS: returns the index of the last cut at or before value, or -1 if there is none
+    private static int floorIndex(int[] cuts, int value) {
+        int index = Arrays.binarySearch(cuts, value);
+        return index >= 0 ? index : -index - 2;
+    }
+}
@@ -0,0 +1,59 @@
+package model;
+
+import java.util.List;
+
+// Represents what the rollouts of a battle plan played so far say about every unit in it: how often each
+// unit died and the hp it ended with on average. An estimate from rollouts that were cancelled or ran out
+// of time is over fewer rollouts than were asked for, but each of them was played through to the end
+public class RolloutEstimate {
+
+    private final List<Warrior> units;
+    private final int[] startingHp;
+    private final long[] deaths;
+    private final long[] hpTotals;
+    private final int rollouts;
+    private final int requested;
+
+    // REQUIRES: deaths, hpTotals and startingHp have an entry for every unit
+    // EFFECTS: constructs the estimate of rollouts out of requested rollouts in which unit i died deaths[i]
+    //          times and ended with hpTotals[i] hp in total
+    RolloutEstimate(List<Warrior> units, int[] startingHp, long[] deaths, long[] hpTotals,
+                    int rollouts, int requested) {
+        this.units = units;
+        this.startingHp = startingHp;
+        this.deaths = deaths;
+        this.hpTotals = hpTotals;
+        this.rollouts = rollouts;
+        this.requested = requested;
+    }
+
+    // EFFECTS: returns the fraction of the rollouts in which unit died, or 0 if there are no rollouts or
+    //          unit is not in the plan
+    public double getDeathChance(Warrior unit) {
+        int index = units.indexOf(unit);
+        return index < 0 || rollouts == 0 ? 0 : (double) deaths[index] / rollouts;
+    }
+
+    // EFFECTS: returns the hp unit ended the rollouts with on average, its hp when the plan was made if there
+    //          are no rollouts, or its current hp if it is not in the plan
+    public double getExpectedHp(Warrior unit) {
+        int index = units.indexOf(unit);
+        if (index < 0) {
+            return unit.getHP();
+        }
+        return rollouts == 0 ? startingHp[index] : (double) hpTotals[index] / rollouts;
+    }
+
+    // EFFECTS: returns true if every requested rollout was played
+    public boolean isComplete() {
+        return rollouts == requested;
+    }
+
+    public int getRollouts() {
+        return rollouts;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+}
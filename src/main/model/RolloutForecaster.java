@@ -0,0 +1,43 @@
+package model;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Represents a Monte Carlo forecaster of battle plans too long to work out exactly, such as several battles
+// in a row this turn. Each forecast is a RolloutJob that plays the plan many times over on a fork-join pool,
+// so it spreads over every core, and returns at once; the caller reads the best estimate so far whenever
+// it likes, can cancel the job, and every job stops on its own when its time box runs out, so a forecast
+// asked for on the event dispatch thread never holds it up
+public class RolloutForecaster {
+
+    public static final int DEFAULT_ROLLOUTS = 100000;
+    public static final long DEFAULT_TIME_BOX_MILLIS = 50;
+
+    private final ForkJoinPool pool;
+
+    // EFFECTS: constructs a forecaster that plays its rollouts on the common fork-join pool
+    public RolloutForecaster() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    // EFFECTS: constructs a forecaster that plays its rollouts on pool
+    public RolloutForecaster(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // REQUIRES: every unit in plan is alive and has a position, rollouts >= 0, timeBoxMillis >= 0
+    // EFFECTS: starts playing rollouts rollouts of plan from seed on the pool, for at most timeBoxMillis,
+    //          and returns the job playing them
+    public RolloutJob start(BattlePlan plan, int rollouts, long seed, long timeBoxMillis) {
+        RolloutJob job = new RolloutJob(plan, rollouts, seed, TimeUnit.MILLISECONDS.toNanos(timeBoxMillis));
+        pool.execute(job.getRoot());
+        return job;
+    }
+
+    // REQUIRES: every unit in plan is alive and has a position
+    // EFFECTS: plays DEFAULT_ROLLOUTS rollouts of plan from seed for at most DEFAULT_TIME_BOX_MILLIS and
+    //          returns the estimate of the ones that were played
+    public RolloutEstimate forecast(BattlePlan plan, long seed) {
+        return start(plan, DEFAULT_ROLLOUTS, seed, DEFAULT_TIME_BOX_MILLIS).await();
+    }
+}
@@ -0,0 +1,187 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveAction;
+
+// Represents a running Monte Carlo forecast of a battle plan. When the job is made it copies the stats of
+// every unit in the plan, with the modifiers of their positions added in, and which unit of each battle
+// strikes first and whether the other can strike back, so the rollouts only touch those copies and never
+// the warriors, the stage or the event log. The rollouts are split in halves down to batches of
+// BATCH_SIZE, each half with its own generator split off before it is forked, and every batch plays its
+// rollouts with the blows of Warrior.battle and adds what happened to the totals when it is done. A batch
+// stops early when the job is cancelled or its time box runs out, so the totals always hold whole rollouts
+public class RolloutJob {
+
+    public static final int BATCH_SIZE = 256;
+
+    private final List<Warrior> units;
+    private final int[] startingHp;
+    private final int[] strength;
+    private final int[] defense;
+    private final int[] luck;
+    private final int[] attackers;
+    private final int[] defenders;
+    private final boolean[] attackerFirst;
+    private final boolean[] strikeBack;
+    private final int requested;
+    private final long deadline;
+    private final RecursiveAction root;
+    private final long[] deaths;
+    private final long[] hpTotals;
+    private int rollouts;
+    private volatile boolean cancelled;
+
+    // Represents the rollouts from from inclusive to to exclusive, played with random
+    private final class Batch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        private Batch(int from, int to, SplittableRandom random) {
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > BATCH_SIZE) {
+                int middle = (from + to) >>> 1;
+                SplittableRandom other = random.split();
+                invokeAll(new Batch(from, middle, random), new Batch(middle, to, other));
+            } else {
+                playBatch(to - from, random);
+            }
+        }
+    }
+
+    // REQUIRES: every unit in plan is alive and has a position, rollouts >= 0
+    // EFFECTS: constructs a job that plays rollouts rollouts of plan from seed, stopping timeBoxNanos after
+    //          now if they are not done by then
+    RolloutJob(BattlePlan plan, int rollouts, long seed, long timeBoxNanos) {
+        units = new ArrayList<>(plan.getUnits());
+        int count = units.size();
+        startingHp = new int[count];
+        strength = new int[count];
+        defense = new int[count];
+        luck = new int[count];
+        for (int i = 0; i < count; i++) {
+            Warrior unit = units.get(i);
+            startingHp[i] = unit.getHP();
+            strength[i] = unit.getRealStrength();
+            defense[i] = unit.getRealDefense();
+            luck[i] = unit.getRealLuck();
+        }
+        attackers = new int[plan.size()];
+        defenders = new int[plan.size()];
+        attackerFirst = new boolean[plan.size()];
+        strikeBack = new boolean[plan.size()];
+        for (int i = 0; i < plan.size(); i++) {
+            attackers[i] = units.indexOf(plan.getAttacker(i));
+            defenders[i] = units.indexOf(plan.getDefender(i));
+            attackerFirst[i] = plan.getAttacker(i).strikesFirst(plan.getDefender(i));
+            strikeBack[i] = plan.getDefender(i).canStrikeBack(plan.getAttacker(i));
+        }
+        requested = rollouts;
+        deadline = System.nanoTime() + timeBoxNanos;
+        deaths = new long[count];
+        hpTotals = new long[count];
+        root = new Batch(0, rollouts, new SplittableRandom(seed));
+    }
+
+    // EFFECTS: returns the task that plays every rollout of this job
+    RecursiveAction getRoot() {
+        return root;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops every batch after the rollout it is playing
+    public void cancel() {
+        cancelled = true;
+    }
+
+    // EFFECTS: returns true if every batch has stopped, whether or not it played all of its rollouts
+    public boolean isDone() {
+        return root.isDone();
+    }
+
+    // EFFECTS: waits until every batch has stopped, then returns the estimate of every rollout played
+    public RolloutEstimate await() {
+        root.quietlyJoin();
+        return getEstimate();
+    }
+
+    // EFFECTS: returns the estimate of the rollouts that have been added to the totals so far
+    public synchronized RolloutEstimate getEstimate() {
+        return new RolloutEstimate(units, startingHp.clone(), deaths.clone(), hpTotals.clone(), rollouts, requested);
+    }
+
+    // MODIFIES: this, random
+    // EFFECTS: plays up to count rollouts with random, stopping early if this job is cancelled or past its
+    //          deadline, and adds the ones that were played to the totals
+    private void playBatch(int count, SplittableRandom random) {
+        long[] batchDeaths = new long[units.size()];
+        long[] batchHp = new long[units.size()];
+        int[] hp = new int[units.size()];
+        int played = 0;
+        while (played < count && !cancelled && System.nanoTime() < deadline) {
+            System.arraycopy(startingHp, 0, hp, 0, hp.length);
+            playRollout(hp, random);
+            for (int i = 0; i < hp.length; i++) {
+                batchDeaths[i] += hp[i] == 0 ? 1 : 0;
+                batchHp[i] += hp[i];
+            }
+            played++;
+        }
+        addToTotals(batchDeaths, batchHp, played);
+    }
+
+    // MODIFIES: hp, random
+    // EFFECTS: plays every battle of the plan in order on hp the way Warrior.battle would, skipping the
+    //          battles where the attacker or defender is already dead
+    private void playRollout(int[] hp, SplittableRandom random) {
+        for (int i = 0; i < attackers.length; i++) {
+            int attacker = attackers[i];
+            int defender = defenders[i];
+            if (hp[attacker] == 0 || hp[defender] == 0) {
+                continue;
+            }
+            if (attackerFirst[i]) {
+                strike(hp, attacker, defender, random);
+                if (hp[defender] > 0 && strikeBack[i]) {
+                    strike(hp, defender, attacker, random);
+                }
+            } else {
+                if (strikeBack[i]) {
+                    strike(hp, defender, attacker, random);
+                }
+                if (hp[attacker] > 0) {
+                    strike(hp, attacker, defender, random);
+                }
+            }
+        }
+    }
+
+    // MODIFIES: hp, random
+    // EFFECTS: takes the damage of a blow from unit striker off the hp of unit struck, down to 0
+    private void strike(int[] hp, int striker, int struck, SplittableRandom random) {
+        int damage = Warrior.blowDamage(strength[striker], luck[striker], defense[struck], random);
+        if (damage > 0) {
+            hp[struck] = Math.max(hp[struck] - damage, 0);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the deaths and hp of played rollouts to the totals
+    private synchronized void addToTotals(long[] batchDeaths, long[] batchHp, int played) {
+        for (int i = 0; i < deaths.length; i++) {
+            deaths[i] += batchDeaths[i];
+            hpTotals[i] += batchHp[i];
+        }
+        rollouts += played;
+    }
+}
@@ -0,0 +1,149 @@
+package model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Represents the outcomes of the battles a simulator has played: how many each faction won, how many
+// were draws, how many turns they took and how long they took to play. The time is kept twice: the
+// wall-clock time from the start of the games to their end, and the CPU time, the sum of the times the
+// runs that played them took, which is larger when the runs were on several threads at once. The win
+// rates and average turns come with 95% confidence intervals: the Wilson score interval for a win rate,
+// which stays inside 0 and 1 for few games or lopsided results, and the normal interval for the average
+// turns, cut off at one turn below since no game ends before its first turn
+public class SimulationReport {
+
+    public static final double Z_95 = 1.959963984540054;
+
+    private final Map<String, Integer> wins;
+    private int games;
+    private int draws;
+    private long totalTurns;
+    private long totalSquaredTurns;
+    private long elapsedNanos;
+    private long cpuNanos;
+
+    // EFFECTS: constructs a report of no games
+    public SimulationReport() {
+        wins = new HashMap<>();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a game won by the faction winner, or drawn if winner is null, that ended on turn
+    public void addGame(String winner, int turns) {
+        games++;
+        totalTurns += turns;
+        totalSquaredTurns += (long) turns * turns;
+        if (winner == null) {
+            draws++;
+        } else {
+            wins.merge(winner, 1, Integer::sum);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the games of other, and the CPU time they took, to this report; the wall-clock time is left
+    //          as it is, since other may have been played at the same time as this
+    public void merge(SimulationReport other) {
+        for (Map.Entry<String, Integer> entry : other.wins.entrySet()) {
+            wins.merge(entry.getKey(), entry.getValue(), Integer::sum);
+        }
+        games += other.games;
+        draws += other.draws;
+        totalTurns += other.totalTurns;
+        totalSquaredTurns += other.totalSquaredTurns;
+        cpuNanos += other.cpuNanos;
+    }
+
+    // EFFECTS: returns the number of games the faction won
+    public int getWins(String faction) {
+        return wins.getOrDefault(faction, 0);
+    }
+
+    // EFFECTS: returns the fraction of the games the faction won, or 0 if there are no games
+    public double getWinRate(String faction) {
+        return games == 0 ? 0 : (double) getWins(faction) / games;
+    }
+
+    // EFFECTS: returns the low end of the 95% Wilson score interval of the win rate of faction, or 0 if there
+    //          are no games
+    public double getWinRateLow(String faction) {
+        return games == 0 ? 0 : Math.max(wilsonCentre(faction) - wilsonHalfWidth(faction), 0);
+    }
+
+    // EFFECTS: returns the high end of the 95% Wilson score interval of the win rate of faction, or 1 if
+    //          there are no games
+    public double getWinRateHigh(String faction) {
+        return games == 0 ? 1 : Math.min(wilsonCentre(faction) + wilsonHalfWidth(faction), 1);
+    }
+
+    // EFFECTS: returns the average number of turns a game took, or 0 if there are no games
+    public double getAverageTurns() {
+        return games == 0 ? 0 : (double) totalTurns / games;
+    }
+
+    // EFFECTS: returns the low end of the 95% confidence interval of the average number of turns, and at least
+    //          1 since every game ends on turn 1 or later, or 0 if there are no games
+    public double getAverageTurnsLow() {
+        return games == 0 ? 0 : Math.max(getAverageTurns() - turnsHalfWidth(), 1);
+    }
+
+    // EFFECTS: returns the high end of the 95% confidence interval of the average number of turns
+    public double getAverageTurnsHigh() {
+        return getAverageTurns() + turnsHalfWidth();
+    }
+
+    // EFFECTS: returns the number of games played per second of wall-clock time, or 0 if no time elapsed
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public void setCpuNanos(long cpuNanos) {
+        this.cpuNanos = cpuNanos;
+    }
+
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public int getDraws() {
+        return draws;
+    }
+
+    // REQUIRES: games > 0
+    // EFFECTS: returns the centre of the Wilson score interval of the win rate of faction
+    private double wilsonCentre(String faction) {
+        double z2 = Z_95 * Z_95;
+        return (getWinRate(faction) + z2 / (2 * games)) / (1 + z2 / games);
+    }
+
+    // REQUIRES: games > 0
+    // EFFECTS: returns half the width of the Wilson score interval of the win rate of faction
+    private double wilsonHalfWidth(String faction) {
+        double z2 = Z_95 * Z_95;
+        double rate = getWinRate(faction);
+        return Z_95 / (1 + z2 / games) * Math.sqrt(rate * (1 - rate) / games + z2 / (4.0 * games * games));
+    }
+
+    // EFFECTS: returns half the width of the confidence interval of the average number of turns, from the
+    //          sample variance of the turns, or 0 if there are fewer than two games
+    private double turnsHalfWidth() {
+        if (games < 2) {
+            return 0;
+        }
+        double mean = getAverageTurns();
+        double variance = Math.max((totalSquaredTurns - games * mean * mean) / (games - 1), 0);
+        return Z_95 * Math.sqrt(variance / games);
+    }
+}
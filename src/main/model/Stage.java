@@ -8,67 +8,319 @@ import persistance.Savable;
 
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-// Represents the game map where all units are placed, having a list of list of positions
-// called grid, the farthest row towards the bottom called farthestBottom, and the farthest
-// positions towards the right side of the map called farthestRight
+// Represents the game map where all units are placed, having a flat grid of cells storing the
+// units and stat modifiers of every position, the farthest row towards the bottom called
+// farthestBottom, and the farthest positions towards the right side of the map called farthestRight.
+// Positions are views onto the cells of the grid and are only created when they are asked for.
+// Positions can be streamed in row-major order, and a parallel stream splits the stage by rows
 public class Stage implements Savable, Iterable<Position> {
 
-    private final ArrayList<ArrayList<Position>> grid;
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private final StageGrid cells;
     private final int farthestBottom;
     private final int farthestRight;
+    private Reachability reachability;
+    private ClusterGraph clusters;
 
     // REQUIRES: length > 0, width > 0
-    // EFFECTS: constructs a list of list of positions grid, and calculates the bottommost row
+    // EFFECTS: constructs a grid of length x width empty cells, and calculates the bottommost row
     //          and rightmost column
     public Stage(int length, int width) {
-        grid = new ArrayList<>();
-        for (int i = 0; i < length; i++) {
-            ArrayList<Position> tempList = new ArrayList<>();
-            for (int j = 0; j < width; j++) {
-                tempList.add(new Position(j, i));
-            }
-            grid.add(tempList);
-        }
+        cells = new StageGrid(width, length);
         this.farthestBottom = length - 1;
         this.farthestRight = width - 1;
-        EventLog.getInstance().logEvent(new GameEvent("Created a "
-                + length + " by " + width + " sized stage"));
+        EventLog.getInstance().logEvent(() -> "Created a "
+                + length + " by " + width + " sized stage");
     }
 
     // EFFECTS: returns the Position at the x and y coordinates, throws InvalidPositionException
     //          if this position does not exist
     public Position getPosition(int posX, int posY) throws InvalidPositionException {
         if (checkValidPosition(posX, posY)) {
-            return grid.get(posY).get(posX);
+            return positionAt(posX, posY);
         }
         throw new InvalidPositionException();
     }
 
+    // EFFECTS: returns the Position at the x and y coordinates, or null if this position does not exist
+    public Position positionOrNull(int posX, int posY) {
+        if (checkValidPosition(posX, posY)) {
+            return positionAt(posX, posY);
+        }
+        return null;
+    }
+
+    // EFFECTS: returns the unit at the x and y coordinates, or null if there is no unit there or
+    //          this position does not exist
+    public Warrior unitAtOrNull(int posX, int posY) {
+        if (checkValidPosition(posX, posY)) {
+            return cells.unitAt(cells.indexOf(posX, posY));
+        }
+        return null;
+    }
+
+    // EFFECTS: returns true if a unit that is not part of faction is within radius of the x and y
+    //          coordinates, checking a row of the stage a word of cells at a time
+    public boolean anyEnemyWithin(int posX, int posY, int radius, String faction) {
+        for (int y = Math.max(posY - radius, 0); y <= Math.min(posY + radius, farthestBottom); y++) {
+            int reach = radius - Math.abs(y - posY);
+            int minX = Math.max(posX - reach, 0);
+            int maxX = Math.min(posX + reach, farthestRight);
+            if (minX <= maxX && cells.anyEnemyInRow(y, minX, maxX, faction)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // EFFECTS: returns the number of units that are not part of faction within radius of the x and y
+    //          coordinates, read from counts of the units in every tile of the stage without visiting them
+    public int countEnemiesWithin(int posX, int posY, int radius, String faction) {
+        return cells.diamondCounts().countOthersWithin(faction, posX, posY, radius);
+    }
+
+    // EFFECTS: returns the units that are not part of faction within radius of the x and y coordinates,
+    //          nearest first. Queries that overlap few units are answered from the stage's unit index,
+    //          the others by scanning the cells within radius
+    public ArrayList<Warrior> enemiesWithin(int posX, int posY, int radius, String faction) {
+        ArrayList<Warrior> enemies = new ArrayList<>();
+        if (!anyEnemyWithin(posX, posY, radius, faction)) {
+            return enemies;
+        } else if (cells.unitQueryCost(posX, posY, radius) < DiamondOffsets.sizeOf(radius)) {
+            addEnemiesFromIndex(enemies, posX, posY, radius, faction);
+        } else {
+            addEnemiesFromCells(enemies, posX, posY, radius, faction);
+        }
+        return enemies;
+    }
+
+    // MODIFIES: enemies
+    // EFFECTS: adds the units not part of faction within radius of the x and y coordinates to enemies,
+    //          nearest first, by visiting the units in the index buckets overlapping the radius
+    private void addEnemiesFromIndex(ArrayList<Warrior> enemies, int posX, int posY, int radius, String faction) {
+        ArrayList<Integer> found = new ArrayList<>();
+        cells.forEachUnitWithin(posX, posY, radius, found::add);
+        int width = cells.getWidth();
+        found.sort((a, b) -> DiamondOffsets.compare(a % width - posX, a / width - posY,
+                b % width - posX, b / width - posY));
+        for (int index : found) {
+            Warrior unit = cells.unitAt(index);
+            if (!unit.getFaction().equals(faction)) {
+                enemies.add(unit);
+            }
+        }
+    }
+
+    // MODIFIES: enemies
+    // EFFECTS: adds the units not part of faction within radius of the x and y coordinates to enemies,
+    //          nearest first, by visiting every cell within radius
+    private void addEnemiesFromCells(ArrayList<Warrior> enemies, int posX, int posY, int radius, String faction) {
+        DiamondOffsets diamond = DiamondOffsets.of(radius);
+        for (int i = 0; i < diamond.size(); i++) {
+            Warrior unit = unitAtOrNull(posX + diamond.getX(i), posY + diamond.getY(i));
+            if ((unit != null) && (!unit.getFaction().equals(faction))) {
+                enemies.add(unit);
+            }
+        }
+    }
+
+    // EFFECTS: returns the number of positions with no unit in the rectangle from (minX, minY) to
+    //          (maxX, maxY) inclusive, clipped to the bounds of this stage
+    public int countFreeCells(int minX, int minY, int maxX, int maxY) {
+        int left = Math.max(minX, 0);
+        int right = Math.min(maxX, farthestRight);
+        int count = 0;
+        if (left <= right) {
+            for (int y = Math.max(minY, 0); y <= Math.min(maxY, farthestBottom); y++) {
+                count += (right - left + 1) - cells.countUnitsInRow(y, left, right);
+            }
+        }
+        return count;
+    }
+
+    // EFFECTS: returns the first position with no unit at or after the x and y coordinates in the
+    //          order of the stage iterator, or null if there is none or the coordinates are not on the stage
+    public Position firstFreeCell(int posX, int posY) {
+        if (!checkValidPosition(posX, posY)) {
+            return null;
+        }
+        int index = cells.nextFreeCell(posX, posY);
+        return index < 0 ? null : positionAt(index % cells.getWidth(), index / cells.getWidth());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds region to the stat regions of this stage, so every position in it gets its modifiers
+    //          on top of its own; throws InvalidPositionException if region is not inside this stage
+    public void addStatRegion(StatRegion region) throws InvalidPositionException {
+        if (!checkValidPosition(region.getLeft(), region.getTop())
+                || !checkValidPosition(region.getRight(), region.getBottom())) {
+            throw new InvalidPositionException();
+        }
+        cells.addRegion(region);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds every region of added, in order, to the stat regions of this stage at once, which is
+    //          faster than adding them one by one; throws InvalidPositionException and adds none of them if
+    //          one is not inside this stage
+    public void addStatRegions(List<StatRegion> added) throws InvalidPositionException {
+        for (StatRegion region : added) {
+            if (!checkValidPosition(region.getLeft(), region.getTop())
+                    || !checkValidPosition(region.getRight(), region.getBottom())) {
+                throw new InvalidPositionException();
+            }
+        }
+        cells.addRegions(added);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes region from the stat regions of this stage, returning true if it was one of them
+    public boolean removeStatRegion(StatRegion region) {
+        return cells.removeRegion(region);
+    }
+
+    // EFFECTS: returns the stat regions of this stage in the order they were added
+    public List<StatRegion> getStatRegions() {
+        return cells.getRegions();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds listener to be told whenever the unit, faction or stat modifiers of a position change
+    public void addCellListener(CellListener listener) {
+        cells.addListener(listener);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops telling listener about changes to the positions of this stage
+    public void removeCellListener(CellListener listener) {
+        cells.removeListener(listener);
+    }
+
+    int getCellListenerCount() {
+        return cells.getListenerCount();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the reachability engine of this stage, creating it the first time it is needed
+    Reachability reachability() {
+        if (reachability == null) {
+            reachability = new Reachability(cells);
+        }
+        return reachability;
+    }
+
+    // EFFECTS: returns a new attack field over the cells of this stage that has not been built yet
+    AttackField attackField() {
+        return new AttackField(cells);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the cluster graph of this stage for long range routes, creating it the first time
+    //          it is needed
+    ClusterGraph clusters() {
+        if (clusters == null) {
+            clusters = new ClusterGraph(cells);
+            cells.addListener(clusters);
+        }
+        return clusters;
+    }
+
+    // REQUIRES: both positions are on this stage
+    // MODIFIES: this
+    // EFFECTS: returns the positions of the cheapest route from startX, startY to goalX, goalY found through
+    //          the cluster graph, from the start to the goal with the crossings between clusters in between,
+    //          or null if there is no route. Positions with a unit on them other than the start and goal are
+    //          avoided
+    public List<Position> route(int startX, int startY, int goalX, int goalY) {
+        int[] cellRoute = clusters().route(cells.indexOf(startX, startY), cells.indexOf(goalX, goalY));
+        if (cellRoute == null) {
+            return null;
+        }
+        List<Position> positions = new ArrayList<>();
+        for (int cell : cellRoute) {
+            positions.add(positionAt(cell % cells.getWidth(), cell / cells.getWidth()));
+        }
+        return positions;
+    }
+
+    // EFFECTS: returns the number of chunks of cells that currently have a unit or a modifier stored in them
+    int getAllocatedChunks() {
+        return cells.getAllocatedChunks();
+    }
+
+    // REQUIRES: checkValidPosition(posX, posY)
+    // EFFECTS: returns a view of the position at the x and y coordinates
+    private Position positionAt(int posX, int posY) {
+        return new Position(cells, cells.indexOf(posX, posY), posX, posY);
+    }
+
     // EFFECTS: checks if the coordinates x and y point to a position in the grid
     public boolean checkValidPosition(int x, int y) {
         return ((x >= 0) && (x <= farthestRight) && (y >= 0) && (y <= farthestBottom));
     }
 
-    // EFFECTS: returns the JSON representation of this stage
+    // EFFECTS: returns the JSON representation of this stage, with its positions as runs that only hold
+    //          the positions whose modifiers or movement cost are set
     public JSONObject toJson() {
         JSONObject json = new JSONObject();
         json.put(JsonReader.WIDTH, farthestRight + 1);
         json.put(JsonReader.LENGTH, farthestBottom + 1);
-        json.put(JsonReader.POSITIONS, positionsToJson());
+        json.put(JsonReader.RUNS, runsToJson());
+        JSONArray regions = new JSONArray();
+        for (StatRegion region : getStatRegions()) {
+            regions.put(region.toJson());
+        }
+        json.put(JsonReader.REGIONS, regions);
         return json;
     }
 
-    private JSONArray positionsToJson() {
-        JSONArray jsonArray = new JSONArray();
-        for (Position pos : this) {
-            jsonArray.put(pos.toJson());
+    // EFFECTS: returns the positions of this stage that have a modifier or movement cost set as runs of
+    //          neighbouring positions on a row with the same values, each with the x and y it starts at, the
+    //          number of positions it covers and only the values that are not the defaults
+    private JSONArray runsToJson() {
+        JSONArray runs = new JSONArray();
+        JSONObject values = null;
+        JSONObject run = null;
+        int next = -1;
+        for (int cell : cells.modifiedCells()) {
+            int posX = cell % cells.getWidth();
+            JSONObject cellValues = positionAt(posX, cell / cells.getWidth()).toSparseJson();
+            if (cell == next && posX != 0 && cellValues.similar(values)) {
+                run.put(JsonReader.COUNT, run.getInt(JsonReader.COUNT) + 1);
+            } else {
+                values = cellValues;
+                run = new JSONObject(cellValues.toMap());
+                run.put(JsonReader.X, posX);
+                run.put(JsonReader.Y, cell / cells.getWidth());
+                run.put(JsonReader.COUNT, 1);
+                runs.put(run);
+            }
+            next = cell + 1;
         }
-        return jsonArray;
+        return runs;
     }
 
+    // EFFECTS: returns the positions of this stage as a list of rows, where each row is a list of
+    //          positions ordered from left to right
+    //          note: this builds a new view of every position, so it should not be used on large stages
     public ArrayList<ArrayList<Position>> getGrid() {
+        ArrayList<ArrayList<Position>> grid = new ArrayList<>();
+        for (int y = 0; y <= farthestBottom; y++) {
+            ArrayList<Position> row = new ArrayList<>();
+            for (int x = 0; x <= farthestRight; x++) {
+                row.add(positionAt(x, y));
+            }
+            grid.add(row);
+        }
         return grid;
     }
 
@@ -85,42 +337,169 @@ public class Stage implements Savable, Iterable<Position> {
         return new StageIterator();
     }
 
-    // Represents the iterator used for accessing the positions in the stage
-    public class StageIterator implements Iterator<Position> {
+    // EFFECTS: returns a spliterator over the positions of this stage in the same order as the stage
+    //          iterator, which splits by rows
+    @Override
+    public Spliterator<Position> spliterator() {
+        return new RowSpliterator(0, farthestBottom + 1);
+    }
+
+    // EFFECTS: returns a sequential stream of the positions of this stage in row-major order
+    public Stream<Position> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    // EFFECTS: returns a parallel stream of the positions of this stage, split by rows
+    public Stream<Position> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    // EFFECTS: returns a stream of the positions of this stage for a sweep over the whole board,
+    //          which is parallel if the stage has at least PARALLEL_THRESHOLD positions
+    public Stream<Position> sweep() {
+        return isLarge() ? parallelStream() : stream();
+    }
+
+    // EFFECTS: returns a stream of the rows of this stage from 0 to farthestBottom for a sweep over the
+    //          whole board a row at a time, which is parallel if the stage is large
+    public IntStream sweepRows() {
+        IntStream rows = IntStream.rangeClosed(0, farthestBottom);
+        return isLarge() ? rows.parallel() : rows;
+    }
+
+    // EFFECTS: returns true if this stage has enough positions for a sweep over it to be worth
+    //          splitting across threads
+    public boolean isLarge() {
+        return (long) (farthestRight + 1) * (farthestBottom + 1) >= PARALLEL_THRESHOLD;
+    }
+
+    // EFFECTS: returns the positions in the rectangle from (minX, minY) to (maxX, maxY) inclusive,
+    //          clipped to the bounds of this stage, in the same order as the stage iterator
+    public Iterable<Position> region(int minX, int minY, int maxX, int maxY) {
+        return () -> new RegionIterator(minX, minY, maxX, maxY);
+    }
+
+    // Represents an iterator over the positions of a rectangle of the stage, clipped to the stage's bounds
+    public class RegionIterator implements Iterator<Position> {
+        private final int minX;
+        private final int maxX;
+        private final int maxY;
         private int pointerX;
         private int pointerY;
 
-        // EFFECTS: initializes pointerX and pointerY to 0
-        public StageIterator() {
-            pointerX = 0;
-            pointerY = 0;
+        // EFFECTS: clips the rectangle from (minX, minY) to (maxX, maxY) to the stage and initializes
+        //          the pointers to its top left corner
+        public RegionIterator(int minX, int minY, int maxX, int maxY) {
+            this.minX = Math.max(minX, 0);
+            this.maxX = Math.min(maxX, farthestRight);
+            this.maxY = this.minX <= this.maxX ? Math.min(maxY, farthestBottom) : -1;
+            pointerX = this.minX;
+            pointerY = Math.max(minY, 0);
         }
 
-        // EFFECTS: returns true if pointerY is still within the range of possible Y values
-        //          for positions in the stage
+        // EFFECTS: returns true if pointerY is still within the rows of the clipped rectangle
         @Override
         public boolean hasNext() {
-            return pointerY <= farthestBottom;
+            return pointerY <= maxY;
         }
 
         // MODIFIES: this
         // EFFECTS: returns the position at the x,y value of the stage and increments the x pointer by 1
-        //          if the x pointer is no longer within the range of possible x values, resets the
-        //          x pointer to 0 and increments the y pointer by 1
+        //          if the x pointer is no longer within the clipped rectangle, resets the x pointer
+        //          to the left edge and increments the y pointer by 1
         //          if there is no next position, throws NoSuchElementException
         @Override
         public Position next() {
-            try {
-                Position nextPos = getPosition(pointerX, pointerY);
-                pointerX++;
-                if (pointerX > farthestRight) {
-                    pointerX = 0;
-                    pointerY++;
-                }
-                return nextPos;
-            } catch (InvalidPositionException e) {
+            if (!hasNext()) {
                 throw new NoSuchElementException();
             }
+            Position nextPos = positionAt(pointerX, pointerY);
+            pointerX++;
+            if (pointerX > maxX) {
+                pointerX = minX;
+                pointerY++;
+            }
+            return nextPos;
+        }
+    }
+
+    // Represents the iterator used for accessing the positions in the stage
+    public class StageIterator extends RegionIterator {
+
+        // EFFECTS: initializes the iterator over every position of the stage
+        public StageIterator() {
+            super(0, 0, farthestRight, farthestBottom);
+        }
+    }
+
+    // Represents a spliterator over the positions of a band of whole rows of the stage, which
+    // splits off the upper half of its remaining rows
+    private class RowSpliterator implements Spliterator<Position> {
+        private int pointerX;
+        private int pointerY;
+        private final int endY;
+
+        // EFFECTS: initializes the spliterator over the rows from minY inclusive to endY exclusive
+        private RowSpliterator(int minY, int endY) {
+            pointerX = 0;
+            pointerY = minY;
+            this.endY = endY;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: if there is a next position, gives it to action, moves past it and returns true,
+        //          otherwise returns false
+        @Override
+        public boolean tryAdvance(Consumer<? super Position> action) {
+            if (pointerY >= endY) {
+                return false;
+            }
+            action.accept(positionAt(pointerX, pointerY));
+            pointerX++;
+            if (pointerX > farthestRight) {
+                pointerX = 0;
+                pointerY++;
+            }
+            return true;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: gives every remaining position to action in order
+        @Override
+        public void forEachRemaining(Consumer<? super Position> action) {
+            for (; pointerY < endY; pointerY++) {
+                for (; pointerX <= farthestRight; pointerX++) {
+                    action.accept(positionAt(pointerX, pointerY));
+                }
+                pointerX = 0;
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: if at least two whole rows remain after the current one, returns a spliterator over
+        //          the upper half of them and keeps the rest, otherwise returns null
+        @Override
+        public Spliterator<Position> trySplit() {
+            int firstWhole = pointerX == 0 ? pointerY : pointerY + 1;
+            int middle = (firstWhole + endY) >>> 1;
+            if (middle <= pointerY || endY - firstWhole < 2) {
+                return null;
+            }
+            RowSpliterator prefix = new RowSpliterator(pointerY, middle);
+            prefix.pointerX = pointerX;
+            pointerX = 0;
+            pointerY = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return (long) (endY - pointerY) * (farthestRight + 1) - pointerX;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | DISTINCT | NONNULL | IMMUTABLE;
         }
     }
 }
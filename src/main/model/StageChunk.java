@@ -0,0 +1,69 @@
+package model;
+
+// Represents a square tile of SIZE x SIZE cells of a stage grid that has something stored in it: the
+// ids of the units on its cells and, once one of them is set, the values of each stat modifier and
+// of the terrain layer. Keeps count of its occupied cells and non-zero values so the grid knows
+// when it is empty again
+final class StageChunk {
+
+    static final int SHIFT = 5;
+    static final int SIZE = 1 << SHIFT;
+    static final int MASK = SIZE - 1;
+
+    private final int[] unitIds;
+    private final int[][] modifiers;
+    private int liveValues;
+
+    // EFFECTS: constructs a chunk with no units and all modifiers set to 0
+    StageChunk() {
+        unitIds = new int[SIZE * SIZE];
+        modifiers = new int[StageGrid.LAYER_COUNT][];
+    }
+
+    // EFFECTS: returns the id of the unit on the cell at offset, or 0 if there is none
+    int getUnitId(int offset) {
+        return unitIds[offset];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the id of the unit on the cell at offset, 0 meaning no unit
+    void setUnitId(int offset, int id) {
+        liveValues += (id != 0 ? 1 : 0) - (unitIds[offset] != 0 ? 1 : 0);
+        unitIds[offset] = id;
+    }
+
+    // EFFECTS: returns the value of the stat modifier on the cell at offset
+    int getModifier(int stat, int offset) {
+        int[] values = modifiers[stat];
+        return values == null ? 0 : values[offset];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the value of the stat modifier on the cell at offset, allocating the values of
+    //          that stat if this is its first non-zero value
+    void setModifier(int stat, int offset, int value) {
+        if (modifiers[stat] == null) {
+            if (value == 0) {
+                return;
+            }
+            modifiers[stat] = new int[SIZE * SIZE];
+        }
+        liveValues += (value != 0 ? 1 : 0) - (modifiers[stat][offset] != 0 ? 1 : 0);
+        modifiers[stat][offset] = value;
+    }
+
+    // EFFECTS: returns true if the cell at offset has a non-zero modifier or terrain value
+    boolean hasValues(int offset) {
+        for (int[] values : modifiers) {
+            if (values != null && values[offset] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // EFFECTS: returns true if no cell of this chunk has a unit or a non-zero modifier
+    boolean isEmpty() {
+        return liveValues == 0;
+    }
+}
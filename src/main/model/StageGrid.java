@@ -0,0 +1,419 @@
+package model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+// Represents the cell storage behind a stage. Each cell is addressed by its row-major index
+// y * width + x. Occupancy is kept in a bitboard of all units and one bitboard per faction, and
+// occupied cells are also kept in a bucket index for sparse range queries. The id of the unit on a
+// cell (0 if there is none), its stat modifiers and its terrain are kept in chunks of
+// StageChunk.SIZE x StageChunk.SIZE cells that are only allocated once a unit enters them or a
+// modifier or terrain is set in them, and are dropped again once they are empty; cells of
+// unallocated chunks read as having no unit, no modifiers and a movement cost of 1, so a mostly
+// empty stage only costs its occupancy bits. Stat regions add their modifiers on top of those of the
+// cells they cover without touching the chunks. Once they are first asked for, the DiamondCounts of the
+// units are kept up to date as well. Cell listeners are told about every change to a cell, except that
+// adding or removing a stat region only tells them about the cells in it with a unit on them
+final class StageGrid {
+
+    static final int STRENGTH = 0;
+    static final int SPEED = 1;
+    static final int DEFENSE = 2;
+    static final int LUCK = 3;
+    static final int MOVEMENT = 4;
+    static final int RANGE = 5;
+    static final int MODIFIER_COUNT = 6;
+    static final int TERRAIN = 6;
+    static final int LAYER_COUNT = 7;
+
+    private static final int NO_UNIT = 0;
+
+    private final int width;
+    private final int length;
+    private final int chunksX;
+    private final StageChunk[] chunks;
+    private final Bitboard allUnits;
+    private final Map<String, Bitboard> factionUnits;
+    private final UnitBuckets buckets;
+    private final ArrayList<Warrior> units;
+    private final Deque<Integer> freeIds;
+    private final List<CellListener> listeners;
+    private final RegionModifiers regions;
+    private DiamondCounts diamondCounts;
+    private int allocatedChunks;
+
+    // REQUIRES: width > 0, length > 0
+    // EFFECTS: constructs an empty grid of width x length cells with all modifiers set to 0
+    StageGrid(int width, int length) {
+        this.width = width;
+        this.length = length;
+        chunksX = (width + StageChunk.MASK) >> StageChunk.SHIFT;
+        chunks = new StageChunk[chunksX * ((length + StageChunk.MASK) >> StageChunk.SHIFT)];
+        allUnits = new Bitboard(width, length);
+        factionUnits = new HashMap<>();
+        buckets = new UnitBuckets(width, length);
+        units = new ArrayList<>();
+        freeIds = new ArrayDeque<>();
+        listeners = new ArrayList<>();
+        regions = new RegionModifiers();
+    }
+
+    // EFFECTS: returns the index of the cell at x,y
+    int indexOf(int x, int y) {
+        return y * width + x;
+    }
+
+    // EFFECTS: returns true if the cell at index has a unit on it
+    boolean isOccupied(int index) {
+        return allUnits.get(index % width, index / width);
+    }
+
+    // EFFECTS: returns the unit on the cell at index, or null if there is none
+    Warrior unitAt(int index) {
+        int id = unitId(index);
+        return id == NO_UNIT ? null : units.get(id - 1);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the unit on the cell at index to warrior, or clears the cell if warrior is null
+    //          does not update the warrior's position
+    void setUnit(int index, Warrior warrior) {
+        int x = index % width;
+        int y = index / width;
+        int oldId = unitId(index);
+        if (oldId != NO_UNIT) {
+            factionBoard(units.get(oldId - 1).getFaction()).clear(x, y);
+            countUnit(units.get(oldId - 1).getFaction(), x, y, -1);
+            units.set(oldId - 1, null);
+            freeIds.push(oldId);
+            chunkOf(x, y).setUnitId(offsetOf(x, y), NO_UNIT);
+            allUnits.clear(x, y);
+            buckets.remove(index);
+        }
+        if (warrior != null) {
+            int id = nextId();
+            units.set(id - 1, warrior);
+            allocateChunk(x, y).setUnitId(offsetOf(x, y), id);
+            allUnits.set(x, y);
+            factionBoard(warrior.getFaction()).set(x, y);
+            countUnit(warrior.getFaction(), x, y, 1);
+            buckets.add(index);
+        }
+        releaseIfEmpty(x, y);
+        notifyListeners(index);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the cell at index from the bitboard of oldFaction to the bitboard of the
+    //          faction of the unit now on it
+    void changeFaction(int index, String oldFaction) {
+        Warrior unit = unitAt(index);
+        if (unit != null) {
+            factionBoard(oldFaction).clear(index % width, index / width);
+            factionBoard(unit.getFaction()).set(index % width, index / width);
+            countUnit(oldFaction, index % width, index / width, -1);
+            countUnit(unit.getFaction(), index % width, index / width, 1);
+            notifyListeners(index);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds listener to the listeners told about changes to the cells of this grid
+    void addListener(CellListener listener) {
+        listeners.add(listener);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops telling listener about changes to the cells of this grid
+    void removeListener(CellListener listener) {
+        listeners.remove(listener);
+    }
+
+    int getListenerCount() {
+        return listeners.size();
+    }
+
+    // EFFECTS: tells every listener that the cell at index has changed
+    private void notifyListeners(int index) {
+        for (CellListener listener : listeners) {
+            listener.cellChanged(index % width, index / width);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the occupancy bitboard of faction, creating an empty one if it does not exist yet
+    private Bitboard factionBoard(String faction) {
+        return factionUnits.computeIfAbsent(faction, f -> new Bitboard(width, length));
+    }
+
+    // REQUIRES: 0 <= y < length, 0 <= x0 <= x1 < width
+    // EFFECTS: returns true if a unit that is not part of faction is on row y between x0 and x1 inclusive
+    boolean anyEnemyInRow(int y, int x0, int x1, String faction) {
+        return allUnits.anyInRow(y, x0, x1, factionUnits.get(faction));
+    }
+
+    // REQUIRES: size > 0
+    // EFFECTS: returns a size x size bitboard of the cells from x0,y0 on that have a unit that is not part of
+    //          faction on them, where cells off the grid have none
+    Bitboard enemiesWindow(int x0, int y0, int size, String faction) {
+        Bitboard enemies = allUnits.window(x0, y0, size, size);
+        Bitboard allies = factionUnits.get(faction);
+        if (allies != null) {
+            enemies.andNot(allies.window(x0, y0, size, size));
+        }
+        return enemies;
+    }
+
+    // REQUIRES: 0 <= y < length, 0 <= x0 <= x1 < width
+    // EFFECTS: returns the number of units on row y between x0 and x1 inclusive
+    int countUnitsInRow(int y, int x0, int x1) {
+        return allUnits.countInRow(y, x0, x1);
+    }
+
+    // REQUIRES: 0 <= y < length, 0 <= x < width
+    // EFFECTS: returns the index of the first cell with no unit at or after x,y in row-major order,
+    //          or -1 if there is none
+    int nextFreeCell(int x, int y) {
+        return allUnits.nextClear(x, y);
+    }
+
+    // EFFECTS: returns the estimated cost of finding the units within radius of x,y through the bucket index
+    int unitQueryCost(int x, int y, int radius) {
+        return buckets.queryCost(x, y, radius);
+    }
+
+    // EFFECTS: calls action with the index of every cell within radius of x,y that has a unit on it
+    void forEachUnitWithin(int x, int y, int radius, IntConsumer action) {
+        buckets.forEachWithin(x, y, radius, action);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the diamond counts of the units of this grid, counting every unit on it the first
+    //          time they are needed; from then on they are kept up to date with every change of a unit
+    DiamondCounts diamondCounts() {
+        if (diamondCounts == null) {
+            diamondCounts = new DiamondCounts(width, length);
+            for (int index = 0; index < width * length; index++) {
+                if (isOccupied(index)) {
+                    diamondCounts.add(unitAt(index).getFaction(), index % width, index / width, 1);
+                }
+            }
+        }
+        return diamondCounts;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds amount units of faction at x,y to the diamond counts if they are kept
+    private void countUnit(String faction, int x, int y, int amount) {
+        if (diamondCounts != null) {
+            diamondCounts.add(faction, x, y, amount);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns an unused unit id, reusing ids of units that have left the grid
+    private int nextId() {
+        if (freeIds.isEmpty()) {
+            units.add(null);
+            return units.size();
+        }
+        return freeIds.pop();
+    }
+
+    // EFFECTS: returns the id of the unit on the cell at index, or NO_UNIT if there is none
+    private int unitId(int index) {
+        StageChunk chunk = chunkOf(index % width, index / width);
+        return chunk == null ? NO_UNIT : chunk.getUnitId(offsetOf(index % width, index / width));
+    }
+
+    // EFFECTS: returns the movement cost of entering the cell at index, or Position.IMPASSABLE if it
+    //          cannot be entered; the terrain layer stores the cost minus 1 so the default is a cost of 1
+    int getMoveCost(int index) {
+        return getModifier(TERRAIN, index) + 1;
+    }
+
+    // REQUIRES: cost is Position.IMPASSABLE or 1 <= cost <= Position.MAX_MOVE_COST
+    // MODIFIES: this
+    // EFFECTS: sets the movement cost of entering the cell at index
+    void setMoveCost(int index, int cost) {
+        setModifier(TERRAIN, index, cost - 1);
+    }
+
+    // EFFECTS: returns the value of the stat modifier or terrain layer stat on the cell at index
+    int getModifier(int stat, int index) {
+        StageChunk chunk = chunkOf(index % width, index / width);
+        return chunk == null ? 0 : chunk.getModifier(stat, offsetOf(index % width, index / width));
+    }
+
+    // REQUIRES: 0 <= stat < MODIFIER_COUNT
+    // EFFECTS: returns the value of the stat modifier on the cell at index plus the modifiers the stat
+    //          regions over it give to stat
+    int getStatModifier(int stat, int index) {
+        return getModifier(stat, index) + regions.valueAt(stat, index % width, index / width);
+    }
+
+    // REQUIRES: region is inside this grid
+    // MODIFIES: this
+    // EFFECTS: adds region to the stat regions of this grid
+    void addRegion(StatRegion region) {
+        regions.add(region);
+        notifyUnitsIn(region);
+    }
+
+    // REQUIRES: every region of added is inside this grid
+    // MODIFIES: this
+    // EFFECTS: adds every region of added, in order, to the stat regions of this grid
+    void addRegions(List<StatRegion> added) {
+        regions.addAll(added);
+        for (StatRegion region : added) {
+            notifyUnitsIn(region);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes region from the stat regions of this grid, returning true if it was one of them
+    boolean removeRegion(StatRegion region) {
+        if (!regions.remove(region)) {
+            return false;
+        }
+        notifyUnitsIn(region);
+        return true;
+    }
+
+    // EFFECTS: returns the stat regions of this grid in the order they were added
+    List<StatRegion> getRegions() {
+        return regions.getRegions();
+    }
+
+    // EFFECTS: tells every listener about each cell of region with a unit on it
+    private void notifyUnitsIn(StatRegion region) {
+        for (int y = region.getTop(); y <= region.getBottom(); y++) {
+            int cell = allUnits.nextSet(region.getLeft(), y);
+            while (cell >= 0 && cell <= indexOf(region.getRight(), y)) {
+                notifyListeners(cell);
+                cell = cell % width == region.getRight() ? -1 : allUnits.nextSet(cell % width + 1, y);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the value of the stat modifier on the cell at index, allocating the chunk of the
+    //          cell if this is its first non-zero value and dropping it if it is now empty
+    void setModifier(int stat, int index, int value) {
+        int x = index % width;
+        int y = index / width;
+        if (getModifier(stat, index) != value) {
+            allocateChunk(x, y).setModifier(stat, offsetOf(x, y), value);
+            releaseIfEmpty(x, y);
+            notifyListeners(index);
+        }
+    }
+
+    // REQUIRES: costs.length == width * length
+    // MODIFIES: costs
+    // EFFECTS: sets every cell of costs to the movement cost of the same cell of this grid, or to
+    //          Position.IMPASSABLE if it cannot be entered or a unit that is not part of faction is on it
+    void fillMoveCosts(int[] costs, String faction) {
+        for (int y = 0; y < length; y++) {
+            for (int chunkX = 0; chunkX < chunksX; chunkX++) {
+                StageChunk chunk = chunks[(y >> StageChunk.SHIFT) * chunksX + chunkX];
+                int left = chunkX << StageChunk.SHIFT;
+                int right = Math.min(left + StageChunk.SIZE, width);
+                if (chunk == null) {
+                    Arrays.fill(costs, y * width + left, y * width + right, 1);
+                } else {
+                    for (int x = left; x < right; x++) {
+                        costs[y * width + x] = chunk.getModifier(TERRAIN, offsetOf(x, y)) + 1;
+                    }
+                }
+            }
+        }
+        Bitboard allies = factionUnits.get(faction);
+        for (int cell = allUnits.nextSet(0, 0); cell >= 0; cell = nextUnit(cell)) {
+            if (allies == null || !allies.get(cell % width, cell / width)) {
+                costs[cell] = Position.IMPASSABLE;
+            }
+        }
+    }
+
+    // EFFECTS: returns the index of the first cell after cell with a unit on it, or -1 if there is none
+    private int nextUnit(int cell) {
+        int next = cell + 1;
+        return next == width * length ? -1 : allUnits.nextSet(next % width, next / width);
+    }
+
+    // EFFECTS: returns the indices of the cells with a non-zero modifier or a movement cost other than 1,
+    //          in row-major order, visiting only the allocated chunks
+    int[] modifiedCells() {
+        int[] found = new int[16];
+        int count = 0;
+        for (int y = 0; y < length; y++) {
+            for (int chunkX = 0; chunkX < chunksX; chunkX++) {
+                StageChunk chunk = chunks[(y >> StageChunk.SHIFT) * chunksX + chunkX];
+                if (chunk == null) {
+                    continue;
+                }
+                int left = chunkX << StageChunk.SHIFT;
+                for (int x = left; x < Math.min(left + StageChunk.SIZE, width); x++) {
+                    if (chunk.hasValues(offsetOf(x, y))) {
+                        if (count == found.length) {
+                            found = Arrays.copyOf(found, count * 2);
+                        }
+                        found[count++] = indexOf(x, y);
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    // EFFECTS: returns the chunk holding the cell at x,y, or null if it is not allocated
+    private StageChunk chunkOf(int x, int y) {
+        return chunks[(y >> StageChunk.SHIFT) * chunksX + (x >> StageChunk.SHIFT)];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the chunk holding the cell at x,y, allocating it if it does not exist yet
+    private StageChunk allocateChunk(int x, int y) {
+        int chunk = (y >> StageChunk.SHIFT) * chunksX + (x >> StageChunk.SHIFT);
+        if (chunks[chunk] == null) {
+            chunks[chunk] = new StageChunk();
+            allocatedChunks++;
+        }
+        return chunks[chunk];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drops the chunk holding the cell at x,y if none of its cells has a unit or modifier
+    private void releaseIfEmpty(int x, int y) {
+        int chunk = (y >> StageChunk.SHIFT) * chunksX + (x >> StageChunk.SHIFT);
+        if (chunks[chunk] != null && chunks[chunk].isEmpty()) {
+            chunks[chunk] = null;
+            allocatedChunks--;
+        }
+    }
+
+    // EFFECTS: returns the offset of the cell at x,y within its chunk
+    private static int offsetOf(int x, int y) {
+        return ((y & StageChunk.MASK) << StageChunk.SHIFT) | (x & StageChunk.MASK);
+    }
+
+    // EFFECTS: returns the number of chunks that are currently allocated
+    int getAllocatedChunks() {
+        return allocatedChunks;
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getLength() {
+        return length;
+    }
+}
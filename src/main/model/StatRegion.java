@@ -0,0 +1,100 @@
+package model;
+
+import org.json.JSONObject;
+import persistance.JsonReader;
+import persistance.Savable;
+
+// Represents a rectangle of positions on a stage from (left, top) to (right, bottom) inclusive that
+// all get the same stat modifiers, on top of the modifiers set on each position
+public class StatRegion implements Savable {
+
+    private final int left;
+    private final int top;
+    private final int right;
+    private final int bottom;
+    private final int[] modifiers;
+
+    // REQUIRES: left <= right, top <= bottom
+    // EFFECTS: constructs a region from (left, top) to (right, bottom) inclusive with the given modifiers
+    public StatRegion(int left, int top, int right, int bottom,
+                      int strength, int speed, int defense, int luck, int movement, int range) {
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+        modifiers = new int[StageGrid.MODIFIER_COUNT];
+        modifiers[StageGrid.STRENGTH] = strength;
+        modifiers[StageGrid.SPEED] = speed;
+        modifiers[StageGrid.DEFENSE] = defense;
+        modifiers[StageGrid.LUCK] = luck;
+        modifiers[StageGrid.MOVEMENT] = movement;
+        modifiers[StageGrid.RANGE] = range;
+    }
+
+    // EFFECTS: returns true if x,y is inside this region
+    public boolean contains(int x, int y) {
+        return x >= left && x <= right && y >= top && y <= bottom;
+    }
+
+    // REQUIRES: 0 <= stat < StageGrid.MODIFIER_COUNT
+    // EFFECTS: returns the modifier this region gives to stat
+    int getModifier(int stat) {
+        return modifiers[stat];
+    }
+
+    @Override
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put(JsonReader.LEFT, left);
+        json.put(JsonReader.TOP, top);
+        json.put(JsonReader.RIGHT, right);
+        json.put(JsonReader.BOTTOM, bottom);
+        json.put(JsonReader.STRENGTH, getStrengthModifier());
+        json.put(JsonReader.SPEED, getSpeedModifier());
+        json.put(JsonReader.DEFENSE, getDefenseModifier());
+        json.put(JsonReader.LUCK, getLuckModifier());
+        json.put(JsonReader.MOVEMENT, getMovementModifier());
+        json.put(JsonReader.RANGE, getRangeModifier());
+        return json;
+    }
+
+    public int getLeft() {
+        return left;
+    }
+
+    public int getTop() {
+        return top;
+    }
+
+    public int getRight() {
+        return right;
+    }
+
+    public int getBottom() {
+        return bottom;
+    }
+
+    public int getStrengthModifier() {
+        return modifiers[StageGrid.STRENGTH];
+    }
+
+    public int getSpeedModifier() {
+        return modifiers[StageGrid.SPEED];
+    }
+
+    public int getDefenseModifier() {
+        return modifiers[StageGrid.DEFENSE];
+    }
+
+    public int getLuckModifier() {
+        return modifiers[StageGrid.LUCK];
+    }
+
+    public int getMovementModifier() {
+        return modifiers[StageGrid.MOVEMENT];
+    }
+
+    public int getRangeModifier() {
+        return modifiers[StageGrid.RANGE];
+    }
+}
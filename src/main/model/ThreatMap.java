@@ -0,0 +1,367 @@
+package model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Represents, for every faction of a battle, how many units of that faction can reach each position
+// of a stage with their movement and then attack it with their range, and the strongest of them.
+// Every unit stamps the diamond of cells within its movement + range, row by row, into the grids of
+// its own faction, and the threat to a faction is read from the grids of every other faction.
+// The grids are rebuilt once per turn and patched when a unit moves, dies, changes faction or its
+// stats change with the modifiers of the position it stands on. Counts are patched right away, but a
+// strongest strength cannot be taken back without looking at every other unit of the faction, so the
+// strengths of a faction that lost a diamond are only raised again the next time they are read, and
+// the getters of the strengths change this map when they do. A map can also be kept for a viewing
+// faction, such as the one whose turn it is: then only the units of other factions the viewer can
+// see are stamped, along with any that come into its sight as its units move, and a unit that goes
+// out of its sight stays stamped where it was last seen until the next rebuild
+public class ThreatMap implements CellListener {
+
+    private final Stage stage;
+    private final Visibility visibility;
+    private final int width;
+    private final int length;
+    private final Map<String, int[]> counts;
+    private final Map<String, int[]> strengths;
+    private final Map<Warrior, Footprint> footprints;
+    private final Map<Integer, Warrior> stamped;
+    private final Set<String> staleStrengths;
+    private DiamondCounts units;
+    private String viewer;
+
+    // Represents the diamond a unit has stamped into the grids of its faction
+    private static final class Footprint {
+        private final int posX;
+        private final int posY;
+        private final int radius;
+        private final int strength;
+        private final String faction;
+        private final int[] counts;
+        private final int[] strengths;
+
+        private Footprint(Warrior warrior, int[] counts, int[] strengths) {
+            this.counts = counts;
+            this.strengths = strengths;
+            posX = warrior.getPosition().getPosX();
+            posY = warrior.getPosition().getPosY();
+            radius = warrior.getRealMovement() + warrior.getRealRange();
+            strength = warrior.getRealStrength();
+            faction = warrior.getFaction();
+        }
+
+        // EFFECTS: returns true if warrior, which has a position, would stamp the same diamond as this
+        private boolean matches(Warrior warrior) {
+            return posX == warrior.getPosition().getPosX() && posY == warrior.getPosition().getPosY()
+                    && radius == warrior.getRealMovement() + warrior.getRealRange()
+                    && strength == warrior.getRealStrength() && faction.equals(warrior.getFaction());
+        }
+    }
+
+    // EFFECTS: constructs the threat map of the units of competitors on stage, listening to the changes
+    //          of its positions
+    public ThreatMap(Stage stage, List<Army> competitors) {
+        this(stage, competitors, null, null);
+    }
+
+    // REQUIRES: visibility is the visibility of competitors on stage and listens to the changes of its
+    //           positions before this map does, and viewer is null or the faction name of one of competitors
+    // EFFECTS: constructs the threat map of the units of competitors on stage that are not in viewer and that
+    //          viewer can see, or of every unit if viewer is null, listening to the changes of its positions
+    public ThreatMap(Stage stage, List<Army> competitors, Visibility visibility, String viewer) {
+        this.stage = stage;
+        this.visibility = visibility;
+        this.viewer = viewer;
+        width = stage.getFarthestRight() + 1;
+        length = stage.getFarthestBottom() + 1;
+        counts = new HashMap<>();
+        strengths = new HashMap<>();
+        footprints = new HashMap<>();
+        stamped = new HashMap<>();
+        staleStrengths = new HashSet<>();
+        rebuild(competitors);
+        stage.addCellListener(this);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: clears the map and stamps every living unit of competitors that is on the stage, sweeping
+    //          the rows of the stage in parallel if it is large
+    public void rebuild(List<Army> competitors) {
+        footprints.clear();
+        stamped.clear();
+        staleStrengths.clear();
+        units = new DiamondCounts(width, length);
+        int maxRadius = 0;
+        for (Army army : competitors) {
+            for (Warrior warrior : army) {
+                if (warrior.getIsAlive() && warrior.getPosition() != null && isStampable(warrior)) {
+                    Footprint footprint = footprintOf(warrior);
+                    footprints.put(warrior, footprint);
+                    stamped.put(footprint.posY * width + footprint.posX, warrior);
+                    units.add(footprint.faction, footprint.posX, footprint.posY, 1);
+                    maxRadius = Math.max(maxRadius, footprint.radius);
+                }
+            }
+        }
+        Footprint[] byRow = new Footprint[footprints.size()];
+        int[] rowStart = new int[length + 1];
+        for (Footprint footprint : footprints.values()) {
+            rowStart[footprint.posY + 1]++;
+        }
+        for (int y = 0; y < length; y++) {
+            rowStart[y + 1] += rowStart[y];
+        }
+        int[] next = Arrays.copyOf(rowStart, length);
+        for (Footprint footprint : footprints.values()) {
+            byRow[next[footprint.posY]++] = footprint;
+        }
+        int reach = maxRadius;
+        stage.sweepRows().forEach(y -> sweepRow(y, byRow, rowStart, reach));
+    }
+
+    // REQUIRES: viewer is null or the faction name of one of competitors
+    // MODIFIES: this
+    // EFFECTS: makes viewer the faction this map is kept for, or every faction if it is null, and rebuilds
+    //          the map from competitors
+    public void rebuild(List<Army> competitors, String viewer) {
+        this.viewer = viewer;
+        rebuild(competitors);
+    }
+
+    // REQUIRES: byRow holds every footprint sorted by row, with the footprints of row y from rowStart[y]
+    //           to rowStart[y + 1], and no footprint has a radius over maxRadius
+    // MODIFIES: this
+    // EFFECTS: sets row y of every grid from the diamonds of the footprints that cover it
+    private void sweepRow(int y, Footprint[] byRow, int[] rowStart, int maxRadius) {
+        for (int[] grid : counts.values()) {
+            Arrays.fill(grid, y * width, (y + 1) * width, 0);
+        }
+        for (int[] grid : strengths.values()) {
+            Arrays.fill(grid, y * width, (y + 1) * width, 0);
+        }
+        int end = rowStart[Math.min(y + maxRadius, length - 1) + 1];
+        for (int i = rowStart[Math.max(y - maxRadius, 0)]; i < end; i++) {
+            addCountsInRow(byRow[i], y, 1);
+            raiseStrengthsInRow(byRow[i], y);
+        }
+    }
+
+    // EFFECTS: returns the number of units not in faction that can attack x,y next turn
+    public int getThreatCount(String faction, int x, int y) {
+        if (!stage.checkValidPosition(x, y)) {
+            return 0;
+        }
+        int count = 0;
+        for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+            if (!entry.getKey().equals(faction)) {
+                count += entry.getValue()[y * width + x];
+            }
+        }
+        return count;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the most damage a single unit not in faction can deal to a unit with defense
+    //          standing on x,y next turn, not counting critical hits, first raising again the strengths
+    //          of every faction that has lost a diamond since they were last read
+    public int getMaxIncomingDamage(String faction, int x, int y, int defense) {
+        if (!stage.checkValidPosition(x, y)) {
+            return 0;
+        }
+        refreshStrengths();
+        int strength = 0;
+        for (Map.Entry<String, int[]> entry : strengths.entrySet()) {
+            if (!entry.getKey().equals(faction)) {
+                strength = Math.max(strength, entry.getValue()[y * width + x]);
+            }
+        }
+        return Math.max(strength - defense, 0);
+    }
+
+    // EFFECTS: returns the number of units not in faction that can attack each position next turn, in a
+    //          row-major array of the positions of the stage
+    public int[] getThreatCounts(String faction) {
+        int[] total = new int[width * length];
+        for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+            if (!entry.getKey().equals(faction)) {
+                CellSweeps.addAll(total, entry.getValue());
+            }
+        }
+        return total;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the strength of the strongest unit not in faction that can attack each position next
+    //          turn, or 0 if none can, in a row-major array of the positions of the stage, first raising
+    //          again the strengths of every faction that has lost a diamond since they were last read
+    public int[] getMaxStrengths(String faction) {
+        refreshStrengths();
+        int[] max = new int[width * length];
+        for (Map.Entry<String, int[]> entry : strengths.entrySet()) {
+            if (!entry.getKey().equals(faction)) {
+                CellSweeps.raiseAll(max, entry.getValue());
+            }
+        }
+        return max;
+    }
+
+    // EFFECTS: returns the number of stamped units not in faction that stand within radius of x,y
+    public int countEnemiesWithin(String faction, int x, int y, int radius) {
+        return units.countOthersWithin(faction, x, y, radius);
+    }
+
+    // REQUIRES: minThreats >= 1
+    // EFFECTS: returns the number of positions at least minThreats units not in faction can attack next turn
+    public int countThreatenedPositions(String faction, int minThreats) {
+        return CellSweeps.countAtLeast(getThreatCounts(faction), minThreats);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops listening to the changes of the stage; this map must not be read after this
+    public void close() {
+        stage.removeCellListener(this);
+    }
+
+    public String getViewer() {
+        return viewer;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes back the diamond of the unit that was stamped on x,y if it has left, stamps the unit
+    //          that is now on x,y if it is new or its faction or stats have changed and the viewer can see it,
+    //          or takes its diamond back if the viewer can no longer see it there, and if it is a unit of the
+    //          viewer, stamps the units it has brought into the viewer's sight
+    @Override
+    public void cellChanged(int posX, int posY) {
+        int index = posY * width + posX;
+        Warrior unit = stage.unitAtOrNull(posX, posY);
+        Warrior previous = stamped.get(index);
+        if (previous != null && previous != unit) {
+            unstamp(previous);
+        }
+        if (unit == null) {
+            return;
+        }
+        if (!footprints.containsKey(unit) || !footprints.get(unit).matches(unit)) {
+            if (isStampable(unit)) {
+                stamp(unit);
+            } else if (footprints.containsKey(unit)) {
+                unstamp(unit);
+            }
+        }
+        if (unit.getFaction().equals(viewer)) {
+            for (Warrior sighted : stage.enemiesWithin(posX, posY, unit.getVisionRadius(), viewer)) {
+                if (!footprints.containsKey(sighted) && isStampable(sighted)) {
+                    stamp(sighted);
+                }
+            }
+        }
+    }
+
+    // EFFECTS: returns true if warrior, which has a position, is counted by this map: it is not in the viewer
+    //          and the viewer can see it, or there is no viewer
+    private boolean isStampable(Warrior warrior) {
+        if (viewer == null) {
+            return true;
+        }
+        Position pos = warrior.getPosition();
+        return !viewer.equals(warrior.getFaction()) && visibility.isVisible(viewer, pos.getPosX(), pos.getPosY());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds warrior's diamond to the count and strength grids of its faction, taking back the
+    //          diamond it stamped before if there is one
+    private void stamp(Warrior warrior) {
+        if (footprints.containsKey(warrior)) {
+            unstamp(warrior);
+        }
+        Footprint footprint = footprintOf(warrior);
+        footprints.put(warrior, footprint);
+        stamped.put(footprint.posY * width + footprint.posX, warrior);
+        units.add(footprint.faction, footprint.posX, footprint.posY, 1);
+        addCounts(footprint, 1);
+        if (!staleStrengths.contains(footprint.faction)) {
+            raiseStrengths(footprint);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes warrior's diamond from the count grid of the faction it was stamped for and marks the
+    //          strengths of that faction to be raised again before they are next read
+    private void unstamp(Warrior warrior) {
+        Footprint footprint = footprints.remove(warrior);
+        int index = footprint.posY * width + footprint.posX;
+        if (stamped.get(index) == warrior) {
+            stamped.remove(index);
+        }
+        units.add(footprint.faction, footprint.posX, footprint.posY, -1);
+        addCounts(footprint, -1);
+        staleStrengths.add(footprint.faction);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: clears the strength grid of every faction marked stale and raises it again from the diamonds
+    //          of the units of that faction
+    private void refreshStrengths() {
+        if (staleStrengths.isEmpty()) {
+            return;
+        }
+        for (String faction : staleStrengths) {
+            Arrays.fill(strengths.get(faction), 0);
+        }
+        for (Footprint footprint : footprints.values()) {
+            if (staleStrengths.contains(footprint.faction)) {
+                raiseStrengths(footprint);
+            }
+        }
+        staleStrengths.clear();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the footprint of warrior, creating the grids of its faction if they do not exist yet
+    private Footprint footprintOf(Warrior warrior) {
+        return new Footprint(warrior, counts.computeIfAbsent(warrior.getFaction(), f -> new int[width * length]),
+                strengths.computeIfAbsent(warrior.getFaction(), f -> new int[width * length]));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds amount to the threat count of every cell in footprint's diamond
+    private void addCounts(Footprint footprint, int amount) {
+        for (int y = footprint.posY - footprint.radius; y <= footprint.posY + footprint.radius; y++) {
+            addCountsInRow(footprint, y, amount);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: raises the strongest strength of every cell in footprint's diamond to its strength
+    private void raiseStrengths(Footprint footprint) {
+        for (int y = footprint.posY - footprint.radius; y <= footprint.posY + footprint.radius; y++) {
+            raiseStrengthsInRow(footprint, y);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds amount to the threat count of the cells of footprint's diamond in row y
+    private void addCountsInRow(Footprint footprint, int y, int amount) {
+        int reach = footprint.radius - Math.abs(y - footprint.posY);
+        if (y >= 0 && y < length && reach >= 0) {
+            int row = y * width;
+            CellSweeps.add(footprint.counts, row + Math.max(footprint.posX - reach, 0),
+                    row + Math.min(footprint.posX + reach, width - 1) + 1, amount);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: raises the strongest strength of the cells of footprint's diamond in row y to its strength
+    private void raiseStrengthsInRow(Footprint footprint, int y) {
+        int reach = footprint.radius - Math.abs(y - footprint.posY);
+        if (y >= 0 && y < length && reach >= 0) {
+            int row = y * width;
+            CellSweeps.raise(footprint.strengths, row + Math.max(footprint.posX - reach, 0),
+                    row + Math.min(footprint.posX + reach, width - 1) + 1, footprint.strength);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package model;
+
+import model.exceptions.CheckedGameException;
+import model.exceptions.InvalidBattleException;
+import model.exceptions.UncheckedGameException;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Represents a round-robin tournament of headless battles between the computer playing every army
+// composition with every AI strategy. Every entrant meets every other entrant on every stage size twice
+// over, once taking the first turn from the left of the stage and once the second turn from the right,
+// and the games of each matchup are cut into tasks of GAMES_PER_TASK that a work-stealing pool spreads
+// over every core. Every task gets its own seed from the tournament's seed before any of them starts, so
+// a tournament with the same seed has the same outcome however the pool runs its tasks. The event log is
+// turned off for the whole tournament, and the armies are built from copies that claim no names, so no
+// task touches the game's shared state
+public class Tournament {
+
+    public static final String FIRST = "First";
+    public static final String SECOND = "Second";
+    public static final int GAMES_PER_TASK = 32;
+
+    private final List<ArmyComposition> armies;
+    private final List<AiStrategy> strategies;
+    private final List<Dimension> stageSizes;
+    private final int turnLimit;
+    private final ForkJoinPool pool;
+
+    // REQUIRES: armies, strategies and stageSizes are not empty, turnLimit >= 1
+    // EFFECTS: constructs a tournament of every army with every strategy on stages of every size, played for
+    //          at most turnLimit turns a game on pool; throws InvalidBattleException if two armies cannot
+    //          both be placed on a stage of some size without overlapping
+    public Tournament(List<ArmyComposition> armies, List<AiStrategy> strategies, List<Dimension> stageSizes,
+                      int turnLimit, ForkJoinPool pool) {
+        for (Dimension size : stageSizes) {
+            for (ArmyComposition army : armies) {
+                int columns = (army.size() + size.height - 1) / size.height;
+                if (2 * columns > size.width) {
+                    throw new InvalidBattleException();
+                }
+            }
+        }
+        this.armies = armies;
+        this.strategies = strategies;
+        this.stageSizes = stageSizes;
+        this.turnLimit = turnLimit;
+        this.pool = pool;
+    }
+
+    // REQUIRES: gamesPerMatchup >= 1
+    // EFFECTS: plays gamesPerMatchup games of every matchup from seed, with the event log turned off for
+    //          the threads playing them, and returns their outcomes
+    public TournamentReport run(int gamesPerMatchup, long seed) {
+        List<TournamentMatchup> matchups = new ArrayList<>();
+        List<Callable<SimulationReport>> tasks = new ArrayList<>();
+        List<TournamentMatchup> taskMatchups = new ArrayList<>();
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (Dimension size : stageSizes) {
+            for (int first = 0; first < entrantCount(); first++) {
+                for (int second = 0; second < entrantCount(); second++) {
+                    if (first != second) {
+                        TournamentMatchup matchup = new TournamentMatchup(entrantName(first),
+                                entrantName(second), size);
+                        matchups.add(matchup);
+                        for (int games = 0; games < gamesPerMatchup; games += GAMES_PER_TASK) {
+                            tasks.add(task(first, second, size, seeds.nextLong(),
+                                    Math.min(GAMES_PER_TASK, gamesPerMatchup - games)));
+                            taskMatchups.add(matchup);
+                        }
+                    }
+                }
+            }
+        }
+        try {
+            long start = System.nanoTime();
+            List<Future<SimulationReport>> results = pool.invokeAll(tasks);
+            for (int i = 0; i < results.size(); i++) {
+                taskMatchups.get(i).getReport().merge(results.get(i).get());
+            }
+            return new TournamentReport(matchups, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedGameException("Tournament interrupted");
+        } catch (ExecutionException e) {
+            throw new UncheckedGameException("Tournament game failed: " + e.getCause());
+        }
+    }
+
+    // EFFECTS: returns the number of entrants, one for each army with each strategy
+    public int entrantCount() {
+        return armies.size() * strategies.size();
+    }
+
+    // REQUIRES: 0 <= entrant < entrantCount()
+    // EFFECTS: returns the name of the army and strategy of entrant
+    public String entrantName(int entrant) {
+        return armies.get(entrant / strategies.size()).getName() + " (" + strategyOf(entrant) + ")";
+    }
+
+    // EFFECTS: returns the strategy of entrant
+    private AiStrategy strategyOf(int entrant) {
+        return strategies.get(entrant % strategies.size());
+    }
+
+    // EFFECTS: returns a task that plays games games between the entrants first and second on a stage of
+    //          size, seeded from seed
+    private Callable<SimulationReport> task(int first, int second, Dimension size, long seed, int games) {
+        return () -> new BattleSimulator(() -> setUp(first, second, size), turnLimit, seed).run(games);
+    }
+
+    // MODIFIES: EventLog
+    // EFFECTS: returns a new battle between the armies of the entrants first and second, placed on either
+    //          side of a new stage of size, each played by the strategy of its entrant
+    private Battle setUp(int first, int second, Dimension size) {
+        Stage stage = new Stage(size.height, size.width);
+        Army firstArmy = armies.get(first / strategies.size()).build(FIRST);
+        Army secondArmy = armies.get(second / strategies.size()).build(SECOND);
+        place(firstArmy, stage, true);
+        place(secondArmy, stage, false);
+        Battle battle = new Battle(stage, Arrays.asList(firstArmy, secondArmy));
+        battle.setStrategy(FIRST, strategyOf(first));
+        battle.setStrategy(SECOND, strategyOf(second));
+        return battle;
+    }
+
+    // MODIFIES: army, stage, EventLog
+    // EFFECTS: places the warriors of army down the columns of stage, from the leftmost column if left and the
+    //          rightmost column otherwise
+    private void place(Army army, Stage stage, boolean left) {
+        int length = stage.getFarthestBottom() + 1;
+        int index = 0;
+        for (Warrior warrior : army) {
+            int column = index / length;
+            try {
+                warrior.placeWarrior(stage, left ? column : stage.getFarthestRight() - column, index % length);
+            } catch (CheckedGameException e) {
+                throw new UncheckedGameException("Tournament army does not fit on its stage");
+            }
+            index++;
+        }
+    }
+}
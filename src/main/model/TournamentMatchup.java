@@ -0,0 +1,38 @@
+package model;
+
+import java.awt.*;
+
+// Represents the games of a tournament between two entrants on one stage size, where the first entrant's
+// army plays as Tournament.FIRST, takes the first turn and starts on the left of the stage
+public class TournamentMatchup {
+
+    private final String first;
+    private final String second;
+    private final Dimension stageSize;
+    private final SimulationReport report;
+
+    // EFFECTS: constructs a matchup of no games yet between the entrants named first and second on stages
+    //          of stageSize
+    public TournamentMatchup(String first, String second, Dimension stageSize) {
+        this.first = first;
+        this.second = second;
+        this.stageSize = stageSize;
+        report = new SimulationReport();
+    }
+
+    public String getFirst() {
+        return first;
+    }
+
+    public String getSecond() {
+        return second;
+    }
+
+    public Dimension getStageSize() {
+        return stageSize;
+    }
+
+    public SimulationReport getReport() {
+        return report;
+    }
+}
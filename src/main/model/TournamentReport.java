@@ -0,0 +1,50 @@
+package model;
+
+import java.util.Collections;
+import java.util.List;
+
+// Represents the outcome of every matchup of a tournament and how long the whole tournament took, both in
+// wall-clock time and in the CPU time its games took on every thread added together
+public class TournamentReport {
+
+    private final List<TournamentMatchup> matchups;
+    private final long elapsedNanos;
+
+    // EFFECTS: constructs the report of matchups that took elapsedNanos of wall-clock time altogether
+    public TournamentReport(List<TournamentMatchup> matchups, long elapsedNanos) {
+        this.matchups = matchups;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // EFFECTS: returns the number of games played in every matchup altogether
+    public int getGames() {
+        int games = 0;
+        for (TournamentMatchup matchup : matchups) {
+            games += matchup.getReport().getGames();
+        }
+        return games;
+    }
+
+    // EFFECTS: returns the CPU time the games of every matchup took altogether
+    public long getCpuNanos() {
+        long cpuNanos = 0;
+        for (TournamentMatchup matchup : matchups) {
+            cpuNanos += matchup.getReport().getCpuNanos();
+        }
+        return cpuNanos;
+    }
+
+    // EFFECTS: returns the number of games played per second of the wall-clock time the tournament took, or 0
+    //          if no time elapsed
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : getGames() * 1e9 / elapsedNanos;
+    }
+
+    public List<TournamentMatchup> getMatchups() {
+        return Collections.unmodifiableList(matchups);
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
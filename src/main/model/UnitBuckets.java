@@ -0,0 +1,102 @@
+package model;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import static java.lang.Math.abs;
+
+// Represents a uniform bucket index over the cells of a grid that have a unit on them. The grid is
+// divided into square buckets of BUCKET_SIZE x BUCKET_SIZE cells and every bucket keeps the indices
+// of its occupied cells, so a range query only visits the units in the buckets it overlaps
+final class UnitBuckets {
+
+    static final int BUCKET_SIZE = 16;
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final int width;
+    private final int bucketsX;
+    private final int bucketsY;
+    private final int[][] members;
+    private final int[] counts;
+
+    // REQUIRES: width > 0, length > 0
+    // EFFECTS: constructs an empty index over a width x length grid
+    UnitBuckets(int width, int length) {
+        this.width = width;
+        bucketsX = (width + BUCKET_SIZE - 1) / BUCKET_SIZE;
+        bucketsY = (length + BUCKET_SIZE - 1) / BUCKET_SIZE;
+        members = new int[bucketsX * bucketsY][];
+        counts = new int[bucketsX * bucketsY];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the occupied cell at index to the bucket containing it
+    void add(int index) {
+        int bucket = bucketOf(index);
+        int[] cells = members[bucket];
+        if (cells == null) {
+            cells = new int[INITIAL_CAPACITY];
+        } else if (counts[bucket] == cells.length) {
+            cells = Arrays.copyOf(cells, cells.length * 2);
+        }
+        members[bucket] = cells;
+        cells[counts[bucket]++] = index;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the cell at index from the bucket containing it, if it is there
+    void remove(int index) {
+        int bucket = bucketOf(index);
+        int[] cells = members[bucket];
+        for (int i = 0; i < counts[bucket]; i++) {
+            if (cells[i] == index) {
+                cells[i] = cells[--counts[bucket]];
+                return;
+            }
+        }
+    }
+
+    // EFFECTS: returns the estimated cost of a range query of radius around x,y, being the number of
+    //          buckets it overlaps plus the number of units in them
+    int queryCost(int x, int y, int radius) {
+        int cost = 0;
+        for (int by = firstBucket(y, radius); by <= lastBucket(y, radius, bucketsY); by++) {
+            for (int bx = firstBucket(x, radius); bx <= lastBucket(x, radius, bucketsX); bx++) {
+                cost += 1 + counts[by * bucketsX + bx];
+            }
+        }
+        return cost;
+    }
+
+    // EFFECTS: calls action with the index of every occupied cell within radius of x,y, in no particular order
+    void forEachWithin(int x, int y, int radius, IntConsumer action) {
+        for (int by = firstBucket(y, radius); by <= lastBucket(y, radius, bucketsY); by++) {
+            for (int bx = firstBucket(x, radius); bx <= lastBucket(x, radius, bucketsX); bx++) {
+                int bucket = by * bucketsX + bx;
+                int[] cells = members[bucket];
+                for (int i = 0; i < counts[bucket]; i++) {
+                    int index = cells[i];
+                    if (abs(index % width - x) + abs(index / width - y) <= radius) {
+                        action.accept(index);
+                    }
+                }
+            }
+        }
+    }
+
+    // EFFECTS: returns the bucket containing the cell at index
+    private int bucketOf(int index) {
+        return (index / width / BUCKET_SIZE) * bucketsX + (index % width) / BUCKET_SIZE;
+    }
+
+    // EFFECTS: returns the first bucket along one axis overlapped by radius around coordinate
+    private static int firstBucket(int coordinate, int radius) {
+        return Math.max(coordinate - radius, 0) / BUCKET_SIZE;
+    }
+
+    // EFFECTS: returns the last bucket along one axis overlapped by radius around coordinate
+    private static int lastBucket(int coordinate, int radius, int buckets) {
+        return Math.min((coordinate + radius) / BUCKET_SIZE, buckets - 1);
+    }
+}
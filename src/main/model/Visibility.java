@@ -0,0 +1,262 @@
+package model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Represents which positions of a stage every faction of a battle can see. Each unit sees the
+// positions within its vision radius that are not hidden behind impassable positions, found by
+// recursive shadowcasting over the eight octants around it. Every faction keeps how many of its units
+// see each position and a bitboard of the positions at least one of them sees, so when a unit moves,
+// dies, changes faction or its vision changes, only its own sight is taken back and cast again, and a
+// sight with no impassable position within its radius is the whole diamond around the unit without casting.
+// When a position becomes passable or impassable, the sights of the units that could see it are cast again
+public class Visibility implements CellListener {
+
+    // multipliers that turn the coordinates of the first octant into those of each of the eight octants
+    private static final int[][] OCTANTS = {
+            {1, 0, 0, -1, -1, 0, 0, 1},
+            {0, 1, -1, 0, 0, -1, 1, 0},
+            {0, 1, 1, 0, 0, -1, -1, 0},
+            {1, 0, 0, 1, -1, 0, 0, -1}
+    };
+
+    private final Stage stage;
+    private final int width;
+    private final int length;
+    private final Map<String, int[]> seenBy;
+    private final Map<String, Bitboard> visible;
+    private final Map<Warrior, Sight> sights;
+    private final Map<Integer, Warrior> placed;
+    private final Bitboard opaque;
+    private final int[] marks;
+    private int mark;
+    private int[] buffer;
+    private int buffered;
+
+    // Represents the positions a unit saw when its sight was last cast
+    private static final class Sight {
+        private final int posX;
+        private final int posY;
+        private final int radius;
+        private final String faction;
+        private int[] cells;
+
+        private Sight(Warrior warrior) {
+            posX = warrior.getPosition().getPosX();
+            posY = warrior.getPosition().getPosY();
+            radius = warrior.getVisionRadius();
+            faction = warrior.getFaction();
+        }
+
+        // EFFECTS: returns true if warrior, which has a position, would cast the same sight as this
+        private boolean matches(Warrior warrior) {
+            return posX == warrior.getPosition().getPosX() && posY == warrior.getPosition().getPosY()
+                    && radius == warrior.getVisionRadius() && faction.equals(warrior.getFaction());
+        }
+    }
+
+    // EFFECTS: constructs the visibility of every faction of competitors on stage, listening to the changes
+    //          of its positions
+    public Visibility(Stage stage, List<Army> competitors) {
+        this.stage = stage;
+        width = stage.getFarthestRight() + 1;
+        length = stage.getFarthestBottom() + 1;
+        seenBy = new HashMap<>();
+        visible = new HashMap<>();
+        sights = new HashMap<>();
+        placed = new HashMap<>();
+        opaque = new Bitboard(width, length);
+        marks = new int[width * length];
+        buffer = new int[64];
+        for (Position pos : stage) {
+            if (!pos.isPassable()) {
+                opaque.set(pos.getPosX(), pos.getPosY());
+            }
+        }
+        for (Army army : competitors) {
+            for (Warrior warrior : army) {
+                if (warrior.getIsAlive() && warrior.getPosition() != null) {
+                    see(warrior);
+                }
+            }
+        }
+        stage.addCellListener(this);
+    }
+
+    // EFFECTS: returns true if a unit of faction can see x,y
+    public boolean isVisible(String faction, int x, int y) {
+        Bitboard board = visible.get(faction);
+        return stage.checkValidPosition(x, y) && board != null && board.get(x, y);
+    }
+
+    // EFFECTS: returns the number of units of faction that can see x,y
+    public int countWatchers(String faction, int x, int y) {
+        int[] counts = seenBy.get(faction);
+        return stage.checkValidPosition(x, y) && counts != null ? counts[y * width + x] : 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes back the sight of the unit that was on x,y if it has left, casts the sight of the unit
+    //          now on x,y if it is new or its faction or vision has changed, and casts again the sights of the
+    //          units that could see x,y if it has become passable or impassable
+    @Override
+    public void cellChanged(int posX, int posY) {
+        Warrior unit = stage.unitAtOrNull(posX, posY);
+        Warrior previous = placed.get(posY * width + posX);
+        if (previous != null && previous != unit) {
+            unsee(previous);
+        }
+        if (unit != null && (!sights.containsKey(unit) || !sights.get(unit).matches(unit))) {
+            see(unit);
+        }
+        boolean blocks = !stage.positionOrNull(posX, posY).isPassable();
+        if (blocks != opaque.get(posX, posY)) {
+            if (blocks) {
+                opaque.set(posX, posY);
+            } else {
+                opaque.clear(posX, posY);
+            }
+            for (Warrior watcher : sights.keySet().toArray(new Warrior[0])) {
+                Sight sight = sights.get(watcher);
+                if (Math.abs(sight.posX - posX) + Math.abs(sight.posY - posY) <= sight.radius) {
+                    see(watcher);
+                }
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: casts warrior's sight and adds the positions it sees to the visibility of its faction, taking
+    //          back the sight it cast before if there is one
+    private void see(Warrior warrior) {
+        if (sights.containsKey(warrior)) {
+            unsee(warrior);
+        }
+        Sight sight = new Sight(warrior);
+        sight.cells = cast(sight.posX, sight.posY, Math.min(sight.radius, width + length));
+        sights.put(warrior, sight);
+        placed.put(sight.posY * width + sight.posX, warrior);
+        int[] counts = seenBy.computeIfAbsent(sight.faction, f -> new int[width * length]);
+        Bitboard board = visible.computeIfAbsent(sight.faction, f -> new Bitboard(width, length));
+        for (int cell : sight.cells) {
+            if (counts[cell]++ == 0) {
+                board.set(cell % width, cell / width);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes the positions warrior saw back from the visibility of the faction it was cast for
+    private void unsee(Warrior warrior) {
+        Sight sight = sights.remove(warrior);
+        int index = sight.posY * width + sight.posX;
+        if (placed.get(index) == warrior) {
+            placed.remove(index);
+        }
+        int[] counts = seenBy.get(sight.faction);
+        Bitboard board = visible.get(sight.faction);
+        for (int cell : sight.cells) {
+            if (--counts[cell] == 0) {
+                board.clear(cell % width, cell / width);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the indices of the positions on the stage within radius of x,y that can be seen from
+    //          x,y, each once
+    private int[] cast(int x, int y, int radius) {
+        mark++;
+        buffered = 0;
+        if (isOpen(x, y, radius)) {
+            for (int row = Math.max(y - radius, 0); row <= Math.min(y + radius, length - 1); row++) {
+                int half = radius - Math.abs(row - y);
+                for (int column = Math.max(x - half, 0); column <= Math.min(x + half, width - 1); column++) {
+                    light(column, row);
+                }
+            }
+            return Arrays.copyOf(buffer, buffered);
+        }
+        light(x, y);
+        for (int octant = 0; octant < 8; octant++) {
+            castOctant(x, y, 1, 1.0, 0.0, radius, OCTANTS[0][octant], OCTANTS[1][octant],
+                    OCTANTS[2][octant], OCTANTS[3][octant]);
+        }
+        return Arrays.copyOf(buffer, buffered);
+    }
+
+    // EFFECTS: returns true if there is no impassable position within radius of x,y, so every position on
+    //          the stage within radius of x,y can be seen from it without casting any shadows
+    private boolean isOpen(int x, int y, int radius) {
+        for (int row = Math.max(y - radius, 0); row <= Math.min(y + radius, length - 1); row++) {
+            int half = radius - Math.abs(row - y);
+            if (opaque.anyInRow(row, Math.max(x - half, 0), Math.min(x + half, width - 1), null)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: lights the positions of one octant around x,y from row on whose slopes lie between start and
+    //          end, and casts the light past every run of impassable positions on a row into the rows after it
+    //          between the slopes the run leaves open; xx, xy, yx and yy turn the octant into stage coordinates
+    @SuppressWarnings("methodlength")
+    private void castOctant(int x, int y, int row, double start, double end, int radius,
+                            int xx, int xy, int yx, int yy) {
+        if (start < end) {
+            return;
+        }
+        double nextStart = start;
+        double top = start;
+        for (int j = row; j <= radius; j++) {
+            boolean blocked = false;
+            for (int dx = -j, dy = -j; dx <= 0; dx++) {
+                double leftSlope = (dx - 0.5) / (dy + 0.5);
+                double rightSlope = (dx + 0.5) / (dy - 0.5);
+                if (top < rightSlope) {
+                    continue;
+                } else if (end > leftSlope) {
+                    break;
+                }
+                int cellX = x + dx * xx + dy * xy;
+                int cellY = y + dx * yx + dy * yy;
+                boolean onStage = cellX >= 0 && cellX < width && cellY >= 0 && cellY < length;
+                if (onStage && Math.abs(dx) + Math.abs(dy) <= radius) {
+                    light(cellX, cellY);
+                }
+                boolean blocks = !onStage || opaque.get(cellX, cellY);
+                if (blocked) {
+                    if (blocks) {
+                        nextStart = rightSlope;
+                    } else {
+                        blocked = false;
+                        top = nextStart;
+                    }
+                } else if (blocks && j < radius) {
+                    blocked = true;
+                    castOctant(x, y, j + 1, top, leftSlope, radius, xx, xy, yx, yy);
+                    nextStart = rightSlope;
+                }
+            }
+            if (blocked) {
+                return;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the position at x,y to the positions seen by the current cast if it is not there already
+    private void light(int x, int y) {
+        int cell = y * width + x;
+        if (marks[cell] != mark) {
+            marks[cell] = mark;
+            if (buffered == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            buffer[buffered++] = cell;
+        }
+    }
+}
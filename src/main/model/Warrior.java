@@ -8,8 +8,10 @@ import ui.ImagePath;
 
 import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Random;
+import java.util.List;
+import java.util.SplittableRandom;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import static java.lang.Math.abs;
 
@@ -18,7 +20,9 @@ import static java.lang.Math.abs;
 public class Warrior implements Savable {
 
     public static final int SPEED_BONUS = 5;
-    private static final int LUCK_BUFFER = 30;
+    public static final int VISION_BONUS = 2;
+    static final int LUCK_BUFFER = 30;
+    private static final int APPROACH_CANDIDATES = 3;
 
     private static Set<String> WARRIOR_NAMES = new HashSet<>();
     private static Set<String> OLD_WARRIOR_NAMES = new HashSet<>();
@@ -64,6 +68,26 @@ public class Warrior implements Savable {
         faction = "None";
     }
 
+    // EFFECTS: initializes a warrior with the name, current hp and stats of template that has no position
+    //          or faction, without claiming its name, for battles played away from the game such as
+    //          simulations on other threads
+    Warrior(Warrior template) {
+        name = template.name;
+        hp = template.hp;
+        strength = template.strength;
+        speed = template.speed;
+        defense = template.defense;
+        luck = template.luck;
+        movement = template.movement;
+        range = template.range;
+        imageSource = template.imageSource;
+        isAlive = true;
+        canMove = false;
+        canAttack = false;
+        position = null;
+        faction = "None";
+    }
+
     // MODIFIES: this
     // EFFECTS: stores the old set of names into old_names and sets the collection of used names
     //          to an empty set
@@ -78,28 +102,11 @@ public class Warrior implements Savable {
         WARRIOR_NAMES = OLD_WARRIOR_NAMES;
     }
 
-    // EFFECTS: returns a list of all the opponents warriors within range in any order
+    // EFFECTS: returns a list of all the opponents warriors within range, nearest first
     //          if this warrior does not have a position, throws a NoPositionException
     public ArrayList<Warrior> checkValidOpponents(Stage stage) {
         checkHasPosition();
-        ArrayList<Warrior> opponents = new ArrayList<>();
-        for (int x = getRealRange(); x >= -getRealRange(); x--) {
-            for (int y = getRealRange(); y >= -getRealRange(); y--) {
-                int newPosX = x + position.getPosX();
-                int newPosY = y + position.getPosY();
-                if ((abs(x) + abs(y)) <= getRealRange()) {
-                    try {
-                        Warrior unit = stage.getPosition(newPosX, newPosY).getUnit();
-                        if ((unit != null) && (!unit.getFaction().equals(faction))) {
-                            opponents.add(unit);
-                        }
-                    } catch (InvalidPositionException e) {
-                        // keep looking for valid opponents
-                    }
-                }
-            }
-        }
-        return opponents;
+        return stage.enemiesWithin(position.getPosX(), position.getPosY(), getRealRange(), faction);
     }
 
     // MODIFIES: this, opponent, EventLog
@@ -112,22 +119,29 @@ public class Warrior implements Savable {
     //          the EventLog.
     //          throws NoPositionException if this warrior or opponent don't have a position
     public void battle(Warrior opponent) {
+        battle(opponent, new SplittableRandom());
+    }
+
+    // MODIFIES: this, opponent, random, EventLog
+    // EFFECTS: starts a battle with the opponent as above, drawing every critical hit from random
+    //          throws NoPositionException if this warrior or opponent don't have a position
+    public void battle(Warrior opponent, SplittableRandom random) {
         checkHasPosition();
         opponent.checkHasPosition();
-        EventLog.getInstance().logEvent(new GameEvent(this + " is battling " + opponent));
-        if (getRealSpeed(true) >= opponent.getRealSpeed(false)) {
-            EventLog.getInstance().logEvent(new GameEvent(this + " is attacking " + opponent + " first!"));
-            attack(opponent);
-            opponentCounterAttack(opponent);
+        EventLog.getInstance().logEvent(() -> this + " is battling " + opponent);
+        if (strikesFirst(opponent)) {
+            EventLog.getInstance().logEvent(() -> this + " is attacking " + opponent + " first!");
+            attack(opponent, random);
+            opponentCounterAttack(opponent, random);
         } else {
-            if (position.getDistance(opponent.getPosition()) <= opponent.getRealRange()) {
-                EventLog.getInstance().logEvent(new GameEvent(opponent + " is faster than "
-                        + this + " and is attacking first!"));
-                opponent.attack(this);
+            if (opponent.canStrikeBack(this)) {
+                EventLog.getInstance().logEvent(() -> opponent + " is faster than "
+                        + this + " and is attacking first!");
+                opponent.attack(this, random);
             }
             if (isAlive) {
-                EventLog.getInstance().logEvent(new GameEvent(this + " is counterattacking " + opponent));
-                attack(opponent);
+                EventLog.getInstance().logEvent(() -> this + " is counterattacking " + opponent);
+                attack(opponent, random);
             }
         }
         canMove = false;
@@ -137,18 +151,30 @@ public class Warrior implements Savable {
     // MODIFIES: this, opponent, EventLog
     // EFFECTS: begins the counterattack stage for the opponent and updates the EventLog
     //          with the outcomes of the counterattack
-    private void opponentCounterAttack(Warrior opponent) {
+    private void opponentCounterAttack(Warrior opponent, SplittableRandom random) {
         if (opponent.getIsAlive()) {
-            if (position.getDistance(opponent.getPosition()) <= opponent.getRealRange()) {
-                EventLog.getInstance().logEvent(new GameEvent(opponent + " is counterattacking " + this));
-                opponent.attack(this);
+            if (opponent.canStrikeBack(this)) {
+                EventLog.getInstance().logEvent(() -> opponent + " is counterattacking " + this);
+                opponent.attack(this, random);
             } else {
-                EventLog.getInstance().logEvent(new GameEvent(opponent
-                        + " is too far away for them to counterattack"));
+                EventLog.getInstance().logEvent(() -> opponent
+                        + " is too far away for them to counterattack");
             }
         }
     }
 
+    // REQUIRES: this warrior and opponent have positions
+    // EFFECTS: returns true if this warrior strikes first when it starts a battle with opponent
+    public boolean strikesFirst(Warrior opponent) {
+        return getRealSpeed(true) >= opponent.getRealSpeed(false);
+    }
+
+    // REQUIRES: this warrior and attacker have positions
+    // EFFECTS: returns true if this warrior is close enough to strike back when attacker starts a battle with it
+    public boolean canStrikeBack(Warrior attacker) {
+        return position.getDistance(attacker.getPosition()) <= getRealRange();
+    }
+
     // REQUIRES: opponent must be alive
     // MODIFIES: opponent, EventLog
     // EFFECTS: if strength - opponent's defense > 0, then returns true and opponent loses
@@ -156,27 +182,41 @@ public class Warrior implements Savable {
     //          else, returns false and updates the EventLog with a GameEvent stating the attack
     //                  was ineffective
     public boolean attack(Warrior opponent) {
-        int dmg = getRealStrength()  + getCriticalHit() - opponent.getRealDefense();
+        return attack(opponent, new SplittableRandom());
+    }
+
+    // REQUIRES: opponent must be alive
+    // MODIFIES: opponent, random, EventLog
+    // EFFECTS: attacks opponent as above, drawing the critical hit from random
+    public boolean attack(Warrior opponent, SplittableRandom random) {
+        int dmg = blowDamage(getRealStrength(), getRealLuck(), opponent.getRealDefense(), random);
         if (dmg > 0) {
-            EventLog.getInstance().logEvent(new GameEvent(this + " dealt "
-                    + dmg + " damage to " + opponent));
+            EventLog.getInstance().logEvent(() -> this + " dealt "
+                    + dmg + " damage to " + opponent);
             opponent.reduceHP(dmg);
             return true;
         } else {
             String plural = name + (name.endsWith("s") ? "'" : "'s");
-            EventLog.getInstance().logEvent(new GameEvent(plural + " attack was ineffective!"));
+            EventLog.getInstance().logEvent(() -> plural + " attack was ineffective!");
             return false;
         }
     }
 
-    // EFFECTS: if a randomly generated integer between 0 and luck + luck buffer is less than the warrior's
-    //          luck, then returns the inverse of a randomly generated double between 0 and 1 rounded
-    //          down to the nearest integer.
+    // MODIFIES: random
+    // EFFECTS: returns strength plus a critical hit drawn from random for luck minus defense, which is the
+    //          damage a blow deals if it is positive
+    static int blowDamage(int strength, int luck, int defense, SplittableRandom random) {
+        return strength + getCriticalHit(luck, random) - defense;
+    }
+
+    // MODIFIES: random
+    // EFFECTS: if an integer drawn from random between 0 and luck + luck buffer is less than luck, then
+    //          returns the inverse of a double drawn from random between 0 and 1 rounded down to the
+    //          nearest integer.
     //          else returns 0
-    private int getCriticalHit() {
-        Random rand = new Random();
-        if (rand.nextInt(getRealLuck() + LUCK_BUFFER) < getRealLuck()) {
-            return (int) (1.0 / (1.0 - rand.nextDouble()));
+    private static int getCriticalHit(int luck, SplittableRandom random) {
+        if (random.nextInt(luck + LUCK_BUFFER) < luck) {
+            return (int) (1.0 / (1.0 - random.nextDouble()));
         }
         return 0;
     }
@@ -193,7 +233,7 @@ public class Warrior implements Savable {
             canMove = false;
             canAttack = false;
             removePosition();
-            EventLog.getInstance().logEvent(new GameEvent(this + " has perished!"));
+            EventLog.getInstance().logEvent(() -> this + " has perished!");
         }
     }
 
@@ -205,6 +245,8 @@ public class Warrior implements Savable {
     //          if x and y combined is larger than movement, throws a TooFarException
     //          if the new position is not on the map, throws an InvalidPositionException
     //          if the new position already has a warrior on it, throws an OccupiedException
+    //          if every walk to the new position around impassable positions and enemies costs more
+    //                  than movement, throws a TooFarException
     //          else, updates the position of this warrior and  updates the original position
     //                  of this warrior on the map to have no unit and the new position of the
     //                  warrior to have this warrior as its unit. Updates the EventLog accordingly
@@ -218,15 +260,25 @@ public class Warrior implements Savable {
             throw new TooFarException();
         } else if (!stage.checkValidPosition(newPosX, newPosY)) {
             throw new InvalidPositionException();
-        } else if (stage.getPosition(newPosX, newPosY).getUnit() != null) {
+        } else if (stage.unitAtOrNull(newPosX, newPosY) != null) {
             throw new OccupiedException();
+        } else if (stage.reachability().moveCost(this, getRealMovement(), newPosX, newPosY) < 0) {
+            throw new TooFarException();
         } else {
-            setPosition(stage.getPosition(newPosX, newPosY));
-            canMove = false;
-            EventLog.getInstance().logEvent(new GameEvent(this + " moved to " + position));
+            relocate(stage.positionOrNull(newPosX, newPosY));
         }
     }
 
+    // REQUIRES: newPosition is an unoccupied position of the stage this warrior is on
+    // MODIFIES: this, stage, EventLog
+    // EFFECTS: moves this warrior to newPosition, prevents it from moving again this turn and
+    //          updates the EventLog accordingly
+    private void relocate(Position newPosition) {
+        setPosition(newPosition);
+        canMove = false;
+        EventLog.getInstance().logEvent(() -> this + " moved to " + position);
+    }
+
     // MODIFIES: this, stage, EventLog
     // EFFECTS: places warrior in (x,y) position on the map
     //          if the position isn't on the stage, throws an InvalidPositionException
@@ -239,14 +291,14 @@ public class Warrior implements Savable {
         } else if (!stage.getPosition(x,y).placeUnit(this)) {
             throw new OccupiedException();
         } else {
-            EventLog.getInstance().logEvent(new GameEvent(name + " was placed at " + position.toString()));
+            EventLog.getInstance().logEvent(() -> name + " was placed at " + position.toString());
         }
     }
 
     // MODIFIES: this, p
     // EFFECTS: sets this position to p and the positions unit to this if position != p
     public void setPosition(Position p) {
-        if (position != p) {
+        if (!p.equals(position)) {
             if (position != null) {
                 position.removeUnit();
             }
@@ -266,7 +318,8 @@ public class Warrior implements Savable {
     }
 
     // MODIFIES: this, stage
-    // EFFECTS: moves warrior within its attack range of the first unit it is close enough to.
+    // EFFECTS: moves warrior within its attack range of the nearest unit it can reach within its
+    //          movement without walking through an enemy or an impassable position.
     //          if it finds someone, returns true and updates the map accordingly and this units
     //          position accordingly
     //          otherwise, returns false and unit doesn't move
@@ -276,44 +329,202 @@ public class Warrior implements Savable {
         if (!canMove) {
             return false;
         }
-        for (int x = (getRealMovement() + getRealRange()); x >= -(getRealMovement() + getRealRange()); x--) {
-            for (int y = (getRealMovement() + getRealRange()); y >= -(getRealMovement() + getRealRange()); y--) {
-                int newPosX = x + position.getPosX();
-                int newPosY = y + position.getPosY();
-                if ((abs(x) + abs(y)) <= (getRealRange() + getRealMovement())) {
-                    try {
-                        Warrior enemy = stage.getPosition(newPosX, newPosY).getUnit();
-                        if ((enemy != null) && (!enemy.getFaction().equals(faction))) {
-                            if (checkIfMovable(stage, enemy)) {
-                                return true;
-                            }
-                        }
-                    } catch (InvalidPositionException e) {
-                        // keep searching for a valid move
-                    }
-                }
+        return findMove(stage, stage.reachability().compute(this, getRealMovement(), getRealRange()));
+    }
+
+    // REQUIRES: reachable is the result of a reachability search for this warrior at its current position
+    //           with its real movement and range
+    // MODIFIES: this, stage
+    // EFFECTS: moves warrior within its attack range of the nearest unit in reachable's attackable enemies
+    //          it can get close enough to; returns true if it moved and false otherwise
+    boolean findMove(Stage stage, ReachableSet reachable) {
+        if (reachable.countAttackSpots() == 0) {
+            return false;
+        }
+        for (Warrior enemy : reachable.getAttackable()) {
+            if (checkIfMovable(stage, reachable, enemy)) {
+                return true;
             }
         }
         return false;
     }
 
+    // REQUIRES: reachable is the result of a reachability search for this warrior at its current position
+    //           with its real movement and range, field is built for its faction and real range, and threats
+    //           is null or a threat map of stage
     // MODIFIES: this, stage
-    // EFFECTS: returns true if the unit can successfully move in a space within its range
-    //          around the enemy and updates the map and warrior's position accordingly
-    //          returns false if it cannot
-    private boolean checkIfMovable(Stage stage, Warrior enemy) {
+    // EFFECTS: moves warrior to the position it can stop on that has the cheapest walk to an attack spot of
+    //          field, preferring the attack spots farthest from their enemy and then the positions with the
+    //          fewest enemies within its real movement and range, counting only the enemies threats has
+    //          stamped unless it is null, if that walk is cheaper than the one from where it stands; returns
+    //          true if it moved and false otherwise
+    boolean findMove(Stage stage, ReachableSet reachable, AttackField field, ThreatMap threats) {
+        int posX = position.getPosX();
+        int posY = position.getPosY();
+        int bestDistance = field.distanceAt(posX, posY);
+        if (bestDistance == AttackField.UNREACHED) {
+            bestDistance = Integer.MAX_VALUE;
+        }
+        int bestFarness = -1;
+        int bestCrowd = 0;
+        int crowdRadius = getRealMovement() + getRealRange();
+        Position best = null;
+        DiamondOffsets diamond = DiamondOffsets.of(getRealMovement());
+        for (int i = 1; i < diamond.size(); i++) {
+            int newPosX = posX + diamond.getX(i);
+            int newPosY = posY + diamond.getY(i);
+            int distance = field.distanceAt(newPosX, newPosY);
+            if (distance == AttackField.UNREACHED || distance > bestDistance
+                    || !reachable.canStand(newPosX, newPosY)) {
+                continue;
+            }
+            int farness = distance == 0 ? field.targetDistance(newPosX, newPosY) : 0;
+            if (distance == bestDistance && best != null && farness < bestFarness) {
+                continue;
+            }
+            int crowd = threats == null ? stage.countEnemiesWithin(newPosX, newPosY, crowdRadius, faction)
+                    : threats.countEnemiesWithin(faction, newPosX, newPosY, crowdRadius);
+            if (distance < bestDistance || (best != null && (farness > bestFarness || crowd < bestCrowd))) {
+                best = stage.positionOrNull(newPosX, newPosY);
+                bestDistance = distance;
+                bestFarness = farness;
+                bestCrowd = crowd;
+            }
+        }
+        if (best == null) {
+            return false;
+        }
+        relocate(best);
+        return true;
+    }
+
+    // REQUIRES: field is built for this warrior's faction and real range
+    // MODIFIES: this, stage
+    // EFFECTS: follows the directions of field from this warrior's position for as long as its real movement
+    //          lasts and moves, through move, to the last position on the way it can stop on; returns true
+    //          if it moved and false if it is already on an attack spot, there is no position on the way
+    //          it can stop on or the move is refused
+    boolean followFlow(Stage stage, AttackField field) {
+        int posX = position.getPosX();
+        int posY = position.getPosY();
+        int movement = getRealMovement();
+        int x = posX;
+        int y = posY;
+        int spent = 0;
+        Position stop = null;
+        for (int step = field.directionAt(x, y); step != AttackField.NONE; step = field.directionAt(x, y)) {
+            x += AttackField.STEP_X[step];
+            y += AttackField.STEP_Y[step];
+            Position next = stage.positionOrNull(x, y);
+            spent += next.getMoveCost();
+            if (spent > movement) {
+                break;
+            } else if (next.getUnit() == null) {
+                stop = next;
+            }
+        }
+        if (stop == null) {
+            return false;
+        }
+        try {
+            move(stage, stop.getPosX() - posX, stop.getPosY() - posY);
+            return true;
+        } catch (CheckedGameException e) {
+            return false;
+        }
+    }
+
+    // MODIFIES: this, stage
+    // EFFECTS: moves warrior as far as it can this turn along the cheapest route to the nearest enemy it
+    //          has a route to, trying the few nearest enemies; returns true if it moved and false otherwise
+    //          if this warrior doesn't have a position, throws a NoPositionException
+    public boolean approach(Stage stage) {
         checkHasPosition();
-        for (int x2 = getRealRange(); x2 >= -getRealRange(); x2--) {
-            for (int y2 = getRealRange(); y2 >= -getRealRange(); y2--) {
-                int newPosX2 = x2 + enemy.getPosition().getPosX();
-                int newPosY2 = y2 + enemy.getPosition().getPosY();
-                if ((abs(x2) + abs(y2) <= getRealRange())) {
-                    try {
-                        move(stage, (newPosX2 - position.getPosX()), (newPosY2 - position.getPosY()));
-                        return true;
-                    } catch (CheckedGameException e) {
-                        // keep searching
-                    }
+        if (!canMove) {
+            return false;
+        }
+        return approach(stage, stage.reachability().compute(this, getRealMovement(), getRealRange()), e -> true);
+    }
+
+    // REQUIRES: reachable is the result of a reachability search for this warrior at its current position
+    //           with its real movement and range
+    // MODIFIES: this, stage
+    // EFFECTS: moves warrior as far as it can within reachable along the cheapest route to the nearest enemy
+    //          that passes known it has a route to; returns true if it moved and false otherwise
+    boolean approach(Stage stage, ReachableSet reachable, Predicate<Warrior> known) {
+        int posX = position.getPosX();
+        int posY = position.getPosY();
+        List<Warrior> enemies = stage.enemiesWithin(posX, posY,
+                stage.getFarthestRight() + stage.getFarthestBottom(), faction);
+        enemies.removeIf(known.negate());
+        for (int i = 0; i < Math.min(enemies.size(), APPROACH_CANDIDATES); i++) {
+            Position target = enemies.get(i).getPosition();
+            List<Position> route = stage.route(posX, posY, target.getPosX(), target.getPosY());
+            if (route != null && moveAlong(stage, reachable, route)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // REQUIRES: reachable is the result of a reachability search for this warrior at its current position
+    //           with its real movement and range
+    // MODIFIES: this, stage
+    // EFFECTS: moves warrior to the position it can stop on that is nearest to goalX, goalY, if that is
+    //          nearer than where it stands; returns true if it moved and false otherwise
+    boolean advance(Stage stage, ReachableSet reachable, int goalX, int goalY) {
+        Position best = null;
+        int bestDistance = abs(position.getPosX() - goalX) + abs(position.getPosY() - goalY);
+        DiamondOffsets diamond = DiamondOffsets.of(getRealMovement());
+        for (int i = 1; i < diamond.size(); i++) {
+            int newPosX = position.getPosX() + diamond.getX(i);
+            int newPosY = position.getPosY() + diamond.getY(i);
+            int distance = abs(newPosX - goalX) + abs(newPosY - goalY);
+            if (distance < bestDistance && reachable.canStand(newPosX, newPosY)) {
+                best = stage.positionOrNull(newPosX, newPosY);
+                bestDistance = distance;
+            }
+        }
+        if (best == null) {
+            return false;
+        }
+        relocate(best);
+        return true;
+    }
+
+    // REQUIRES: route starts at this warrior's position
+    // MODIFIES: this, stage
+    // EFFECTS: moves to the farthest crossing of route this warrior can stop on, or else to the position
+    //          it can stop on that is nearest to the first stop of the route after its own position, if that
+    //          is nearer than where it stands; returns true if it moved and false otherwise
+    private boolean moveAlong(Stage stage, ReachableSet reachable, List<Position> route) {
+        for (int i = route.size() - 2; i > 0; i--) {
+            Position crossing = route.get(i);
+            if (reachable.canStand(crossing.getPosX(), crossing.getPosY())
+                    && !reachable.isOrigin(crossing.getPosX(), crossing.getPosY())) {
+                relocate(crossing);
+                return true;
+            }
+        }
+        return advance(stage, reachable, route.get(1).getPosX(), route.get(1).getPosY());
+    }
+
+    // MODIFIES: this, stage
+    // EFFECTS: returns true if the unit can successfully move to a space other than its own within its
+    //          range around the enemy and updates the map and warrior's position accordingly,
+    //          preferring the spaces farthest from the enemy
+    //          returns false if it cannot
+    private boolean checkIfMovable(Stage stage, ReachableSet reachable, Warrior enemy) {
+        DiamondOffsets diamond = DiamondOffsets.of(getRealRange());
+        int enemyX = enemy.getPosition().getPosX();
+        int enemyY = enemy.getPosition().getPosY();
+        for (int d = diamond.getRadius(); d > 0; d--) {
+            for (int i = diamond.ringStart(d); i < diamond.ringEnd(d); i++) {
+                int newPosX = enemyX + diamond.getX(i);
+                int newPosY = enemyY + diamond.getY(i);
+                if (reachable.canAttackFrom(newPosX, newPosY)) {
+                    relocate(stage.positionOrNull(newPosX, newPosY));
+                    return true;
                 }
             }
         }
@@ -446,6 +657,12 @@ public class Warrior implements Savable {
         }
     }
 
+    // EFFECTS: returns how far this unit can see, which is their real movement plus their real range
+    //          plus VISION_BONUS
+    public int getVisionRadius() {
+        return getRealMovement() + getRealRange() + VISION_BONUS;
+    }
+
     public String getFaction() {
         return faction;
     }
@@ -470,8 +687,14 @@ public class Warrior implements Savable {
         return imageSource;
     }
 
+    // MODIFIES: this, position
+    // EFFECTS: sets the faction of this warrior and updates the stage it is on accordingly
     public void setFaction(String faction) {
+        String oldFaction = this.faction;
         this.faction = faction;
+        if (position != null) {
+            position.refreshFaction(oldFaction);
+        }
     }
 
     public void setCanMove(boolean b) {
@@ -0,0 +1,76 @@
+package persistance;
+
+import model.SimulationReport;
+import model.Tournament;
+import model.TournamentMatchup;
+import model.TournamentReport;
+
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+import java.util.Locale;
+
+// Represents a writer that stores the outcome of a tournament to a CSV file, one row per matchup with the
+// win rates of both entrants and the average turns, each with the ends of its 95% confidence interval
+public class CsvWriter {
+
+    public static final String HEADER = "first,second,stage width,stage length,games,first wins,second wins,"
+            + "draws,first win rate,first win rate low,first win rate high,second win rate,second win rate low,"
+            + "second win rate high,average turns,average turns low,average turns high";
+
+    private final String source;
+    private PrintWriter writer;
+
+    // EFFECTS: creates a CSV writer to save to the source file
+    public CsvWriter(String source) {
+        this.source = source;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the CSV writer and throws FileNotFoundException if the file cannot be opened
+    public void open() throws FileNotFoundException {
+        writer = new PrintWriter(source);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the CSV writer
+    public void close() {
+        writer.close();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the header and a row for every matchup of report to the source file
+    public void write(TournamentReport report) {
+        writer.println(HEADER);
+        for (TournamentMatchup matchup : report.getMatchups()) {
+            writer.println(toRow(matchup));
+        }
+    }
+
+    // EFFECTS: returns the CSV row of matchup
+    private String toRow(TournamentMatchup matchup) {
+        SimulationReport games = matchup.getReport();
+        return String.join(",", quote(matchup.getFirst()), quote(matchup.getSecond()),
+                String.valueOf(matchup.getStageSize().width), String.valueOf(matchup.getStageSize().height),
+                String.valueOf(games.getGames()), String.valueOf(games.getWins(Tournament.FIRST)),
+                String.valueOf(games.getWins(Tournament.SECOND)), String.valueOf(games.getDraws()),
+                format(games.getWinRate(Tournament.FIRST)), format(games.getWinRateLow(Tournament.FIRST)),
+                format(games.getWinRateHigh(Tournament.FIRST)), format(games.getWinRate(Tournament.SECOND)),
+                format(games.getWinRateLow(Tournament.SECOND)), format(games.getWinRateHigh(Tournament.SECOND)),
+                format(games.getAverageTurns()), format(games.getAverageTurnsLow()),
+                format(games.getAverageTurnsHigh()));
+    }
+
+    // EFFECTS: returns value with four decimal places
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.4f", value);
+    }
+
+    // EFFECTS: returns text as a CSV field, in quotes with its quotes doubled if it has a comma, quote or line
+    //          break in it
+    private static String quote(String text) {
+        if (text.contains(",") || text.contains("\"") || text.contains("\n")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
@@ -2,6 +2,7 @@ package persistance;
 
 import model.*;
 import model.exceptions.CheckedGameException;
+import model.exceptions.InvalidPositionException;
 import model.exceptions.SaveException;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -28,6 +29,13 @@ public class JsonReader {
     public static final String LENGTH = "length";
     public static final String WIDTH = "width";
     public static final String POSITIONS = "positions";
+    public static final String RUNS = "runs";
+    public static final String COUNT = "count";
+    public static final String REGIONS = "regions";
+    public static final String LEFT = "left";
+    public static final String TOP = "top";
+    public static final String RIGHT = "right";
+    public static final String BOTTOM = "bottom";
 
     public static final String FACTION_NAME = "name";
     public static final String WARRIORS = "warriors";
@@ -40,6 +48,7 @@ public class JsonReader {
     public static final String LUCK = "luck";
     public static final String MOVEMENT = "movement";
     public static final String RANGE = "range";
+    public static final String MOVE_COST = "move cost";
     public static final String IMAGE = "image";
     public static final String ALIVE = "alive?";
     public static final String MOVE = "can move?";
@@ -82,7 +91,7 @@ public class JsonReader {
     //          in a Map. If the stage and armies are impossible to create, throws a GameException
     private Battle parseData(JSONObject json) throws SaveException {
         JSONObject jsonStage = json.getJSONObject(STAGE);
-        Stage stage = parseStage(jsonStage.getInt(LENGTH), jsonStage.getInt(WIDTH), jsonStage.getJSONArray(POSITIONS));
+        Stage stage = parseStage(jsonStage);
         List<Army> competitors = parseArmies(json.getJSONArray(COMPETITORS), stage);
         int turn = json.getInt(TURN);
         int subTurn = json.getInt(SUB_TURN);
@@ -92,20 +101,82 @@ public class JsonReader {
         return battle;
     }
 
-    private Stage parseStage(int length, int width, JSONArray positions) throws SaveException {
-        Stage stage = new Stage(length, width);
+    // EFFECTS: parses the json object to create a stage with the modifiers of its positions, saved either as
+    //          one object per position or as runs of positions, and its stat regions, and returns it. If the
+    //          positions do not fit the stage or a stat region is not inside it, throws a SaveException
+    private Stage parseStage(JSONObject json) throws SaveException {
+        Stage stage = new Stage(json.getInt(LENGTH), json.getInt(WIDTH));
+        if (json.has(POSITIONS)) {
+            parsePositions(json.getJSONArray(POSITIONS), stage);
+        } else {
+            for (Object run : json.getJSONArray(RUNS)) {
+                parseRun((JSONObject) run, stage);
+            }
+        }
+        JSONArray regions = json.optJSONArray(REGIONS);
+        if (regions != null) {
+            List<StatRegion> parsed = new ArrayList<>();
+            for (Object region : regions) {
+                parsed.add(parseStatRegion((JSONObject) region));
+            }
+            try {
+                stage.addStatRegions(parsed);
+            } catch (InvalidPositionException e) {
+                throw new SaveException();
+            }
+        }
+        return stage;
+    }
+
+    // MODIFIES: stage
+    // EFFECTS: sets the modifiers of every position of stage to those saved for it in positions, in the
+    //          order of the stage iterator; throws a SaveException if there is not one for every position
+    private void parsePositions(JSONArray positions, Stage stage) throws SaveException {
         Iterator<Position> stageIterator = stage.iterator();
         Iterator<Object> positionsIterator = positions.iterator();
         while (stageIterator.hasNext() && positionsIterator.hasNext()) {
-            Position pos = stageIterator.next();
-            JSONObject modifiers = (JSONObject) positionsIterator.next();
-            pos.setModifiers(modifiers.getInt(STRENGTH), modifiers.getInt(SPEED), modifiers.getInt(DEFENSE),
-                    modifiers.getInt(LUCK), modifiers.getInt(MOVEMENT), modifiers.getInt(RANGE));
+            setModifiers(stageIterator.next(), (JSONObject) positionsIterator.next());
         }
         if (stageIterator.hasNext() || positionsIterator.hasNext()) {
             throw new SaveException();
         }
-        return stage;
+    }
+
+    // MODIFIES: stage
+    // EFFECTS: sets the modifiers of the positions of the saved run to its values; throws a SaveException if
+    //          the run is empty or does not fit on one row of stage
+    private void parseRun(JSONObject run, Stage stage) throws SaveException {
+        int posX = run.getInt(X);
+        int posY = run.getInt(Y);
+        int count = run.getInt(COUNT);
+        if (count <= 0 || !stage.checkValidPosition(posX, posY)
+                || !stage.checkValidPosition(posX + count - 1, posY)) {
+            throw new SaveException();
+        }
+        for (int i = 0; i < count; i++) {
+            setModifiers(stage.positionOrNull(posX + i, posY), run);
+        }
+    }
+
+    // MODIFIES: pos
+    // EFFECTS: sets the modifiers and movement cost of pos to the saved ones, where a missing modifier is 0
+    //          and a missing movement cost is 1; throws a SaveException if the movement cost is neither
+    //          impassable nor from 1 to Position.MAX_MOVE_COST
+    private void setModifiers(Position pos, JSONObject modifiers) throws SaveException {
+        int moveCost = modifiers.optInt(MOVE_COST, 1);
+        if (moveCost != Position.IMPASSABLE && (moveCost < 1 || moveCost > Position.MAX_MOVE_COST)) {
+            throw new SaveException();
+        }
+        pos.setModifiers(modifiers.optInt(STRENGTH), modifiers.optInt(SPEED), modifiers.optInt(DEFENSE),
+                modifiers.optInt(LUCK), modifiers.optInt(MOVEMENT), modifiers.optInt(RANGE));
+        pos.setMoveCost(moveCost);
+    }
+
+    // EFFECTS: converts the saved json object into a stat region
+    private StatRegion parseStatRegion(JSONObject json) {
+        return new StatRegion(json.getInt(LEFT), json.getInt(TOP), json.getInt(RIGHT),
+                json.getInt(BOTTOM), json.getInt(STRENGTH), json.getInt(SPEED), json.getInt(DEFENSE),
+                json.getInt(LUCK), json.getInt(MOVEMENT), json.getInt(RANGE));
     }
 
     private List<Army> parseArmies(JSONArray armies, Stage stage) throws SaveException {
@@ -30,6 +30,7 @@ public class BattlePanel extends DefaultPanel {
     private JButton end;
 
     private Map<Position, JButton> battleButtonMap;
+    private Set<Position> bloodStains;
     private Set<JButton> battleOptionButtons;
 
     private Timer timer;
@@ -59,6 +60,7 @@ public class BattlePanel extends DefaultPanel {
     private JPanel makeStageArea() {
         JPanel stageArea = new DefaultPanel();
         battleButtonMap = new HashMap<>();
+        bloodStains = new HashSet<>();
         stageArea.setLayout(new GridLayout(battle.getStageHeight(), battle.getStageWidth()));
         for (Position pos : battle) {
             JButton posButton = makeBattleButton(pos);
@@ -69,25 +71,36 @@ public class BattlePanel extends DefaultPanel {
 
     // MODIFIES: this
     // EFFECTS: creates a button associated with an x,y position of the stage, and adds a
-    //          relationship between this position and this new button to [button map name]
+    //          relationship between this position and this new button to the battleButtonMap
     private JButton makeBattleButton(Position pos) {
         JButton battleButton = UiFormatter.makeDefaultButton();
-        battleButton.setBorder(BorderFactory.createLineBorder(Color.BLACK));
-        if (pos.getUnit() != null) {
-            battleButton.setText(pos.getUnit().getName());
-            battleButton.setIcon(GUI.getInstance().getWarriorIcon(pos.getUnit()));
-            battleButton.setDisabledIcon(battleButton.getIcon());
-            if (pos.getUnit().getFaction().equals(playerArmy)) {
-                battleButton.setBorder(BorderFactory.createLineBorder(UiFormatter.PLAYER1_UNIT));
-            } else {
-                battleButton.setBorder(BorderFactory.createLineBorder(UiFormatter.PLAYER2_UNIT));
-            }
-        }
         battleButton.addActionListener(e -> playerAction(pos));
         battleButtonMap.put(pos, battleButton);
+        renderPosition(pos);
         return battleButton;
     }
 
+    // MODIFIES: this
+    // EFFECTS: shows the unit on pos on its button with its army's border colour if it is part of
+    //          player1's army or player1's army can see it. Otherwise shows a blood icon if a warrior
+    //          has died on pos, or leaves the button blank
+    private void renderPosition(Position pos) {
+        JButton button = battleButtonMap.get(pos);
+        Warrior unit = pos.getUnit();
+        if (unit != null && (unit.getFaction().equals(playerArmy)
+                || battle.getVisibility().isVisible(playerArmy, pos.getPosX(), pos.getPosY()))) {
+            button.setText(unit.getName());
+            button.setIcon(GUI.getInstance().getWarriorIcon(unit));
+            button.setBorder(BorderFactory.createLineBorder(unit.getFaction().equals(playerArmy)
+                    ? UiFormatter.PLAYER1_UNIT : UiFormatter.PLAYER2_UNIT));
+        } else {
+            button.setText("");
+            button.setIcon(bloodStains.contains(pos) ? UiFormatter.bloodImage : null);
+            button.setBorder(BorderFactory.createLineBorder(Color.BLACK));
+        }
+        button.setDisabledIcon(button.getIcon());
+    }
+
     // MODIFIES: this
     // EFFECTS: creates the battle options area
     private JPanel makeBattleOptionsArea() {
@@ -214,7 +227,7 @@ public class BattlePanel extends DefaultPanel {
         if (action == Battle.MOVE) {
             confirmMove.openFrame();
         } else if (action == Battle.BATTLE) {
-            confirmAttack.openFrame(battleButtonMap.get(battle.getActivePosition()));
+            confirmAttack.openFrame();
         }
         refreshBattle();
     }
@@ -246,10 +259,13 @@ public class BattlePanel extends DefaultPanel {
     //          the active warrior's movement and within range + movement with shades of green
     //          else, highlights all cells within the active warrior's movement and within
     //          range + movement with shades of red
+    //          shows only the enemies player1's army can see
     private void highlightStage() {
-        Map<Position, Color> positionColorMap = battle.positionColors();
+        Color[] positionColors = battle.positionColors();
         for (Position pos : battle) {
-            battleButtonMap.get(pos).setBackground(positionColorMap.get(pos));
+            battleButtonMap.get(pos).setBackground(positionColors[pos.getPosY() * battle.getStageWidth()
+                    + pos.getPosX()]);
+            renderPosition(pos);
         }
     }
 
@@ -291,6 +307,9 @@ public class BattlePanel extends DefaultPanel {
         } catch (TooFarException e1) {
             battleError.setText(battle.getActiveWarrior() + " cannot move this far");
             battle.deselectPosition();
+        } catch (OccupiedException e1) {
+            battleError.setText(battle.getActiveWarrior() + " is blocked by a unit it cannot see");
+            battle.deselectPosition();
         } catch (CheckedGameException e1) {
             throw new RuntimeException("ERROR: " + e1.getMessage());
         }
@@ -299,20 +318,10 @@ public class BattlePanel extends DefaultPanel {
 
     // REQUIRES: newPosition.getUnit() != null
     // MODIFIES: this
-    // EFFECTS: sets the old position button to have no text and a black border, and sets the
-    //          new position button to have the warriors name and c as its border colour
+    // EFFECTS: redraws the old and new position buttons of a warrior that has moved
     private void refreshMove(Position oldPosition, Position newPosition) {
-        battleButtonMap.get(oldPosition).setText("");
-        battleButtonMap.get(oldPosition).setIcon(null);
-        battleButtonMap.get(oldPosition).setBorder(BorderFactory.createLineBorder(Color.BLACK));
-        battleButtonMap.get(newPosition).setText(newPosition.getUnit().getName());
-        battleButtonMap.get(newPosition).setIcon(GUI.getInstance().getWarriorIcon(newPosition.getUnit()));
-        battleButtonMap.get(newPosition).setDisabledIcon(GUI.getInstance().getWarriorIcon(newPosition.getUnit()));
-        if (newPosition.getUnit().getFaction().equals(playerArmy)) {
-            battleButtonMap.get(newPosition).setBorder(BorderFactory.createLineBorder(UiFormatter.PLAYER1_UNIT));
-        } else {
-            battleButtonMap.get(newPosition).setBorder(BorderFactory.createLineBorder(UiFormatter.PLAYER2_UNIT));
-        }
+        renderPosition(oldPosition);
+        renderPosition(newPosition);
     }
 
     private void tryBattleUnit() {
@@ -345,11 +354,8 @@ public class BattlePanel extends DefaultPanel {
     // MODIFIES: this
     // EFFECTS: removes the dead warrior from the button and adds a blood icon
     private void removeDeadWarrior(Position pos) {
-        JButton button = battleButtonMap.get(pos);
-        button.setBorder(BorderFactory.createLineBorder(Color.BLACK));
-        button.setText("");
-        button.setIcon(UiFormatter.bloodImage);
-        button.setDisabledIcon(button.getIcon());
+        bloodStains.add(pos);
+        renderPosition(pos);
     }
 
     // EFFECTS: creates a JPanel that displays the warrior's stats
@@ -470,18 +476,86 @@ public class BattlePanel extends DefaultPanel {
 
     private class ConfirmAttackFrame extends ConfirmationFrame {
 
+        private static final long FOLLOW_UP_TIME_BOX_MILLIS = 500;
+        private static final int FOLLOW_UP_POLL_MILLIS = 100;
+
+        private final RolloutForecaster forecaster;
+        private final Timer followUpTimer;
+        private String forecastMessage;
+        private Warrior defender;
+        private int followUps;
+        private RolloutJob followUpJob;
+
         public ConfirmAttackFrame() {
             super("Would you like to attack this warrior?");
+            forecaster = new RolloutForecaster();
+            followUpTimer = new Timer(FOLLOW_UP_POLL_MILLIS, e -> showFollowUp());
         }
 
         @Override
         protected void yesAction() {
+            stopFollowUp();
             tryBattleUnit();
         }
 
         @Override
         protected void noAction() {
+            stopFollowUp();
             battleError.setText("");
         }
+
+        // MODIFIES: this
+        // EFFECTS: opens this frame and changes the text to include the forecast of the battle between the
+        //          active warrior and the warrior they would attack, and, if other warriors of the active faction
+        //          could attack that warrior after it, starts forecasting the whole plan in the background and
+        //          adds its estimate to the text as it improves
+        public void openFrame() {
+            stopFollowUp();
+            Warrior attacker = battle.getActiveWarrior();
+            defender = battle.getActivePosition().getUnit();
+            CombatForecast forecast = battle.forecastBattle();
+            forecastMessage = String.format("Would you like to attack %s?<br/>"
+                            + "%s: %.0f%% chance of falling, %.1f hp left on average<br/>"
+                            + "%s: %.0f%% chance of falling, %.1f hp left on average",
+                    defender, defender, 100 * forecast.getDefenderDeathChance(), forecast.getExpectedDefenderHp(),
+                    attacker, 100 * forecast.getAttackerDeathChance(), forecast.getExpectedAttackerHp());
+            BattlePlan plan = battle.planFocusedAttack();
+            followUps = plan.size() - 1;
+            if (followUps > 0) {
+                followUpJob = forecaster.start(plan, RolloutForecaster.DEFAULT_ROLLOUTS, System.nanoTime(),
+                        FOLLOW_UP_TIME_BOX_MILLIS);
+                followUpTimer.start();
+            }
+            showFollowUp();
+            super.openFrame(battleButtonMap.get(battle.getActivePosition()));
+        }
+
+        // MODIFIES: this
+        // EFFECTS: shows the forecast of the battle with the latest estimate of the follow-up attacks, if there
+        //          are any, and stops polling the estimate once it is final
+        private void showFollowUp() {
+            String message = forecastMessage;
+            if (followUpJob != null) {
+                boolean done = followUpJob.isDone();
+                RolloutEstimate estimate = followUpJob.getEstimate();
+                message += String.format("<br/>With %d more attack%s: %.0f%% chance %s falls (%d rollouts%s)",
+                        followUps, followUps == 1 ? "" : "s", 100 * estimate.getDeathChance(defender), defender,
+                        estimate.getRollouts(), done ? "" : " so far");
+                if (done) {
+                    followUpTimer.stop();
+                }
+            }
+            super.setTitleMessage("<html><center>" + message + "</center></html>");
+        }
+
+        // MODIFIES: this
+        // EFFECTS: cancels the forecast of the follow-up attacks, if there is one, and stops polling it
+        private void stopFollowUp() {
+            followUpTimer.stop();
+            if (followUpJob != null) {
+                followUpJob.cancel();
+                followUpJob = null;
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package ui;
+
+import model.AiStrategy;
+import model.Army;
+import model.ArmyComposition;
+import model.Battle;
+import model.BattleSimulator;
+import model.Tournament;
+import model.TournamentReport;
+import model.exceptions.SaveException;
+import persistance.CsvWriter;
+import persistance.JsonReader;
+
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+// Runs a tournament from the command line with the computer playing every army of the given save files
+// with every given strategy on stages of every given size, and writes the outcome of every matchup to a
+// CSV file. Usage:
+//     TournamentRunner <output.csv> <games per matchup> <stage sizes> <strategies> <save files...>
+// where stage sizes are like 12x12,20x16 (width x length) and strategies are like NEAREST,WEAKEST,BEST_ODDS
+public class TournamentRunner {
+
+    private static final int ARGUMENTS_BEFORE_FILES = 4;
+    private static final long SEED = 210;
+
+    public static void main(String[] args) throws IOException, SaveException {
+        if (args.length <= ARGUMENTS_BEFORE_FILES) {
+            System.out.println("Usage: TournamentRunner <output.csv> <games per matchup> <stage sizes> "
+                    + "<strategies> <save files...>");
+            return;
+        }
+        List<ArmyComposition> armies = new ArrayList<>();
+        for (int i = ARGUMENTS_BEFORE_FILES; i < args.length; i++) {
+            String file = Paths.get(args[i]).getFileName().toString().replaceFirst("\\.json$", "");
+            Battle saved = new JsonReader(args[i]).read();
+            for (Army army : saved.getCompetitors()) {
+                armies.add(new ArmyComposition(file + "/" + army.getFactionName(), army));
+            }
+        }
+        List<Dimension> stageSizes = new ArrayList<>();
+        for (String size : args[2].split(",")) {
+            String[] sides = size.split("x");
+            stageSizes.add(new Dimension(Integer.parseInt(sides[0]), Integer.parseInt(sides[1])));
+        }
+        List<AiStrategy> strategies = new ArrayList<>();
+        for (String strategy : args[3].split(",")) {
+            strategies.add(AiStrategy.valueOf(strategy));
+        }
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        Tournament tournament = new Tournament(armies, strategies, stageSizes,
+                BattleSimulator.DEFAULT_TURN_LIMIT, pool);
+        TournamentReport report = tournament.run(Integer.parseInt(args[1]), SEED);
+        pool.shutdown();
+        CsvWriter writer = new CsvWriter(args[0]);
+        writer.open();
+        writer.write(report);
+        writer.close();
+        System.out.printf("games:        %d%n", report.getGames());
+        System.out.printf("seconds:      %.1f%n", report.getElapsedNanos() / 1e9);
+        System.out.printf("cpu seconds:  %.1f%n", report.getCpuNanos() / 1e9);
+        System.out.printf("games/second: %.0f%n", report.getGamesPerSecond());
+        System.out.println("written to   " + args[0]);
+    }
+}
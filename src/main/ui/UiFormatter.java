@@ -16,6 +16,7 @@ public abstract class UiFormatter {
     public static final Color CLOSE_GOOD = new Color(179, 220, 92);
     public static final Color FAR_EVIL = new Color(255, 179, 178);
     public static final Color CLOSE_EVIL = new Color(255, 104, 101);
+    public static final Color THREATENED_GOOD = new Color(240, 200, 90);
     public static final Color BABY_BLUE = new Color(157, 217, 243);
     public static final Color DARK_GREEN = new Color(0,204,0);
     public static final ImageIcon splashImage = makeResizableImage(ImagePath.SWORDS_CROSSING, 350, 350);
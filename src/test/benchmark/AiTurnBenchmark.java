@@ -0,0 +1,62 @@
+package benchmark;
+
+import model.Army;
+import model.Battle;
+import model.Stage;
+import model.Warrior;
+import model.exceptions.CheckedGameException;
+import ui.ImagePath;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// Measures how long the computer takes to play a turn of a 300x300 stage with two armies of 400
+// units, from the first computerized action to the one that finishes the turn
+// note: run with the main method, the results are printed in milliseconds
+public class AiTurnBenchmark {
+
+    private static final int STAGE_SIZE = 300;
+    private static final int UNITS_PER_ARMY = 400;
+    private static final int TURNS = 20;
+
+    public static void main(String[] args) throws CheckedGameException {
+        Stage stage = new Stage(STAGE_SIZE, STAGE_SIZE);
+        Army.resetNames();
+        Warrior.resetNames();
+        List<Army> armies = Arrays.asList(new Army("Good"), new Army("Bad"));
+        Random random = new Random(210);
+        for (int a = 0; a < armies.size(); a++) {
+            Army army = armies.get(a);
+            for (int i = 0; i < UNITS_PER_ARMY; i++) {
+                Warrior warrior = new Warrior(army.getFactionName() + i, 30, 1 + random.nextInt(10), 5, 5, 5,
+                        3 + random.nextInt(4), 1 + random.nextInt(3), ImagePath.NONE);
+                army.addWarrior(warrior);
+                int x = random.nextInt(STAGE_SIZE);
+                int y = a * STAGE_SIZE / 2 + random.nextInt(STAGE_SIZE / 2);
+                while (stage.unitAtOrNull(x, y) != null) {
+                    x = random.nextInt(STAGE_SIZE);
+                    y = a * STAGE_SIZE / 2 + random.nextInt(STAGE_SIZE / 2);
+                }
+                warrior.placeWarrior(stage, x, y);
+            }
+        }
+        Battle battle = new Battle(stage, armies);
+        armies.get(0).beginTurn();
+        long slowest = 0;
+        long start = System.nanoTime();
+        int actions = 0;
+        for (int turn = 0; turn < TURNS && !battle.checkIfOver(); turn++) {
+            long turnStart = System.nanoTime();
+            while (battle.computerizedAction() != Battle.FINISH) {
+                actions++;
+            }
+            slowest = Math.max(slowest, System.nanoTime() - turnStart);
+            battle.incrementTurn();
+        }
+        long total = System.nanoTime() - start;
+        System.out.println("average turn: " + (total / TURNS / 1000000) + " ms");
+        System.out.println("slowest turn: " + (slowest / 1000000) + " ms");
+        System.out.println("actions:      " + actions);
+    }
+}
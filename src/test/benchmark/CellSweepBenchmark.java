@@ -0,0 +1,64 @@
+package benchmark;
+
+import model.Army;
+import model.Stage;
+import model.ThreatMap;
+import model.Warrior;
+import model.exceptions.CheckedGameException;
+import ui.ImagePath;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// Measures the whole-board threat sweeps of stages from 256x256 to 4096x4096, reading the threat count
+// of every position one at a time and summing the flat threat grids with CellSweeps, and checks that
+// both give the same counts. Run it a second time with -XX:-UseSuperWord to see the sweeps without
+// SIMD instructions
+// note: run with the main method, the results are printed in microseconds per sweep
+public class CellSweepBenchmark {
+
+    private static final int[] SIZES = {256, 512, 1024, 2048, 4096};
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws CheckedGameException {
+        for (int size : SIZES) {
+            Stage stage = new Stage(size, size);
+            Army.resetNames();
+            Warrior.resetNames();
+            List<Army> armies = Arrays.asList(new Army("Good"), new Army("Bad"));
+            Random random = new Random(size);
+            for (int i = 0; i < size / 4; i++) {
+                Warrior warrior = new Warrior("unit" + i, 20, 1 + random.nextInt(10), 5, 5, 5,
+                        2 + random.nextInt(5), 1 + random.nextInt(3), ImagePath.NONE);
+                armies.get(i % 2).addWarrior(warrior);
+                int x = random.nextInt(size);
+                int y = random.nextInt(size);
+                while (stage.unitAtOrNull(x, y) != null) {
+                    x = random.nextInt(size);
+                    y = random.nextInt(size);
+                }
+                warrior.placeWarrior(stage, x, y);
+            }
+            ThreatMap threats = new ThreatMap(stage, armies);
+            long perCell = Long.MAX_VALUE;
+            long swept = Long.MAX_VALUE;
+            int[] expected = new int[size * size];
+            int[] actual = null;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                for (int y = 0; y < size; y++) {
+                    for (int x = 0; x < size; x++) {
+                        expected[y * size + x] = threats.getThreatCount("Good", x, y);
+                    }
+                }
+                perCell = Math.min(perCell, System.nanoTime() - start);
+                start = System.nanoTime();
+                actual = threats.getThreatCounts("Good");
+                swept = Math.min(swept, System.nanoTime() - start);
+            }
+            System.out.println(size + "x" + size + ": per cell " + (perCell / 1000) + " us, swept "
+                    + (swept / 1000) + " us" + (Arrays.equals(expected, actual) ? "" : " (results differ)"));
+        }
+    }
+}
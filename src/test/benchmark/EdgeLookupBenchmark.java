@@ -0,0 +1,73 @@
+package benchmark;
+
+import model.Stage;
+import model.Warrior;
+import model.exceptions.InvalidPositionException;
+
+import static java.lang.Math.abs;
+
+// Compares the cost of scanning a range diamond around the corners of a stage using the
+// exception based Stage.getPosition lookup against the clipped Stage.unitAtOrNull lookup
+// note: run with the main method, the results are printed in nanoseconds per scan
+public class EdgeLookupBenchmark {
+
+    private static final int STAGE_SIZE = 200;
+    private static final int RADIUS = 31;
+    private static final int WARMUP = 2000;
+    private static final int ITERATIONS = 20000;
+
+    public static void main(String[] args) {
+        Stage stage = new Stage(STAGE_SIZE, STAGE_SIZE);
+        int[][] corners = {{0, 0}, {STAGE_SIZE - 1, 0}, {0, STAGE_SIZE - 1}, {STAGE_SIZE - 1, STAGE_SIZE - 1}};
+        for (int i = 0; i < WARMUP; i++) {
+            scanWithExceptions(stage, corners[i % 4]);
+            scanClipped(stage, corners[i % 4]);
+        }
+        long start = System.nanoTime();
+        int found = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            found += scanWithExceptions(stage, corners[i % 4]);
+        }
+        long exceptions = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            found += scanClipped(stage, corners[i % 4]);
+        }
+        long clipped = System.nanoTime() - start;
+        System.out.println("getPosition with exceptions: " + (exceptions / ITERATIONS) + " ns/scan");
+        System.out.println("clipped unitAtOrNull:        " + (clipped / ITERATIONS) + " ns/scan");
+        System.out.println("units found: " + found);
+    }
+
+    // EFFECTS: counts the units within RADIUS of corner the way warriors scanned before, by trying
+    //          every cell of the surrounding square and catching off-stage lookups
+    private static int scanWithExceptions(Stage stage, int[] corner) {
+        int count = 0;
+        for (int x = RADIUS; x >= -RADIUS; x--) {
+            for (int y = RADIUS; y >= -RADIUS; y--) {
+                if ((abs(x) + abs(y)) <= RADIUS) {
+                    try {
+                        Warrior unit = stage.getPosition(corner[0] + x, corner[1] + y).getUnit();
+                        count += unit == null ? 0 : 1;
+                    } catch (InvalidPositionException e) {
+                        // keep looking
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    // EFFECTS: counts the units within RADIUS of corner by walking the diamond clipped to the stage
+    private static int scanClipped(Stage stage, int[] corner) {
+        int count = 0;
+        for (int x = Math.min(corner[0] + RADIUS, stage.getFarthestRight()); x >= Math.max(corner[0] - RADIUS, 0); x--) {
+            int reach = RADIUS - abs(x - corner[0]);
+            for (int y = Math.min(corner[1] + reach, stage.getFarthestBottom());
+                    y >= Math.max(corner[1] - reach, 0); y--) {
+                count += stage.unitAtOrNull(x, y) == null ? 0 : 1;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,62 @@
+package benchmark;
+
+import model.Stage;
+import model.Warrior;
+import model.exceptions.CheckedGameException;
+import ui.ImagePath;
+
+import java.util.Random;
+
+// Measures how long it takes to count the enemies within a radius of random cells of a 1000x1000 stage
+// with 20000 units, by listing them and by reading the diamond counts of the stage
+// note: run with the main method, the results are printed in nanoseconds per query
+public class EnemyCountBenchmark {
+
+    private static final int STAGE_SIZE = 1000;
+    private static final int UNITS = 20000;
+    private static final int QUERIES = 5000;
+    private static final int[] RADII = {4, 16, 64, 256, 1000};
+
+    public static void main(String[] args) throws CheckedGameException {
+        Stage stage = new Stage(STAGE_SIZE, STAGE_SIZE);
+        Warrior.resetNames();
+        Random random = new Random(210);
+        for (int i = 0; i < UNITS; i++) {
+            Warrior warrior = new Warrior("unit" + i, 10, 5, 5, 5, 5, 3, 1, ImagePath.NONE);
+            warrior.setFaction(i % 2 == 0 ? "Good" : "Bad");
+            while (true) {
+                int x = random.nextInt(STAGE_SIZE);
+                int y = random.nextInt(STAGE_SIZE);
+                if (stage.unitAtOrNull(x, y) == null) {
+                    warrior.placeWarrior(stage, x, y);
+                    break;
+                }
+            }
+        }
+        stage.countEnemiesWithin(0, 0, 0, "Good");
+        for (int radius : RADII) {
+            long listed = 0;
+            long counted = 0;
+            for (int round = 0; round < 2; round++) {
+                random = new Random(radius);
+                long start = System.nanoTime();
+                for (int i = 0; i < QUERIES; i++) {
+                    listed += stage.enemiesWithin(random.nextInt(STAGE_SIZE), random.nextInt(STAGE_SIZE),
+                            radius, "Good").size();
+                }
+                long listTime = System.nanoTime() - start;
+                random = new Random(radius);
+                start = System.nanoTime();
+                for (int i = 0; i < QUERIES; i++) {
+                    counted += stage.countEnemiesWithin(random.nextInt(STAGE_SIZE), random.nextInt(STAGE_SIZE),
+                            radius, "Good");
+                }
+                long countTime = System.nanoTime() - start;
+                if (round == 1) {
+                    System.out.println("radius " + radius + ": listed " + (listTime / QUERIES) + " ns, counted "
+                            + (countTime / QUERIES) + " ns" + (listed == counted ? "" : " (counts differ)"));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package benchmark;
+
+import model.Position;
+import model.Stage;
+import model.Warrior;
+import model.exceptions.CheckedGameException;
+import model.exceptions.TooFarException;
+import ui.ImagePath;
+
+import java.util.Random;
+
+// Measures how long the path search behind a warrior's move takes on a 1000x1000 stage with random
+// terrain costs and walls, both for a nearby target and for a far target that costs more than the
+// warrior's movement, which makes the search settle every position it can afford to reach
+// note: run with the main method, the results are printed in microseconds per move
+public class PathfindingBenchmark {
+
+    private static final int STAGE_SIZE = 1000;
+    private static final int MOVEMENT = 1998;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+
+    public static void main(String[] args) throws CheckedGameException {
+        Stage stage = new Stage(STAGE_SIZE, STAGE_SIZE);
+        Random random = new Random(210);
+        for (Position pos : stage) {
+            int roll = random.nextInt(10);
+            pos.setMoveCost(roll == 0 ? Position.IMPASSABLE : 1 + random.nextInt(Position.MAX_MOVE_COST));
+        }
+        stage.positionOrNull(0, 0).setMoveCost(1);
+        stage.positionOrNull(1, 0).setMoveCost(1);
+        Warrior runner = new Warrior("runner", 10, 1, 1, 1, 1, MOVEMENT, 1, ImagePath.NONE);
+        runner.placeWarrior(stage, 0, 0);
+        System.out.println("near move:        " + timeMoves(stage, runner, true) + " us");
+        System.out.println("unreachable move: " + timeMoves(stage, runner, false) + " us");
+    }
+
+    // MODIFIES: stage, runner
+    // EFFECTS: returns the average time of a move of runner in microseconds, either one step back and
+    //          forth or to the far corner of the stage
+    private static long timeMoves(Stage stage, Warrior runner, boolean near) throws CheckedGameException {
+        long start = 0;
+        for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+            if (i == WARMUP) {
+                start = System.nanoTime();
+            }
+            runner.setCanMove(true);
+            if (near) {
+                runner.move(stage, runner.getPosition().getPosX() == 0 ? 1 : -1, 0);
+            } else {
+                try {
+                    runner.move(stage, STAGE_SIZE - 1 - runner.getPosition().getPosX(), STAGE_SIZE - 1);
+                } catch (TooFarException e) {
+                    // expected, the whole affordable area has been searched
+                }
+            }
+        }
+        return (System.nanoTime() - start) / ITERATIONS / 1000;
+    }
+}
@@ -0,0 +1,49 @@
+package benchmark;
+
+import model.Position;
+import model.Stage;
+
+import java.util.Random;
+
+// Measures how long a long range route takes through the cluster graph of a 2000x2000 stage that is
+// mostly open with scattered walls and rough terrain: the first time, when every cluster on the way
+// has to be built, again once they are, and after a change to a single position
+// note: run with the main method, the results are printed in milliseconds per route
+public class RouteBenchmark {
+
+    private static final int STAGE_SIZE = 2000;
+    private static final int ITERATIONS = 20;
+
+    public static void main(String[] args) {
+        Stage stage = new Stage(STAGE_SIZE, STAGE_SIZE);
+        Random random = new Random(210);
+        for (Position pos : stage) {
+            int roll = random.nextInt(20);
+            if (roll < 2) {
+                pos.setMoveCost(Position.IMPASSABLE);
+            } else if (roll == 2) {
+                pos.setMoveCost(1 + random.nextInt(Position.MAX_MOVE_COST));
+            }
+        }
+        stage.positionOrNull(0, 0).setMoveCost(1);
+        stage.positionOrNull(STAGE_SIZE - 1, STAGE_SIZE - 1).setMoveCost(1);
+        long start = System.nanoTime();
+        int length = stage.route(0, 0, STAGE_SIZE - 1, STAGE_SIZE - 1).size();
+        long cold = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            length += stage.route(0, 0, STAGE_SIZE - 1, STAGE_SIZE - 1).size();
+        }
+        long warm = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            stage.positionOrNull(STAGE_SIZE / 2, STAGE_SIZE / 2).setMoveCost(1 + i % 2);
+            length += stage.route(0, 0, STAGE_SIZE - 1, STAGE_SIZE - 1).size();
+        }
+        long changed = System.nanoTime() - start;
+        System.out.println("cold route:            " + (cold / 1000000) + " ms");
+        System.out.println("warm route:            " + (warm / ITERATIONS / 1000000) + " ms");
+        System.out.println("route after a change:  " + (changed / ITERATIONS / 1000000) + " ms");
+        System.out.println("checksum: " + length);
+    }
+}
@@ -0,0 +1,68 @@
+package benchmark;
+
+import model.Army;
+import model.Battle;
+import model.BattleSimulator;
+import model.SimulationReport;
+import model.Stage;
+import model.Warrior;
+import model.exceptions.CheckedGameException;
+import ui.ImagePath;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// Measures how many complete 20 vs 20 battles on a 24x24 stage the headless simulator plays per second,
+// with the computer controlling both armies
+// note: run with the main method, the results are printed in games per second
+public class SimulationBenchmark {
+
+    private static final int STAGE_SIZE = 24;
+    private static final int UNITS_PER_ARMY = 20;
+    private static final int WARMUP_GAMES = 500;
+    private static final int GAMES = 5000;
+    private static final int SEED = 210;
+
+    public static void main(String[] args) {
+        Random random = new Random(SEED);
+        BattleSimulator simulator = new BattleSimulator(() -> makeBattle(random),
+                BattleSimulator.DEFAULT_TURN_LIMIT, SEED);
+        simulator.run(WARMUP_GAMES);
+        SimulationReport report = simulator.run(GAMES);
+        System.out.println("games/second:  " + Math.round(report.getGamesPerSecond()));
+        System.out.println("average turns: " + report.getAverageTurns());
+        System.out.println("good wins:     " + report.getWins("Good"));
+        System.out.println("bad wins:      " + report.getWins("Bad"));
+        System.out.println("draws:         " + report.getDraws());
+    }
+
+    // EFFECTS: returns a new battle between two armies of random warriors, each placed on its own half
+    private static Battle makeBattle(Random random) {
+        Stage stage = new Stage(STAGE_SIZE, STAGE_SIZE);
+        Army.resetNames();
+        Warrior.resetNames();
+        try {
+            List<Army> armies = Arrays.asList(new Army("Good"), new Army("Bad"));
+            for (int a = 0; a < armies.size(); a++) {
+                Army army = armies.get(a);
+                for (int i = 0; i < UNITS_PER_ARMY; i++) {
+                    Warrior warrior = new Warrior(army.getFactionName() + i, 10 + random.nextInt(10),
+                            3 + random.nextInt(8), 1 + random.nextInt(10), random.nextInt(5),
+                            random.nextInt(10), 2 + random.nextInt(4), 1 + random.nextInt(3), ImagePath.NONE);
+                    army.addWarrior(warrior);
+                    int x = random.nextInt(STAGE_SIZE);
+                    int y = a * STAGE_SIZE / 2 + random.nextInt(STAGE_SIZE / 2);
+                    while (stage.unitAtOrNull(x, y) != null) {
+                        x = random.nextInt(STAGE_SIZE);
+                        y = a * STAGE_SIZE / 2 + random.nextInt(STAGE_SIZE / 2);
+                    }
+                    warrior.placeWarrior(stage, x, y);
+                }
+            }
+            return new Battle(stage, armies);
+        } catch (CheckedGameException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package benchmark;
+
+import model.Position;
+import model.Stage;
+
+import java.util.Random;
+
+// Compares a sequential and a parallel sweep over every position of a 1000x1000 stage that adds up
+// the stat modifiers of the board
+// note: run with the main method, the results are printed in milliseconds per sweep
+public class StageSweepBenchmark {
+
+    private static final int STAGE_SIZE = 1000;
+    private static final int WARMUP = 10;
+    private static final int ITERATIONS = 20;
+
+    public static void main(String[] args) {
+        Stage stage = new Stage(STAGE_SIZE, STAGE_SIZE);
+        Random random = new Random(210);
+        for (int i = 0; i < 5000; i++) {
+            stage.positionOrNull(random.nextInt(STAGE_SIZE), random.nextInt(STAGE_SIZE))
+                    .setModifiers(1, 1, 1, 1, 1, 1);
+        }
+        long total = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            total += stage.stream().mapToLong(StageSweepBenchmark::modifierTotal).sum();
+            total += stage.parallelStream().mapToLong(StageSweepBenchmark::modifierTotal).sum();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            total += stage.stream().mapToLong(StageSweepBenchmark::modifierTotal).sum();
+        }
+        long sequential = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            total += stage.parallelStream().mapToLong(StageSweepBenchmark::modifierTotal).sum();
+        }
+        long parallel = System.nanoTime() - start;
+        System.out.println("cores: " + Runtime.getRuntime().availableProcessors());
+        System.out.println("sequential sweep: " + (sequential / ITERATIONS / 1000000) + " ms");
+        System.out.println("parallel sweep:   " + (parallel / ITERATIONS / 1000000) + " ms");
+        System.out.println("checksum: " + total);
+    }
+
+    // EFFECTS: returns the sum of the stat modifiers of pos
+    private static long modifierTotal(Position pos) {
+        return pos.getStrengthModifier() + pos.getSpeedModifier() + pos.getDefenseModifier()
+                + pos.getLuckModifier() + pos.getMovementModifier() + pos.getRangeModifier();
+    }
+}
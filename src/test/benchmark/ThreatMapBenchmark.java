@@ -0,0 +1,64 @@
+package benchmark;
+
+import model.Army;
+import model.Stage;
+import model.ThreatMap;
+import model.Warrior;
+import model.exceptions.CheckedGameException;
+import ui.ImagePath;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// Measures how long it takes to rebuild the threat map of a 500x500 stage with 1000 units, as is
+// done once per turn, and to patch it after a single unit moves
+// note: run with the main method, the results are printed in microseconds
+public class ThreatMapBenchmark {
+
+    private static final int STAGE_SIZE = 500;
+    private static final int UNITS_PER_ARMY = 500;
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 200;
+
+    public static void main(String[] args) throws CheckedGameException {
+        Stage stage = new Stage(STAGE_SIZE, STAGE_SIZE);
+        Army.resetNames();
+        Warrior.resetNames();
+        List<Army> armies = Arrays.asList(new Army("Good"), new Army("Bad"));
+        Random random = new Random(210);
+        for (Army army : armies) {
+            for (int i = 0; i < UNITS_PER_ARMY; i++) {
+                Warrior warrior = new Warrior(army.getFactionName() + i, 20, 1 + random.nextInt(10), 5, 5, 5,
+                        2 + random.nextInt(5), 1 + random.nextInt(3), ImagePath.NONE);
+                army.addWarrior(warrior);
+                int x = random.nextInt(STAGE_SIZE);
+                int y = random.nextInt(STAGE_SIZE - 1);
+                while (stage.unitAtOrNull(x, y) != null || stage.unitAtOrNull(x, y + 1) != null) {
+                    x = random.nextInt(STAGE_SIZE);
+                    y = random.nextInt(STAGE_SIZE - 1);
+                }
+                warrior.placeWarrior(stage, x, y);
+            }
+        }
+        ThreatMap threats = new ThreatMap(stage, armies);
+        for (int i = 0; i < WARMUP; i++) {
+            threats.rebuild(armies);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            threats.rebuild(armies);
+        }
+        long rebuild = System.nanoTime() - start;
+        Warrior mover = armies.get(0).getWarriors().get(0);
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mover.setCanMove(true);
+            mover.move(stage, 0, i % 2 == 0 ? 1 : -1);
+        }
+        long patch = System.nanoTime() - start;
+        System.out.println("rebuild:    " + (rebuild / ITERATIONS / 1000) + " us");
+        System.out.println("patch move: " + (patch / ITERATIONS / 1000) + " us");
+        System.out.println("threat at centre: " + threats.getThreatCount("Good", STAGE_SIZE / 2, STAGE_SIZE / 2));
+    }
+}
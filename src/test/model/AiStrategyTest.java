@@ -0,0 +1,87 @@
+package model;
+
+import model.exceptions.CheckedGameException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ui.ImagePath;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for the AiStrategy enum
+public class AiStrategyTest {
+
+    private Warrior attacker;
+    private Warrior near;
+    private Warrior wounded;
+    private Warrior fragile;
+    private List<Warrior> opponents;
+
+    @BeforeEach
+    void setup() {
+        Warrior.resetNames();
+        Stage stage = new Stage(5, 5);
+        try {
+            attacker = new Warrior("attacker", 10, 5, 5, 2, 0, 1, 3, ImagePath.NONE);
+            near = new Warrior("near", 10, 9, 1, 9, 0, 1, 1, ImagePath.NONE);
+            wounded = new Warrior("wounded", 10, 9, 1, 9, 0, 1, 3, ImagePath.NONE);
+            fragile = new Warrior("fragile", 5, 1, 1, 0, 0, 1, 1, ImagePath.NONE);
+            attacker.placeWarrior(stage, 2, 2);
+            near.placeWarrior(stage, 2, 3);
+            wounded.placeWarrior(stage, 0, 2);
+            fragile.placeWarrior(stage, 4, 3);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+        wounded.reduceHP(7);
+        opponents = Arrays.asList(near, wounded, fragile);
+    }
+
+    @Test
+    void testNearest() {
+        assertEquals(near, AiStrategy.NEAREST.chooseTarget(attacker, opponents, new CombatForecaster()));
+    }
+
+    @Test
+    void testWeakest() {
+        assertEquals(wounded, AiStrategy.WEAKEST.chooseTarget(attacker, opponents, new CombatForecaster()));
+    }
+
+    @Test
+    void testBestOdds() {
+        CombatForecaster forecaster = new CombatForecaster();
+        assertEquals(fragile, AiStrategy.BEST_ODDS.chooseTarget(attacker, opponents, forecaster));
+        assertEquals(3, forecaster.getMisses());
+    }
+
+    @Test
+    void testBattleStrategies() {
+        Stage stage = new Stage(3, 3);
+        Army.resetNames();
+        try {
+            Army first = new Army("first");
+            Army second = new Army("second");
+            Warrior hunter = new Warrior("hunter", 10, 5, 5, 2, 0, 1, 3, ImagePath.NONE);
+            Warrior tough = new Warrior("tough", 10, 1, 1, 9, 0, 1, 1, ImagePath.NONE);
+            Warrior frail = new Warrior("frail", 3, 1, 1, 0, 0, 1, 1, ImagePath.NONE);
+            first.addWarrior(hunter);
+            second.addWarrior(tough);
+            second.addWarrior(frail);
+            hunter.placeWarrior(stage, 0, 0);
+            tough.placeWarrior(stage, 1, 0);
+            frail.placeWarrior(stage, 0, 2);
+            Battle battle = new Battle(stage, Arrays.asList(first, second));
+            assertEquals(AiStrategy.NEAREST, battle.getStrategy("first"));
+            battle.setStrategy("first", AiStrategy.WEAKEST);
+            assertEquals(AiStrategy.WEAKEST, battle.getStrategy("first"));
+            first.beginTurn();
+            assertEquals(Battle.BATTLE, battle.computerizedAction());
+            assertFalse(frail.getIsAlive());
+            assertEquals(10, tough.getHP());
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+    }
+}
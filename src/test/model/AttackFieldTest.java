@@ -0,0 +1,139 @@
+package model;
+
+import model.exceptions.CheckedGameException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ui.ImagePath;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for the AttackField class
+public class AttackFieldTest {
+
+    private Stage stage;
+    private AttackField field;
+    private Warrior hero;
+    private Warrior ally;
+    private Warrior enemy1;
+    private Warrior enemy2;
+    private List<Warrior> enemies;
+
+    @BeforeEach
+    void setup() {
+        stage = new Stage(7, 7);
+        field = stage.attackField();
+        Warrior.resetNames();
+        enemies = new ArrayList<>();
+        try {
+            hero = new Warrior("hero", 5, 5, 5, 5, 5, 3, 1, ImagePath.NONE);
+            ally = new Warrior("ally", 5, 5, 5, 5, 5, 3, 1, ImagePath.NONE);
+            enemy1 = new Warrior("enemy1", 5, 5, 5, 5, 5, 3, 1, ImagePath.NONE);
+            enemy2 = new Warrior("enemy2", 5, 5, 5, 5, 5, 3, 1, ImagePath.NONE);
+            hero.setFaction("Good");
+            ally.setFaction("Good");
+            enemy1.setFaction("Bad");
+            enemy2.setFaction("Bad");
+            hero.placeWarrior(stage, 0, 0);
+            enemy1.placeWarrior(stage, 3, 3);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+        enemies.add(enemy1);
+    }
+
+    @Test
+    void testOpenStage() {
+        assertFalse(field.isBuiltFor("Good"));
+        field.build("Good", 1, enemies);
+        assertTrue(field.isBuiltFor("Good"));
+        assertFalse(field.isBuiltFor("Bad"));
+        assertEquals(0, field.distanceAt(2, 3));
+        assertEquals(0, field.distanceAt(3, 4));
+        assertEquals(1, field.targetDistance(3, 4));
+        assertEquals(AttackField.UNREACHED, field.distanceAt(3, 3));
+        assertEquals(AttackField.UNREACHED, field.distanceAt(-1, 0));
+        assertEquals(AttackField.UNREACHED, field.distanceAt(0, 7));
+        assertEquals(5, field.distanceAt(0, 0));
+        assertEquals(1, field.distanceAt(2, 2));
+        assertEquals(5, field.distanceAt(6, 0));
+        field.invalidate();
+        assertFalse(field.isBuiltFor("Good"));
+    }
+
+    @Test
+    void testDirections() {
+        field.build("Good", 1, enemies);
+        assertEquals(3, field.directionAt(3, 0));
+        assertEquals(1, field.directionAt(0, 3));
+        assertEquals(0, field.directionAt(6, 3));
+        assertEquals(2, field.directionAt(3, 6));
+        assertEquals(AttackField.NONE, field.directionAt(3, 2));
+        assertEquals(AttackField.NONE, field.directionAt(3, 3));
+        assertEquals(AttackField.NONE, field.directionAt(7, 0));
+        int x = 0;
+        int y = 0;
+        for (int d = field.distanceAt(x, y); d > 0; d--) {
+            int step = field.directionAt(x, y);
+            x += AttackField.STEP_X[step];
+            y += AttackField.STEP_Y[step];
+            assertEquals(d - 1, field.distanceAt(x, y));
+        }
+        assertEquals(1, field.targetDistance(x, y));
+    }
+
+    @Test
+    void testRange() {
+        field.build("Good", 2, enemies);
+        assertEquals(0, field.distanceAt(1, 3));
+        assertEquals(0, field.distanceAt(2, 2));
+        assertEquals(2, field.targetDistance(1, 3));
+        assertEquals(1, field.targetDistance(2, 3));
+        assertEquals(4, field.distanceAt(0, 0));
+    }
+
+    @Test
+    void testTerrain() {
+        stage.positionOrNull(2, 3).setMoveCost(5);
+        stage.positionOrNull(3, 4).setMoveCost(Position.IMPASSABLE);
+        field.build("Good", 1, enemies);
+        assertEquals(0, field.distanceAt(2, 3));
+        assertEquals(AttackField.UNREACHED, field.distanceAt(3, 4));
+        assertEquals(2, field.distanceAt(1, 2));
+        assertEquals(3, field.distanceAt(1, 3));
+    }
+
+    @Test
+    void testUnits() {
+        try {
+            ally.placeWarrior(stage, 2, 3);
+            enemy2.placeWarrior(stage, 4, 2);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+        field.build("Good", 1, enemies);
+        assertEquals(2, field.distanceAt(2, 3));
+        assertEquals(0, field.distanceAt(3, 2));
+        enemies.add(enemy2);
+        field.build("Good", 1, enemies);
+        assertEquals(0, field.distanceAt(5, 2));
+        assertEquals(1, field.targetDistance(5, 2));
+        assertEquals(AttackField.UNREACHED, field.distanceAt(4, 2));
+        assertEquals(1, field.distanceAt(5, 3));
+        enemy2.setIsAlive(false);
+        field.build("Good", 1, enemies);
+        assertEquals(2, field.distanceAt(5, 2));
+    }
+
+    @Test
+    void testWalledOff() {
+        for (int x = 0; x < 7; x++) {
+            stage.positionOrNull(x, 1).setMoveCost(Position.IMPASSABLE);
+        }
+        field.build("Good", 1, enemies);
+        assertEquals(AttackField.UNREACHED, field.distanceAt(0, 0));
+        assertEquals(0, field.distanceAt(3, 2));
+    }
+}
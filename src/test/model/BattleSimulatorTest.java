@@ -0,0 +1,239 @@
+package model;
+
+import model.exceptions.CheckedGameException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ui.ImagePath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for the BattleSimulator and SimulationReport classes
+public class BattleSimulatorTest {
+
+    @BeforeEach
+    void setup() {
+        EventLog.getInstance().setEnabled(true);
+    }
+
+    // EFFECTS: returns a battle on a small stage between a strong army and a weak army
+    private Battle lopsidedBattle() {
+        return lopsidedBattle(new Stage(6, 6));
+    }
+
+    // EFFECTS: returns a battle on stage, which is at least 6x6, between a strong army and a weak army
+    private Battle lopsidedBattle(Stage stage) {
+        Army.resetNames();
+        Warrior.resetNames();
+        try {
+            Army strong = new Army("Strong");
+            Army weak = new Army("Weak");
+            Warrior hero = new Warrior("hero", 99, 50, 50, 50, 0, 4, 1, ImagePath.NONE);
+            Warrior minion = new Warrior("minion", 1, 1, 1, 1, 0, 4, 1, ImagePath.NONE);
+            strong.addWarrior(hero);
+            weak.addWarrior(minion);
+            hero.placeWarrior(stage, 0, 0);
+            minion.placeWarrior(stage, 5, 5);
+            return new Battle(stage, Arrays.asList(strong, weak));
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+            return null;
+        }
+    }
+
+    // EFFECTS: returns a battle on a stage split by a wall that neither army can cross
+    private Battle walledBattle() {
+        Stage stage = new Stage(5, 5);
+        for (int y = 0; y < 5; y++) {
+            stage.positionOrNull(2, y).setMoveCost(Position.IMPASSABLE);
+        }
+        Army.resetNames();
+        Warrior.resetNames();
+        try {
+            Army left = new Army("Left");
+            Army right = new Army("Right");
+            Warrior west = new Warrior("west", 10, 5, 5, 5, 0, 3, 1, ImagePath.NONE);
+            Warrior east = new Warrior("east", 10, 5, 5, 5, 0, 3, 1, ImagePath.NONE);
+            left.addWarrior(west);
+            right.addWarrior(east);
+            west.placeWarrior(stage, 0, 2);
+            east.placeWarrior(stage, 4, 2);
+            return new Battle(stage, Arrays.asList(left, right));
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+            return null;
+        }
+    }
+
+    @Test
+    void testPlayWinner() {
+        BattleSimulator simulator = new BattleSimulator(this::lopsidedBattle, BattleSimulator.DEFAULT_TURN_LIMIT);
+        Battle battle = lopsidedBattle();
+        assertEquals("Strong", simulator.play(battle));
+        assertTrue(battle.checkIfOver());
+    }
+
+    @Test
+    void testPlayTurnLimit() {
+        BattleSimulator simulator = new BattleSimulator(this::walledBattle, 3);
+        Battle battle = walledBattle();
+        assertNull(simulator.play(battle));
+        assertFalse(battle.checkIfOver());
+        assertTrue(battle.getTurn() > 3);
+    }
+
+    @Test
+    void testRun() {
+        EventLog.getInstance().clear();
+        BattleSimulator simulator = new BattleSimulator(this::lopsidedBattle, BattleSimulator.DEFAULT_TURN_LIMIT);
+        SimulationReport report = simulator.run(4);
+        assertEquals(4, report.getGames());
+        assertEquals(4, report.getWins("Strong"));
+        assertEquals(0, report.getWins("Weak"));
+        assertEquals(0, report.getDraws());
+        assertTrue(report.getAverageTurns() >= 1);
+        assertTrue(report.getElapsedNanos() > 0);
+        assertTrue(report.getCpuNanos() > 0);
+        assertTrue(report.getGamesPerSecond() > 0);
+        assertTrue(EventLog.getInstance().isEnabled());
+        Iterator<GameEvent> events = EventLog.getInstance().iterator();
+        assertEquals("Event log cleared.", events.next().getDescription());
+        assertFalse(events.hasNext());
+
+        report = new BattleSimulator(this::walledBattle, 2).run(2);
+        assertEquals(2, report.getDraws());
+        assertEquals(0, report.getWins("Left"));
+    }
+
+    @Test
+    void testRunClosesBattles() {
+        List<Stage> stages = new ArrayList<>();
+        BattleSimulator simulator = new BattleSimulator(() -> {
+            Stage stage = new Stage(6, 6);
+            stages.add(stage);
+            return lopsidedBattle(stage);
+        }, BattleSimulator.DEFAULT_TURN_LIMIT);
+        simulator.run(3);
+        assertEquals(3, stages.size());
+        for (Stage stage : stages) {
+            assertEquals(0, stage.getCellListenerCount());
+        }
+    }
+
+    @Test
+    void testEmptyReport() {
+        SimulationReport report = new SimulationReport();
+        assertEquals(0, report.getGames());
+        assertEquals(0, report.getAverageTurns());
+        assertEquals(0, report.getGamesPerSecond());
+        report.addGame(null, 5);
+        report.addGame("A", 3);
+        assertEquals(4, report.getAverageTurns());
+        assertEquals(1, report.getDraws());
+        assertEquals(1, report.getWins("A"));
+    }
+
+    @Test
+    void testConfidenceIntervals() {
+        SimulationReport report = new SimulationReport();
+        assertEquals(0, report.getWinRate("A"));
+        assertEquals(0, report.getWinRateLow("A"));
+        assertEquals(1, report.getWinRateHigh("A"));
+        report.addGame("A", 10);
+        assertEquals(10, report.getAverageTurnsLow());
+        assertEquals(10, report.getAverageTurnsHigh());
+        for (int i = 0; i < 99; i++) {
+            report.addGame(i < 49 ? "A" : "B", i % 2 == 0 ? 8 : 12);
+        }
+        assertEquals(0.5, report.getWinRate("A"), 1e-12);
+        assertEquals(0.4038, report.getWinRateLow("A"), 1e-4);
+        assertEquals(0.5962, report.getWinRateHigh("A"), 1e-4);
+        assertEquals(0, report.getWinRateLow("C"), 1e-12);
+        assertEquals(0.0370, report.getWinRateHigh("C"), 1e-4);
+        double mean = report.getAverageTurns();
+        assertEquals(mean - report.getAverageTurnsLow(), report.getAverageTurnsHigh() - mean, 1e-12);
+        assertEquals(0.39, report.getAverageTurnsHigh() - mean, 0.01);
+
+        SimulationReport skewed = new SimulationReport();
+        assertEquals(0, skewed.getAverageTurnsLow());
+        for (int i = 0; i < 3; i++) {
+            skewed.addGame("A", 1);
+        }
+        skewed.addGame("A", 100);
+        assertEquals(1, skewed.getAverageTurnsLow());
+        assertTrue(skewed.getAverageTurnsHigh() > skewed.getAverageTurns());
+
+        SimulationReport other = new SimulationReport();
+        other.addGame("B", 20);
+        other.addGame(null, 30);
+        other.setElapsedNanos(5);
+        other.setCpuNanos(5);
+        report.setElapsedNanos(10);
+        report.setCpuNanos(10);
+        report.merge(other);
+        assertEquals(102, report.getGames());
+        assertEquals(51, report.getWins("B"));
+        assertEquals(1, report.getDraws());
+        assertEquals(10, report.getElapsedNanos());
+        assertEquals(15, report.getCpuNanos());
+        assertEquals((998 + 50.0) / 102, report.getAverageTurns(), 1e-12);
+    }
+
+    @Test
+    void testSeededGames() {
+        BattleSimulator simulator = new BattleSimulator(this::luckyBattle, BattleSimulator.DEFAULT_TURN_LIMIT, 7);
+        SimulationReport first = simulator.run(10);
+        BattleSimulator replayer = new BattleSimulator(this::luckyBattle, BattleSimulator.DEFAULT_TURN_LIMIT, 7);
+        SimulationReport replay = replayer.run(10);
+        assertEquals(first.getWins("Strong"), replay.getWins("Strong"));
+        assertEquals(first.getWins("Weak"), replay.getWins("Weak"));
+        assertEquals(first.getAverageTurns(), replay.getAverageTurns());
+
+        Battle battle = luckyBattle();
+        battle.reseed(5);
+        assertEquals(5, battle.getSeed());
+        String winner = simulator.play(battle);
+        int turns = battle.getTurn();
+        Battle again = luckyBattle();
+        again.reseed(5);
+        assertEquals(winner, simulator.play(again));
+        assertEquals(turns, again.getTurn());
+        Stage stage = luckyStage();
+        assertEquals(9, new Battle(stage, luckyArmies(stage), 9).getSeed());
+    }
+
+    // EFFECTS: returns a battle between two even armies that can only hurt each other with critical hits
+    private Battle luckyBattle() {
+        Stage stage = luckyStage();
+        return new Battle(stage, luckyArmies(stage));
+    }
+
+    // EFFECTS: returns the stage of a lucky battle
+    private Stage luckyStage() {
+        return new Stage(1, 4);
+    }
+
+    // EFFECTS: returns the armies of a lucky battle placed on stage
+    private List<Army> luckyArmies(Stage stage) {
+        Army.resetNames();
+        Warrior.resetNames();
+        try {
+            Army strong = new Army("Strong");
+            Army weak = new Army("Weak");
+            Warrior lucky1 = new Warrior("lucky1", 10, 3, 5, 10, 50, 1, 1, ImagePath.NONE);
+            Warrior lucky2 = new Warrior("lucky2", 10, 3, 5, 10, 50, 1, 1, ImagePath.NONE);
+            strong.addWarrior(lucky1);
+            weak.addWarrior(lucky2);
+            lucky1.placeWarrior(stage, 1, 0);
+            lucky2.placeWarrior(stage, 2, 0);
+            return Arrays.asList(strong, weak);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+            return null;
+        }
+    }
+}
@@ -4,10 +4,10 @@ import model.exceptions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import ui.ImagePath;
+import ui.UiFormatter;
 
 import java.awt.*;
 import java.util.Arrays;
-import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -212,10 +212,29 @@ public class BattleTest {
         assertTrue(battle.isWarriorActionable());
     }
 
+    @Test
+    void testPlanFocusedAttack() {
+        w3.findMove(stage);
+        Warrior target = w3.checkValidOpponents(stage).get(0);
+        battle.selectPosition(w3);
+        assertEquals(Battle.BATTLE, battle.selectPosition(target.getPosition()));
+        BattlePlan plan = battle.planFocusedAttack();
+        assertEquals(2, plan.size());
+        assertEquals(w3, plan.getAttacker(0));
+        assertEquals(w1, plan.getAttacker(1));
+        assertEquals(target, plan.getDefender(0));
+        assertEquals(target, plan.getDefender(1));
+        w1.setCanAttack(false);
+        assertEquals(1, battle.planFocusedAttack().size());
+    }
+
     @Test
     void testBattleWarrior() {
         battle.selectPosition(w1);
         assertEquals(Battle.BATTLE, battle.selectPosition(w4.getPosition()));
+        CombatForecast forecast = battle.forecastBattle();
+        assertEquals(99, forecast.getDefenderHp());
+        assertEquals(1.0 / 31 / 99, forecast.getDefenderDeathChance(), 1e-12);
         try {
             battle.battleWarrior();
             assertNull(battle.getActiveWarrior());
@@ -363,6 +382,84 @@ public class BattleTest {
         }
     }
 
+    @Test
+    void testHiddenEnemy() {
+        Stage walled = new Stage(5, 5);
+        for (int y = 0; y < 5; y++) {
+            walled.positionOrNull(1, y).setMoveCost(Position.IMPASSABLE);
+        }
+        Army.resetNames();
+        Warrior.resetNames();
+        try {
+            Army archers = new Army("Archers");
+            Army hidden = new Army("Hidden");
+            Warrior archer = new Warrior("archer", 99, 1, 1, 1, 1, 1, 3, ImagePath.NONE);
+            Warrior lurker = new Warrior("lurker", 99, 1, 1, 1, 1, 1, 1, ImagePath.NONE);
+            archers.addWarrior(archer);
+            hidden.addWarrior(lurker);
+            archer.placeWarrior(walled, 0, 2);
+            lurker.placeWarrior(walled, 2, 2);
+            archers.beginTurn();
+            battle = new Battle(walled, Arrays.asList(archers, hidden));
+            assertEquals(Battle.DESELECT, battle.selectPosition(lurker.getPosition()));
+            assertNull(battle.getActiveWarrior());
+            assertEquals(Battle.SELECT, battle.selectPosition(archer.getPosition()));
+            assertEquals(Battle.MOVE, battle.selectPosition(lurker.getPosition()));
+            assertEquals(archer, battle.getActiveWarrior());
+            try {
+                battle.battleWarrior();
+                fail("Should have thrown exception");
+            } catch (TooFarException e) {
+                // pass
+            }
+            assertEquals(99, lurker.getHP());
+            assertTrue(archer.getCanAttack());
+
+            walled.positionOrNull(1, 2).setMoveCost(1);
+            battle.deselectPosition();
+            assertEquals(Battle.SELECT, battle.selectPosition(archer.getPosition()));
+            assertEquals(Battle.BATTLE, battle.selectPosition(lurker.getPosition()));
+            battle.battleWarrior();
+            assertFalse(archer.getCanAttack());
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception");
+        }
+    }
+
+    @Test
+    void testThreatMap() {
+        ThreatMap threats = battle.getThreatMap();
+        assertEquals("1", threats.getViewer());
+        for (Position pos : battle) {
+            int seen = 0;
+            for (Army army : Arrays.asList(army2, army3)) {
+                for (Warrior enemy : army) {
+                    Position at = enemy.getPosition();
+                    if (battle.getVisibility().isVisible("1", at.getPosX(), at.getPosY())
+                            && pos.getDistance(at) <= enemy.getRealMovement() + enemy.getRealRange()) {
+                        seen++;
+                    }
+                }
+            }
+            assertEquals(seen, threats.getThreatCount("1", pos.getPosX(), pos.getPosY()));
+        }
+        battle.endArmyTurn();
+        battle.incrementTurn();
+        assertEquals("2", threats.getViewer());
+        battle.setActiveArmyIndex(2);
+        assertEquals("3", threats.getViewer());
+    }
+
+    @Test
+    void testClose() {
+        int listeners = stage.getCellListenerCount();
+        Battle other = new Battle(stage, Arrays.asList(army1, army2, army3));
+        assertEquals(listeners + 3, stage.getCellListenerCount());
+        other.close();
+        battle.close();
+        assertEquals(listeners - 3, stage.getCellListenerCount());
+    }
+
     @Test
     void testComputerizedActions() {
         int attackers = army1.canAttack().size();
@@ -390,23 +487,43 @@ public class BattleTest {
     }
 
     @Test
-    // note: this does not test which colours are being produced
     void testPositionColoursValid() {
-        Map<Position, Color> colorMap = battle.positionColors();
-        for (Position pos : stage) {
-            assertTrue(colorMap.containsKey(pos));
-        }
+        Color[] colors = battle.positionColors();
+        assertEquals(stage.getFarthestRight() + 1, battle.getStageWidth());
+        assertEquals(battle.getStageWidth() * battle.getStageHeight(), colors.length);
         for (Position pos : battle) {
-            assertTrue(colorMap.containsKey(pos));
+            assertEquals(UiFormatter.BLANK, colors[pos.getPosY() * battle.getStageWidth() + pos.getPosX()]);
         }
         battle.selectPosition(w2);
-        colorMap = battle.positionColors();
-        for (Position pos : battle) {
-            assertTrue(colorMap.containsKey(pos));
-        }
+        assertColoursMatch(battle.positionColors(), w2.getRealMovement(), w2.getRealRange(), true);
         battle.selectPosition(w7);
+        assertColoursMatch(battle.positionColors(), w7.getRealMovement(), w7.getRealRange(), true);
+        battle.selectPosition(w1);
+        w1.setCanMove(false);
+        assertColoursMatch(battle.positionColors(), 0, w1.getRealRange(), false);
+    }
+
+    // EFFECTS: checks that colors gives every position the colour it has from the active warrior's reach and
+    //          the threats against the active faction
+    private void assertColoursMatch(Color[] colors, int movement, int range, boolean showMoves) {
+        Warrior active = battle.getActiveWarrior();
+        boolean ours = active.getFaction().equals(battle.getActiveFaction().getFactionName());
+        ReachableSet reachable = battle.getReachabilityCache().get(active, movement, range);
         for (Position pos : battle) {
-            assertTrue(colorMap.containsKey(pos));
+            Color expected = UiFormatter.BLANK;
+            if (reachable.isOrigin(pos.getPosX(), pos.getPosY())) {
+                expected = ours ? UiFormatter.PLAYER1_UNIT : UiFormatter.PLAYER2_UNIT;
+            } else if (showMoves && reachable.canStand(pos.getPosX(), pos.getPosY())) {
+                expected = ours ? UiFormatter.CLOSE_GOOD : UiFormatter.CLOSE_EVIL;
+                ThreatMap threats = battle.getThreatMap();
+                if (ours && threats.getThreatCount(active.getFaction(), pos.getPosX(), pos.getPosY()) > 0) {
+                    expected = UiFormatter.THREATENED_GOOD;
+                }
+            } else if (reachable.inAttackRange(pos.getPosX(), pos.getPosY())) {
+                expected = showMoves ? (ours ? UiFormatter.FAR_GOOD : UiFormatter.FAR_EVIL)
+                        : (ours ? UiFormatter.CLOSE_GOOD : UiFormatter.CLOSE_EVIL);
+            }
+            assertEquals(expected, colors[pos.getPosY() * battle.getStageWidth() + pos.getPosX()]);
         }
     }
 }
@@ -0,0 +1,147 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for the Bitboard class
+public class BitboardTest {
+
+    private Bitboard board;
+    private Bitboard other;
+
+    @BeforeEach
+    void setup() {
+        board = new Bitboard(150, 3);
+        other = new Bitboard(150, 3);
+    }
+
+    @Test
+    void testSetAndClear() {
+        assertEquals(150, board.getWidth());
+        assertEquals(3, board.getLength());
+        assertFalse(board.get(64, 1));
+        board.set(64, 1);
+        board.set(149, 2);
+        assertTrue(board.get(64, 1));
+        assertTrue(board.get(149, 2));
+        assertFalse(board.get(64, 0));
+        assertFalse(board.get(64, 2));
+        board.clear(64, 1);
+        assertFalse(board.get(64, 1));
+        assertTrue(board.get(149, 2));
+    }
+
+    @Test
+    void testRowQueries() {
+        board.set(3, 1);
+        board.set(70, 1);
+        board.set(149, 1);
+        assertTrue(board.anyInRow(1, 0, 3, null));
+        assertFalse(board.anyInRow(1, 4, 69, null));
+        assertTrue(board.anyInRow(1, 4, 70, null));
+        assertFalse(board.anyInRow(0, 0, 149, null));
+        assertEquals(3, board.countInRow(1, 0, 149));
+        assertEquals(2, board.countInRow(1, 3, 70));
+        assertEquals(1, board.countInRow(1, 71, 149));
+        other.set(70, 1);
+        assertFalse(board.anyInRow(1, 4, 148, other));
+        assertTrue(board.anyInRow(1, 4, 149, other));
+    }
+
+    @Test
+    void testNextClear() {
+        assertEquals(0, board.nextClear(0, 0));
+        assertEquals(151, board.nextClear(1, 1));
+        for (int x = 0; x < 150; x++) {
+            board.set(x, 0);
+        }
+        board.set(0, 1);
+        assertEquals(151, board.nextClear(0, 0));
+        assertEquals(151, board.nextClear(149, 0));
+        for (int x = 0; x < 150; x++) {
+            board.set(x, 2);
+        }
+        assertEquals(299, board.nextClear(149, 1));
+        board.set(149, 1);
+        assertEquals(-1, board.nextClear(149, 1));
+    }
+
+    @Test
+    void testNextSetAndCount() {
+        assertEquals(-1, board.nextSet(0, 0));
+        assertEquals(0, board.count());
+        board.set(70, 0);
+        board.set(3, 2);
+        assertEquals(70, board.nextSet(0, 0));
+        assertEquals(70, board.nextSet(70, 0));
+        assertEquals(303, board.nextSet(71, 0));
+        assertEquals(-1, board.nextSet(4, 2));
+        assertEquals(2, board.count());
+    }
+
+    @Test
+    void testMasking() {
+        board.set(1, 0);
+        board.set(65, 1);
+        board.set(140, 2);
+        other.set(65, 1);
+        other.set(100, 2);
+        Bitboard copy = board.copy();
+        copy.and(other);
+        assertEquals(1, copy.count());
+        assertTrue(copy.get(65, 1));
+        board.andNot(other);
+        assertEquals(2, board.count());
+        assertFalse(board.get(65, 1));
+        assertEquals(2, other.copy().count());
+        board.retainRect(-5, 1, 139, 7);
+        assertEquals(0, board.count());
+        copy.retainRect(65, 1, 65, 1);
+        assertTrue(copy.get(65, 1));
+        copy.retainRect(66, 0, 149, 2);
+        assertEquals(0, copy.count());
+    }
+
+    @Test
+    void testDilate() {
+        Bitboard small = new Bitboard(7, 7);
+        small.set(3, 3);
+        assertEquals(1, small.dilate(0).count());
+        Bitboard diamond = small.dilate(2);
+        assertEquals(13, diamond.count());
+        for (int x = 0; x < 7; x++) {
+            for (int y = 0; y < 7; y++) {
+                assertEquals(Math.abs(x - 3) + Math.abs(y - 3) <= 2, diamond.get(x, y));
+            }
+        }
+        assertEquals(49, small.dilate(6).count());
+        assertEquals(1, small.count());
+        board.set(63, 0);
+        board.set(149, 2);
+        Bitboard grown = board.dilate(1);
+        assertTrue(grown.get(64, 0));
+        assertTrue(grown.get(62, 0));
+        assertTrue(grown.get(63, 1));
+        assertTrue(grown.get(148, 2));
+        assertEquals(7, grown.count());
+        assertEquals(2, board.count());
+    }
+
+    @Test
+    void testWindow() {
+        board.set(0, 0);
+        board.set(64, 1);
+        board.set(130, 2);
+        Bitboard window = board.window(-2, -1, 70, 3);
+        assertEquals(70, window.getWidth());
+        assertTrue(window.get(2, 1));
+        assertTrue(window.get(66, 2));
+        assertEquals(2, window.count());
+        window = board.window(100, 1, 64, 5);
+        assertTrue(window.get(30, 1));
+        assertEquals(1, window.count());
+        assertEquals(0, board.window(150, 0, 10, 3).count());
+    }
+}
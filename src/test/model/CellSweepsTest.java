@@ -0,0 +1,37 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for the CellSweeps class
+public class CellSweepsTest {
+
+    @Test
+    void testRangeSweeps() {
+        int[] cells = new int[100];
+        CellSweeps.add(cells, 10, 90, 3);
+        CellSweeps.raise(cells, 0, 20, 5);
+        assertEquals(5, cells[0]);
+        assertEquals(5, cells[15]);
+        assertEquals(3, cells[50]);
+        assertEquals(0, cells[95]);
+        int[] other = new int[100];
+        Arrays.fill(other, 4);
+        CellSweeps.raiseAll(other, cells);
+        CellSweeps.addAll(cells, other);
+        assertEquals(10, cells[0]);
+        assertEquals(7, cells[50]);
+        assertEquals(4, cells[95]);
+        assertEquals(100, CellSweeps.countAtLeast(cells, 1));
+        assertEquals(20, CellSweeps.countAtLeast(cells, 8));
+        assertEquals(0, CellSweeps.countAtLeast(cells, Integer.MAX_VALUE));
+        CellSweeps.addAll(cells, 50, cells, 0, 10);
+        assertEquals(17, cells[50]);
+        assertEquals(17, cells[59]);
+        assertEquals(7, cells[60]);
+        assertEquals(10, cells[0]);
+    }
+}
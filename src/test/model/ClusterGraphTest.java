@@ -0,0 +1,123 @@
+package model;
+
+import model.exceptions.CheckedGameException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ui.ImagePath;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for the ClusterGraph class
+public class ClusterGraphTest {
+
+    private Stage stage;
+    private Warrior hero;
+    private Warrior enemy;
+
+    @BeforeEach
+    void setup() {
+        stage = new Stage(40, 40);
+        Warrior.resetNames();
+        try {
+            hero = new Warrior("hero", 5, 5, 5, 5, 5, 3, 1, ImagePath.NONE);
+            enemy = new Warrior("enemy", 5, 5, 5, 5, 5, 3, 1, ImagePath.NONE);
+            hero.setFaction("Good");
+            enemy.setFaction("Bad");
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+    }
+
+    @Test
+    void testOpenRoute() {
+        List<Position> route = stage.route(0, 0, 39, 39);
+        assertEquals(stage.positionOrNull(0, 0), route.get(0));
+        assertEquals(stage.positionOrNull(39, 39), route.get(route.size() - 1));
+        for (int i = 1; i < route.size() - 1; i++) {
+            Position crossing = route.get(i);
+            assertTrue(crossing.getPosX() % 16 == 0 || crossing.getPosX() % 16 == 15
+                    || crossing.getPosY() % 16 == 0 || crossing.getPosY() % 16 == 15);
+        }
+        assertEquals(2, stage.route(3, 3, 7, 9).size());
+    }
+
+    @Test
+    void testCostlyRoute() {
+        int side = 400;
+        Stage maze = new Stage(side, side);
+        for (Position pos : maze) {
+            int y = pos.getPosY();
+            boolean gap = (y % 4 == 1 && pos.getPosX() == side - 1) || (y % 4 == 3 && pos.getPosX() == 0);
+            pos.setMoveCost(y % 2 == 1 && !gap ? Position.IMPASSABLE : Position.MAX_MOVE_COST);
+        }
+        List<Position> route = maze.route(0, 0, 0, side - 2);
+        assertNotNull(route);
+        assertEquals(maze.positionOrNull(0, side - 2), route.get(route.size() - 1));
+    }
+
+    @Test
+    void testRouteThroughGap() {
+        for (int y = 0; y < 40; y++) {
+            if (y != 35) {
+                stage.positionOrNull(16, y).setMoveCost(Position.IMPASSABLE);
+            }
+        }
+        List<Position> route = stage.route(2, 2, 30, 2);
+        assertTrue(route.contains(stage.positionOrNull(15, 35)));
+        assertTrue(route.contains(stage.positionOrNull(16, 35)));
+        stage.positionOrNull(16, 35).setMoveCost(Position.IMPASSABLE);
+        assertNull(stage.route(2, 2, 30, 2));
+        stage.positionOrNull(16, 35).setMoveCost(1);
+        assertNotNull(stage.route(2, 2, 30, 2));
+    }
+
+    @Test
+    void testRouteAroundUnits() {
+        try {
+            for (int y = 0; y < 40; y++) {
+                Warrior wall = new Warrior("wall" + y, 5, 5, 5, 5, 5, 3, 1, ImagePath.NONE);
+                if (y != 20) {
+                    wall.placeWarrior(stage, 15, y);
+                }
+            }
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+        List<Position> route = stage.route(0, 0, 39, 0);
+        assertTrue(route.contains(stage.positionOrNull(15, 20)));
+    }
+
+    @Test
+    void testOnlyChangedClustersRebuilt() {
+        ClusterGraph clusters = stage.clusters();
+        stage.route(0, 0, 39, 39);
+        int builds = clusters.getBuilds();
+        assertTrue(builds > 0);
+        stage.route(0, 0, 39, 39);
+        assertEquals(builds, clusters.getBuilds());
+        stage.positionOrNull(5, 5).setMoveCost(3);
+        stage.route(0, 0, 39, 39);
+        assertEquals(builds + 1, clusters.getBuilds());
+        stage.positionOrNull(15, 5).setMoveCost(3);
+        stage.route(0, 0, 39, 39);
+        assertTrue(clusters.getBuilds() <= builds + 3);
+    }
+
+    @Test
+    void testApproach() {
+        try {
+            hero.placeWarrior(stage, 0, 0);
+            enemy.placeWarrior(stage, 30, 0);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+        assertFalse(hero.approach(stage));
+        hero.setCanMove(true);
+        assertFalse(hero.findMove(stage));
+        assertTrue(hero.approach(stage));
+        assertEquals(stage.positionOrNull(3, 0), hero.getPosition());
+        assertFalse(hero.getCanMove());
+    }
+}
@@ -0,0 +1,133 @@
+package model;
+
+import model.exceptions.CheckedGameException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ui.ImagePath;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for the CombatForecaster and CombatForecast classes
+public class CombatForecasterTest {
+
+    private CombatForecaster forecaster;
+
+    @BeforeEach
+    void setup() {
+        forecaster = new CombatForecaster();
+        Warrior.resetNames();
+    }
+
+    @Test
+    void testSingleBlow() {
+        CombatForecast forecast = forecaster.forecast(5, 4, 0, 30, 2, 0, 5, 0, true, true);
+        assertEquals(0.75, forecast.getDefenderHpChance(2), 1e-12);
+        assertEquals(1.0 / 12, forecast.getDefenderHpChance(1), 1e-12);
+        assertEquals(1.0 / 6, forecast.getDefenderDeathChance(), 1e-12);
+        assertEquals(1, forecast.getAttackerHpChance(5), 1e-12);
+        assertEquals(0, forecast.getAttackerDeathChance(), 1e-12);
+        assertEquals(1.0 / 12, forecast.getChance(5, 1), 1e-12);
+        assertEquals(0, forecast.getChance(4, 1), 1e-12);
+        assertEquals(0, forecast.getChance(5, 3), 1e-12);
+        assertEquals(5, forecast.getExpectedAttackerHp(), 1e-12);
+        assertEquals(1.5 + 1.0 / 12, forecast.getExpectedDefenderHp(), 1e-12);
+        assertTrue(forecast.hasSecondBlow());
+    }
+
+    @Test
+    void testSureBlows() {
+        CombatForecast forecast = forecaster.forecast(10, 6, 2, 0, 3, 5, 0, 0, false, true);
+        assertEquals(1, forecast.getAttackerHpChance(7), 1e-12);
+        assertEquals(1, forecast.getDefenderHpChance(0), 1e-12);
+        assertEquals(1, forecast.getChance(7, 0), 1e-12);
+        forecast = forecaster.forecast(10, 6, 2, 0, 3, 5, 0, 0, true, false);
+        assertEquals(1, forecast.getChance(10, 0), 1e-12);
+        assertFalse(forecast.hasSecondBlow());
+        forecast = forecaster.forecast(3, 6, 2, 0, 10, 5, 0, 0, false, true);
+        assertEquals(1, forecast.getChance(0, 10), 1e-12);
+        assertEquals(1, forecast.getDefenderHpChance(10), 1e-12);
+    }
+
+    @Test
+    void testChancesAddUp() {
+        CombatForecast forecast = forecaster.forecast(12, 7, 3, 25, 9, 6, 4, 45, false, true);
+        double attacker = 0;
+        double defender = 0;
+        double joint = 0;
+        for (int hp = 0; hp <= 12; hp++) {
+            attacker += forecast.getAttackerHpChance(hp);
+            for (int other = 0; other <= 9; other++) {
+                joint += forecast.getChance(hp, other);
+            }
+        }
+        for (int hp = 0; hp <= 9; hp++) {
+            defender += forecast.getDefenderHpChance(hp);
+        }
+        assertEquals(1, attacker, 1e-12);
+        assertEquals(1, defender, 1e-12);
+        assertEquals(1, joint, 1e-12);
+        assertEquals(0, forecast.getChance(13, 0));
+        assertEquals(0, forecast.getChance(-1, 0));
+    }
+
+    @Test
+    void testMatchesPlayedBattles() {
+        int trials = 20000;
+        int[] attackerHps = new int[7];
+        int[] defenderHps = new int[6];
+        SplittableRandom random = new SplittableRandom(23);
+        CombatForecast forecast = null;
+        EventLog.getInstance().setEnabled(false);
+        try {
+            for (int i = 0; i < trials; i++) {
+                Warrior.resetNames();
+                Stage stage = new Stage(1, 2);
+                Warrior attacker = new Warrior("attacker", 6, 4, 1, 2, 20, 1, 1, ImagePath.NONE);
+                Warrior defender = new Warrior("defender", 5, 4, 10, 3, 40, 1, 1, ImagePath.NONE);
+                attacker.placeWarrior(stage, 0, 0);
+                defender.placeWarrior(stage, 1, 0);
+                forecast = forecaster.forecast(attacker, defender);
+                attacker.battle(defender, random);
+                attackerHps[attacker.getHP()]++;
+                defenderHps[defender.getHP()]++;
+            }
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        } finally {
+            EventLog.getInstance().setEnabled(true);
+        }
+        for (int hp = 0; hp < attackerHps.length; hp++) {
+            assertEquals(forecast.getAttackerHpChance(hp), (double) attackerHps[hp] / trials, 0.015);
+        }
+        for (int hp = 0; hp < defenderHps.length; hp++) {
+            assertEquals(forecast.getDefenderHpChance(hp), (double) defenderHps[hp] / trials, 0.015);
+        }
+        assertEquals(1, forecaster.getMisses());
+        assertEquals(trials - 1, forecaster.getHits());
+    }
+
+    @Test
+    void testCacheKeysOnModifiers() {
+        Stage stage = new Stage(1, 3);
+        try {
+            Warrior attacker = new Warrior("attacker", 6, 4, 1, 2, 20, 2, 1, ImagePath.NONE);
+            Warrior defender = new Warrior("defender", 5, 4, 1, 3, 40, 1, 1, ImagePath.NONE);
+            attacker.placeWarrior(stage, 0, 0);
+            defender.placeWarrior(stage, 2, 0);
+            CombatForecast far = forecaster.forecast(attacker, defender);
+            assertSame(far, forecaster.forecast(attacker, defender));
+            assertFalse(far.hasSecondBlow());
+            assertEquals(1, far.getAttackerHpChance(6), 1e-12);
+            stage.positionOrNull(2, 0).setDefenseModifier(2);
+            CombatForecast guarded = forecaster.forecast(attacker, defender);
+            assertNotSame(far, guarded);
+            assertTrue(guarded.getDefenderDeathChance() < far.getDefenderDeathChance());
+            assertEquals(2, forecaster.getMisses());
+            assertEquals(1, forecaster.getHits());
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for the CriticalHitTable class
+public class CriticalHitTableTest {
+
+    @Test
+    void testChances() {
+        CriticalHitTable table = new CriticalHitTable(30);
+        assertEquals(0.5, table.getCritChance(), 1e-12);
+        assertEquals(0.5, table.chanceOf(0), 1e-12);
+        assertEquals(0.25, table.chanceOf(1), 1e-12);
+        assertEquals(0.5 / 6, table.chanceOf(2), 1e-12);
+        assertEquals(0.5 / (1000.0 * 1001), table.chanceOf(1000), 1e-15);
+        assertEquals(1, table.chanceOfAtLeast(0), 1e-12);
+        assertEquals(0.5, table.chanceOfAtLeast(1), 1e-12);
+        assertEquals(0.5 / 3, table.chanceOfAtLeast(3), 1e-12);
+        double total = 0;
+        for (int bonus = 0; bonus < 50; bonus++) {
+            total += table.chanceOf(bonus);
+        }
+        assertEquals(1, total + table.chanceOfAtLeast(50), 1e-12);
+    }
+
+    @Test
+    void testNoLuck() {
+        CriticalHitTable table = new CriticalHitTable(0);
+        assertEquals(0, table.getCritChance());
+        assertEquals(1, table.chanceOf(0));
+        assertEquals(0, table.chanceOf(5));
+        assertEquals(0, table.chanceOfAtLeast(1));
+        assertEquals(0, new CriticalHitTable(-4).getCritChance());
+    }
+}
@@ -0,0 +1,126 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for the DiamondCounts class
+public class DiamondCountsTest {
+
+    private static final int WIDTH = 9;
+    private static final int LENGTH = 6;
+
+    private DiamondCounts counts;
+
+    @BeforeEach
+    void setup() {
+        counts = new DiamondCounts(WIDTH, LENGTH);
+    }
+
+    @Test
+    void testEmpty() {
+        assertEquals(0, counts.countWithin("Good", 3, 3, 4));
+        assertEquals(0, counts.countOthersWithin("Good", 3, 3, 4));
+    }
+
+    @Test
+    void testDiamond() {
+        counts.add("Good", 4, 3, 1);
+        counts.add("Bad", 2, 2, 1);
+        counts.add("Bad", 8, 0, 1);
+        counts.add("Ugly", 0, 5, 1);
+        assertEquals(1, counts.countWithin("Good", 4, 3, 0));
+        assertEquals(0, counts.countWithin("Bad", 4, 3, 2));
+        assertEquals(1, counts.countWithin("Bad", 4, 3, 3));
+        assertEquals(1, counts.countWithin("Bad", 3, 2, 1));
+        assertEquals(0, counts.countWithin("Bad", 3, 3, 1));
+        assertEquals(2, counts.countOthersWithin("Good", 1, 4, 3));
+        assertEquals(3, counts.countOthersWithin("Good", 4, 3, 20));
+        assertEquals(2, counts.countOthersWithin("Bad", 4, 3, 20));
+        counts.add("Bad", 2, 2, -1);
+        assertEquals(0, counts.countWithin("Bad", 4, 3, 3));
+        assertEquals(1, counts.countWithin("Bad", 8, 0, 0));
+    }
+
+    @Test
+    void testMatchesScan() {
+        Random random = new Random(210);
+        boolean[][] good = new boolean[WIDTH][LENGTH];
+        for (int i = 0; i < 20; i++) {
+            int x = random.nextInt(WIDTH);
+            int y = random.nextInt(LENGTH);
+            counts.add("Good", x, y, good[x][y] ? -1 : 1);
+            good[x][y] = !good[x][y];
+        }
+        for (int x = 0; x < WIDTH; x++) {
+            for (int y = 0; y < LENGTH; y++) {
+                for (int radius = 0; radius < WIDTH + LENGTH; radius += 2) {
+                    int expected = 0;
+                    for (int ux = 0; ux < WIDTH; ux++) {
+                        for (int uy = 0; uy < LENGTH; uy++) {
+                            if (good[ux][uy] && Math.abs(ux - x) + Math.abs(uy - y) <= radius) {
+                                expected++;
+                            }
+                        }
+                    }
+                    assertEquals(expected, counts.countWithin("Good", x, y, radius));
+                    assertEquals(expected, counts.countOthersWithin("Bad", x, y, radius));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testMatchesScanAcrossTiles() {
+        int width = 3 * StageChunk.SIZE + 5;
+        int length = 2 * StageChunk.SIZE + 3;
+        DiamondCounts wide = new DiamondCounts(width, length);
+        Random random = new Random(210);
+        boolean[][] bad = new boolean[width][length];
+        for (int i = 0; i < 300; i++) {
+            int x = random.nextInt(width);
+            int y = random.nextInt(length);
+            wide.add("Bad", x, y, bad[x][y] ? -1 : 1);
+            bad[x][y] = !bad[x][y];
+        }
+        for (int i = 0; i < 300; i++) {
+            int x = random.nextInt(width);
+            int y = random.nextInt(length);
+            int radius = random.nextInt(width + length);
+            int expected = 0;
+            for (int ux = 0; ux < width; ux++) {
+                for (int uy = 0; uy < length; uy++) {
+                    if (bad[ux][uy] && Math.abs(ux - x) + Math.abs(uy - y) <= radius) {
+                        expected++;
+                    }
+                }
+            }
+            assertEquals(expected, wide.countOthersWithin("Good", x, y, radius));
+            assertEquals(expected, wide.countWithin("Bad", x, y, radius));
+        }
+    }
+
+    @Test
+    void testTilesDropped() {
+        DiamondCounts large = new DiamondCounts(2000, 2000);
+        assertEquals(0, large.getAllocatedTiles());
+        large.add("Good", 0, 0, 1);
+        large.add("Good", 1, 0, 1);
+        large.add("Bad", 1999, 1999, 1);
+        large.add("Bad", 1000, 3, 1);
+        assertEquals(3, large.getAllocatedTiles());
+        assertEquals(2, large.countOthersWithin("Good", 1000, 1000, 2000));
+        assertEquals(1, large.countOthersWithin("Good", 1000, 1000, 997));
+        assertEquals(2, large.countWithin("Good", 1999, 1999, 3998));
+        assertEquals(1, large.countWithin("Good", 1999, 1999, 3997));
+        large.add("Good", 1, 0, -1);
+        assertEquals(3, large.getAllocatedTiles());
+        large.add("Good", 0, 0, -1);
+        large.add("Bad", 1000, 3, -1);
+        assertEquals(1, large.getAllocatedTiles());
+        assertEquals(0, large.countWithin("Good", 0, 0, 4000));
+    }
+}
@@ -0,0 +1,57 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static java.lang.Math.abs;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for the DiamondOffsets class
+public class DiamondOffsetsTest {
+
+    @Test
+    void testRadiusZero() {
+        DiamondOffsets diamond = DiamondOffsets.of(0);
+        assertEquals(0, diamond.getRadius());
+        assertEquals(1, diamond.size());
+        assertEquals(0, diamond.getX(0));
+        assertEquals(0, diamond.getY(0));
+        assertEquals(0, diamond.ringStart(0));
+        assertEquals(1, diamond.ringEnd(0));
+    }
+
+    @Test
+    void testRingOrder() {
+        DiamondOffsets diamond = DiamondOffsets.of(2);
+        assertEquals(13, diamond.size());
+        assertEquals(1, diamond.ringStart(1));
+        assertEquals(5, diamond.ringStart(2));
+        assertEquals(13, diamond.ringEnd(2));
+        int[][] ringOne = {{1, 0}, {0, 1}, {0, -1}, {-1, 0}};
+        for (int i = 0; i < ringOne.length; i++) {
+            assertEquals(ringOne[i][0], diamond.getX(diamond.ringStart(1) + i));
+            assertEquals(ringOne[i][1], diamond.getY(diamond.ringStart(1) + i));
+        }
+        assertEquals(2, diamond.getX(diamond.ringStart(2)));
+        assertEquals(0, diamond.getY(diamond.ringStart(2)));
+        assertEquals(1, diamond.getX(diamond.ringStart(2) + 1));
+        assertEquals(1, diamond.getY(diamond.ringStart(2) + 1));
+    }
+
+    @Test
+    void testCoversDiamond() {
+        DiamondOffsets diamond = DiamondOffsets.of(30);
+        assertEquals(2 * 30 * 31 + 1, diamond.size());
+        Set<String> seen = new HashSet<>();
+        for (int d = 0; d <= 30; d++) {
+            for (int i = diamond.ringStart(d); i < diamond.ringEnd(d); i++) {
+                assertEquals(d, abs(diamond.getX(i)) + abs(diamond.getY(i)));
+                assertTrue(seen.add(diamond.getX(i) + "," + diamond.getY(i)));
+            }
+        }
+        assertEquals(diamond.size(), seen.size());
+        assertSame(diamond, DiamondOffsets.of(30));
+    }
+}
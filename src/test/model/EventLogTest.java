@@ -50,4 +50,25 @@ public class EventLogTest {
         assertEquals("Event log cleared.", itr.next().getDescription());
         assertFalse(itr.hasNext());
     }
+
+    @Test
+    public void testEnabledPerThread() throws InterruptedException {
+        EventLog el = EventLog.getInstance();
+        el.clear();
+        Thread silent = new Thread(() -> {
+            el.setEnabled(false);
+            el.logEvent(new GameEvent("A4"));
+            el.logEvent(() -> {
+                throw new IllegalStateException("Description should not be built");
+            });
+        });
+        silent.start();
+        silent.join();
+        assertTrue(el.isEnabled());
+        el.logEvent(e1);
+        Iterator<GameEvent> itr = el.iterator();
+        assertEquals("Event log cleared.", itr.next().getDescription());
+        assertEquals(e1, itr.next());
+        assertFalse(itr.hasNext());
+    }
 }
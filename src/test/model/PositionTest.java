@@ -98,4 +98,18 @@ public class PositionTest {
         assertEquals(4, pos1.getMovementModifier());
         assertEquals(8, pos1.getRangeModifier());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testMoveCost() {
+        assertEquals(1, pos1.getMoveCost());
+        assertTrue(pos1.isPassable());
+        pos1.setMoveCost(Position.MAX_MOVE_COST);
+        assertEquals(Position.MAX_MOVE_COST, pos1.getMoveCost());
+        pos1.setMoveCost(Position.IMPASSABLE);
+        assertEquals(Position.IMPASSABLE, pos1.getMoveCost());
+        assertFalse(pos1.isPassable());
+        assertEquals(0, pos1.getStrengthModifier());
+        pos1.setMoveCost(1);
+        assertTrue(pos1.isPassable());
+    }
+}
@@ -0,0 +1,93 @@
+package model;
+
+import model.exceptions.CheckedGameException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ui.ImagePath;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for the ReachabilityCache class
+public class ReachabilityCacheTest {
+
+    private Stage stage;
+    private ReachabilityCache cache;
+    private Warrior w1;
+    private Warrior w2;
+
+    @BeforeEach
+    void setup() {
+        stage = new Stage(20, 20);
+        cache = new ReachabilityCache(stage);
+        Army.resetNames();
+        Warrior.resetNames();
+        try {
+            w1 = new Warrior("w1", 5, 5, 5, 5, 5, 2, 1, ImagePath.NONE);
+            w2 = new Warrior("w2", 5, 5, 5, 5, 5, 2, 1, ImagePath.NONE);
+            w1.setFaction("Good");
+            w2.setFaction("Bad");
+            w1.placeWarrior(stage, 0, 0);
+            w2.placeWarrior(stage, 19, 19);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+    }
+
+    @Test
+    void testHitsAndMisses() {
+        ReachableSet first = cache.get(w1, 2, 1);
+        assertSame(first, cache.get(w1, 2, 1));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertNotSame(first, cache.get(w1, 0, 1));
+        cache.get(w2, 2, 1);
+        assertEquals(1, cache.getHits());
+        assertEquals(3, cache.getMisses());
+        assertEquals(2, cache.getSize());
+    }
+
+    @Test
+    void testInvalidation() {
+        ReachableSet first = cache.get(w1, 2, 1);
+        cache.get(w2, 2, 1);
+        stage.positionOrNull(10, 10).setModifiers(1, 1, 1, 1, 1, 1);
+        assertSame(first, cache.get(w1, 2, 1));
+        stage.positionOrNull(4, 0).setDefenseModifier(2);
+        assertEquals(2, cache.getSize());
+        stage.positionOrNull(4, 0).setDefenseModifier(2);
+        assertEquals(2, cache.getSize());
+        stage.positionOrNull(2, 1).setDefenseModifier(1);
+        assertEquals(1, cache.getSize());
+        ReachableSet second = cache.get(w1, 2, 1);
+        assertNotSame(first, second);
+        w2.setCanMove(true);
+        try {
+            w2.move(stage, -2, 0);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+        assertEquals(1, cache.getSize());
+        assertSame(second, cache.get(w1, 2, 1));
+        w1.reduceHP(5);
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    void testBattleUsesCache() {
+        try {
+            Army good = new Army("Good");
+            Army bad = new Army("Bad");
+            good.addWarrior(w1);
+            bad.addWarrior(w2);
+            good.beginTurn();
+            Battle battle = new Battle(stage, java.util.Arrays.asList(good, bad));
+            battle.selectPosition(w1);
+            battle.positionColors();
+            battle.positionColors();
+            assertEquals(1, battle.getReachabilityCache().getMisses());
+            assertEquals(1, battle.getReachabilityCache().getHits());
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package model;
+
+import model.exceptions.CheckedGameException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ui.ImagePath;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for the Reachability class
+public class ReachabilityTest {
+
+    private Stage stage;
+    private Reachability reachability;
+    private ReachableSet reachable;
+    private Warrior hero;
+    private Warrior ally;
+    private Warrior enemy1;
+    private Warrior enemy2;
+    private Warrior enemy3;
+
+    @BeforeEach
+    void setup() {
+        stage = new Stage(7, 7);
+        reachability = stage.reachability();
+        Warrior.resetNames();
+        try {
+            hero = new Warrior("hero", 5, 5, 5, 5, 5, 3, 1, ImagePath.NONE);
+            ally = new Warrior("ally", 5, 5, 5, 5, 5, 3, 1, ImagePath.NONE);
+            enemy1 = new Warrior("enemy1", 5, 5, 5, 5, 5, 3, 1, ImagePath.NONE);
+            enemy2 = new Warrior("enemy2", 5, 5, 5, 5, 5, 3, 1, ImagePath.NONE);
+            enemy3 = new Warrior("enemy3", 5, 5, 5, 5, 5, 3, 1, ImagePath.NONE);
+            hero.setFaction("Good");
+            ally.setFaction("Good");
+            enemy1.setFaction("Bad");
+            enemy2.setFaction("Bad");
+            enemy3.setFaction("Bad");
+            hero.placeWarrior(stage, 0, 0);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+    }
+
+    @Test
+    void testOpenStage() {
+        reachable = reachability.compute(hero, 3, 1);
+        assertTrue(reachable.isOrigin(0, 0));
+        assertFalse(reachable.isOrigin(1, 0));
+        assertEquals(0, reachability.moveDistance(0, 0));
+        assertEquals(3, reachability.moveDistance(2, 1));
+        assertEquals(-1, reachability.moveDistance(2, 2));
+        assertEquals(-1, reachability.moveDistance(-1, 0));
+        assertTrue(reachable.canStand(0, 0));
+        assertTrue(reachable.canStand(3, 0));
+        assertTrue(reachable.inAttackRange(4, 0));
+        assertTrue(reachable.inAttackRange(2, 2));
+        assertFalse(reachable.inAttackRange(5, 0));
+        assertFalse(reachable.inAttackRange(0, 7));
+        assertTrue(reachable.getAttackable().isEmpty());
+    }
+
+    @Test
+    void testTerrainCosts() {
+        stage.positionOrNull(1, 0).setMoveCost(3);
+        stage.positionOrNull(0, 1).setMoveCost(Position.IMPASSABLE);
+        stage.positionOrNull(1, 1).setMoveCost(Position.IMPASSABLE);
+        stage.positionOrNull(2, 0).setMoveCost(2);
+        reachable = reachability.compute(hero, 5, 1);
+        assertEquals(3, reachability.moveDistance(1, 0));
+        assertEquals(5, reachability.moveDistance(2, 0));
+        assertEquals(-1, reachability.moveDistance(0, 1));
+        assertEquals(-1, reachability.moveDistance(0, 2));
+        assertEquals(-1, reachability.moveDistance(1, 2));
+        assertEquals(-1, reachability.moveDistance(3, 0));
+        assertFalse(reachable.canStand(0, 1));
+        assertTrue(reachable.inAttackRange(0, 1));
+        assertTrue(reachable.canStand(2, 0));
+        assertTrue(reachable.inAttackRange(3, 0));
+        assertFalse(reachable.canStand(3, 0));
+        assertEquals(5, reachability.moveCost(hero, 5, 2, 0));
+        assertEquals(-1, reachability.moveCost(hero, 4, 2, 0));
+        assertEquals(-1, reachability.moveCost(hero, 5, 0, 1));
+        assertEquals(-1, reachability.moveCost(hero, 5, 7, 0));
+    }
+
+    @Test
+    void testCheapestPath() {
+        for (int x = 1; x < 6; x++) {
+            stage.positionOrNull(x, 0).setMoveCost(Position.MAX_MOVE_COST);
+        }
+        stage.positionOrNull(0, 1).setMoveCost(2);
+        assertEquals(2, reachability.moveCost(hero, 20, 0, 1));
+        assertEquals(7, reachability.moveCost(hero, 20, 5, 1));
+        assertEquals(16, reachability.moveCost(hero, 20, 5, 0));
+        assertEquals(-1, reachability.moveCost(hero, 15, 5, 0));
+        reachable = reachability.compute(hero, 20, 0);
+        assertEquals(16, reachability.moveDistance(5, 0));
+        assertEquals(9, reachability.moveDistance(1, 0));
+        assertEquals(13, reachability.moveDistance(6, 6));
+    }
+
+    @Test
+    void testBlockedByEnemies() {
+        try {
+            enemy1.placeWarrior(stage, 1, 0);
+            enemy2.placeWarrior(stage, 0, 1);
+            enemy3.placeWarrior(stage, 5, 5);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+        reachable = reachability.compute(hero, 3, 1);
+        assertEquals(-1, reachability.moveDistance(1, 1));
+        assertFalse(reachable.canStand(1, 0));
+        assertTrue(reachable.inAttackRange(1, 0));
+        assertFalse(reachable.inAttackRange(1, 1));
+        assertEquals(2, reachable.getAttackable().size());
+        assertTrue(reachable.getAttackable().contains(enemy1));
+        assertTrue(reachable.getAttackable().contains(enemy2));
+        assertFalse(reachable.getAttackable().contains(enemy3));
+        assertEquals(0, reachable.countAttackSpots());
+        assertFalse(reachable.canAttackFrom(0, 0));
+    }
+
+    @Test
+    void testAttackSpots() {
+        try {
+            enemy1.placeWarrior(stage, 3, 0);
+            enemy2.placeWarrior(stage, 6, 6);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+        reachable = reachability.compute(hero, 3, 1);
+        assertEquals(1, reachable.countAttackSpots());
+        assertTrue(reachable.canAttackFrom(2, 0));
+        assertFalse(reachable.canAttackFrom(1, 0));
+        assertFalse(reachable.canAttackFrom(3, 0));
+        assertFalse(reachable.canAttackFrom(3, 1));
+        reachable = reachability.compute(hero, 3, 2);
+        assertEquals(3, reachable.countAttackSpots());
+        assertTrue(reachable.canAttackFrom(1, 0));
+        assertTrue(reachable.canAttackFrom(2, 1));
+        assertFalse(reachable.canAttackFrom(0, 1));
+        assertEquals(1, reachable.getAttackable().size());
+    }
+
+    @Test
+    void testPassThroughAllies() {
+        try {
+            ally.placeWarrior(stage, 1, 0);
+            enemy1.placeWarrior(stage, 0, 1);
+            enemy2.placeWarrior(stage, 4, 0);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+        reachable = reachability.compute(hero, 3, 1);
+        assertEquals(1, reachability.moveDistance(1, 0));
+        assertFalse(reachable.canStand(1, 0));
+        assertTrue(reachable.canStand(2, 0));
+        assertEquals(2, reachability.moveDistance(1, 1));
+        assertEquals(enemy1, reachable.getAttackable().get(0));
+        assertEquals(enemy2, reachable.getAttackable().get(1));
+        reachable = reachability.compute(hero, 0, 1);
+        assertEquals(-1, reachability.moveDistance(2, 0));
+        assertEquals(1, reachable.getAttackable().size());
+        reachable = reachability.compute(hero, 1, 0);
+        assertTrue(reachable.getAttackable().isEmpty());
+        assertFalse(reachable.inAttackRange(0, 1));
+    }
+
+    @Test
+    void testFindMoveAroundEnemies() {
+        try {
+            enemy1.placeWarrior(stage, 1, 0);
+            enemy2.placeWarrior(stage, 0, 1);
+            enemy3.placeWarrior(stage, 3, 3);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+        hero.setCanMove(true);
+        assertFalse(hero.findMove(stage));
+        assertEquals(stage.positionOrNull(0, 0), hero.getPosition());
+        enemy2.reduceHP(5);
+        assertTrue(hero.findMove(stage));
+        assertEquals(stage.positionOrNull(1, 1), hero.getPosition());
+    }
+}
@@ -0,0 +1,92 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for the RegionModifiers class
+public class RegionModifiersTest {
+
+    @Test
+    void testEmpty() {
+        RegionModifiers regions = new RegionModifiers();
+        assertEquals(0, regions.valueAt(StageGrid.STRENGTH, 0, 0));
+        assertTrue(regions.getRegions().isEmpty());
+        assertFalse(regions.remove(new StatRegion(0, 0, 1, 1, 1, 1, 1, 1, 1, 1)));
+    }
+
+    @Test
+    void testOverlappingRegions() {
+        RegionModifiers regions = new RegionModifiers();
+        StatRegion big = new StatRegion(0, 0, 9, 9, 1, 0, 0, 0, 0, 0);
+        regions.add(big);
+        regions.add(new StatRegion(5, 5, 14, 14, 2, 0, 0, -3, 0, 0));
+        regions.add(new StatRegion(5, 5, 5, 5, 4, 0, 0, 0, 0, 0));
+        assertEquals(1, regions.valueAt(StageGrid.STRENGTH, 0, 0));
+        assertEquals(1, regions.valueAt(StageGrid.STRENGTH, 9, 4));
+        assertEquals(7, regions.valueAt(StageGrid.STRENGTH, 5, 5));
+        assertEquals(3, regions.valueAt(StageGrid.STRENGTH, 6, 5));
+        assertEquals(2, regions.valueAt(StageGrid.STRENGTH, 10, 14));
+        assertEquals(0, regions.valueAt(StageGrid.STRENGTH, 15, 14));
+        assertEquals(-3, regions.valueAt(StageGrid.LUCK, 14, 14));
+        assertEquals(0, regions.valueAt(StageGrid.LUCK, 4, 4));
+        assertTrue(regions.remove(big));
+        assertEquals(0, regions.valueAt(StageGrid.STRENGTH, 0, 0));
+        assertEquals(6, regions.valueAt(StageGrid.STRENGTH, 5, 5));
+        assertEquals(2, regions.getRegions().size());
+    }
+
+    @Test
+    void testMatchesEveryCell() {
+        Random random = new Random(19);
+        RegionModifiers regions = new RegionModifiers();
+        int[][] expected = new int[40][40];
+        for (int i = 0; i < 30; i++) {
+            int left = random.nextInt(40);
+            int top = random.nextInt(40);
+            int right = left + random.nextInt(40 - left);
+            int bottom = top + random.nextInt(40 - top);
+            int amount = random.nextInt(11) - 5;
+            regions.add(new StatRegion(left, top, right, bottom, 0, 0, amount, 0, 0, 0));
+            for (int y = top; y <= bottom; y++) {
+                for (int x = left; x <= right; x++) {
+                    expected[y][x] += amount;
+                }
+            }
+        }
+        for (int y = 0; y < 40; y++) {
+            for (int x = 0; x < 40; x++) {
+                assertEquals(expected[y][x], regions.valueAt(StageGrid.DEFENSE, x, y));
+                assertEquals(0, regions.valueAt(StageGrid.SPEED, x, y));
+            }
+        }
+    }
+
+    @Test
+    void testAddAll() {
+        Random random = new Random(23);
+        RegionModifiers oneByOne = new RegionModifiers();
+        RegionModifiers atOnce = new RegionModifiers();
+        List<StatRegion> added = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            int left = random.nextInt(40);
+            int top = random.nextInt(40);
+            StatRegion region = new StatRegion(left, top, left + random.nextInt(40 - left),
+                    top + random.nextInt(40 - top), random.nextInt(5), 0, random.nextInt(11) - 5, 0, 0, 0);
+            oneByOne.add(region);
+            added.add(region);
+        }
+        atOnce.addAll(added);
+        assertEquals(added, atOnce.getRegions());
+        for (int y = 0; y < 40; y++) {
+            for (int x = 0; x < 40; x++) {
+                assertEquals(oneByOne.valueAt(StageGrid.DEFENSE, x, y), atOnce.valueAt(StageGrid.DEFENSE, x, y));
+                assertEquals(oneByOne.valueAt(StageGrid.STRENGTH, x, y), atOnce.valueAt(StageGrid.STRENGTH, x, y));
+            }
+        }
+    }
+}
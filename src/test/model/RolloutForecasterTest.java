@@ -0,0 +1,127 @@
+package model;
+
+import model.exceptions.CheckedGameException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ui.ImagePath;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for the RolloutForecaster, RolloutJob, RolloutEstimate and BattlePlan classes
+public class RolloutForecasterTest {
+
+    private static final long LONG_TIME_BOX = 60000;
+
+    private RolloutForecaster forecaster;
+    private Warrior hero;
+    private Warrior archer;
+    private Warrior brute;
+    private Warrior bystander;
+
+    @BeforeEach
+    void setup() {
+        forecaster = new RolloutForecaster(new ForkJoinPool(2));
+        Warrior.resetNames();
+        Stage stage = new Stage(3, 3);
+        try {
+            hero = new Warrior("hero", 6, 4, 1, 2, 20, 1, 1, ImagePath.NONE);
+            archer = new Warrior("archer", 8, 30, 1, 0, 0, 1, 2, ImagePath.NONE);
+            brute = new Warrior("brute", 5, 4, 10, 3, 40, 1, 1, ImagePath.NONE);
+            bystander = new Warrior("bystander", 5, 1, 1, 1, 1, 1, 1, ImagePath.NONE);
+            hero.placeWarrior(stage, 0, 0);
+            brute.placeWarrior(stage, 1, 0);
+            archer.placeWarrior(stage, 1, 2);
+            bystander.placeWarrior(stage, 2, 2);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+    }
+
+    @Test
+    void testPlan() {
+        BattlePlan plan = new BattlePlan();
+        assertEquals(0, plan.size());
+        plan.addBattle(hero, brute);
+        plan.addBattle(archer, brute);
+        assertEquals(2, plan.size());
+        assertEquals(archer, plan.getAttacker(1));
+        assertEquals(brute, plan.getDefender(1));
+        assertEquals(3, plan.getUnits().size());
+        assertEquals(hero, plan.getUnits().get(0));
+        assertEquals(archer, plan.getUnits().get(2));
+    }
+
+    @Test
+    void testMatchesExactForecast() {
+        BattlePlan plan = new BattlePlan();
+        plan.addBattle(hero, brute);
+        RolloutEstimate estimate = forecaster.start(plan, 200000, 3, LONG_TIME_BOX).await();
+        CombatForecast exact = new CombatForecaster().forecast(hero, brute);
+        assertTrue(estimate.isComplete());
+        assertEquals(200000, estimate.getRollouts());
+        assertEquals(200000, estimate.getRequested());
+        assertEquals(exact.getAttackerDeathChance(), estimate.getDeathChance(hero), 0.01);
+        assertEquals(exact.getDefenderDeathChance(), estimate.getDeathChance(brute), 0.01);
+        assertEquals(exact.getExpectedAttackerHp(), estimate.getExpectedHp(hero), 0.05);
+        assertEquals(exact.getExpectedDefenderHp(), estimate.getExpectedHp(brute), 0.05);
+        assertEquals(0, estimate.getDeathChance(bystander));
+        assertEquals(5, estimate.getExpectedHp(bystander));
+        assertEquals(6, hero.getHP());
+        assertEquals(5, brute.getHP());
+    }
+
+    @Test
+    void testBattlesInOrder() {
+        BattlePlan plan = new BattlePlan();
+        plan.addBattle(archer, brute);
+        plan.addBattle(hero, brute);
+        RolloutEstimate estimate = forecaster.start(plan, 1000, 5, LONG_TIME_BOX).await();
+        assertEquals(1, estimate.getDeathChance(brute));
+        assertEquals(0, estimate.getExpectedHp(brute));
+        assertEquals(8, estimate.getExpectedHp(archer));
+        assertEquals(6, estimate.getExpectedHp(hero));
+        assertEquals(0, estimate.getDeathChance(hero));
+    }
+
+    @Test
+    void testSameSeedSameEstimate() {
+        BattlePlan plan = new BattlePlan();
+        plan.addBattle(hero, brute);
+        plan.addBattle(brute, hero);
+        RolloutEstimate first = forecaster.start(plan, 5000, 11, LONG_TIME_BOX).await();
+        RolloutEstimate second = forecaster.start(plan, 5000, 11, LONG_TIME_BOX).await();
+        assertEquals(first.getDeathChance(hero), second.getDeathChance(hero));
+        assertEquals(first.getExpectedHp(brute), second.getExpectedHp(brute));
+    }
+
+    @Test
+    void testCancelAndTimeBox() {
+        BattlePlan plan = new BattlePlan();
+        plan.addBattle(hero, brute);
+        RolloutJob job = forecaster.start(plan, Integer.MAX_VALUE, 1, LONG_TIME_BOX);
+        job.cancel();
+        RolloutEstimate estimate = job.await();
+        assertTrue(job.isDone());
+        assertFalse(estimate.isComplete());
+        assertTrue(estimate.getRollouts() < Integer.MAX_VALUE);
+
+        long start = System.nanoTime();
+        job = forecaster.start(plan, Integer.MAX_VALUE, 1, 20);
+        estimate = job.await();
+        assertTrue(System.nanoTime() - start < 10_000_000_000L);
+        assertFalse(estimate.isComplete());
+        assertEquals(estimate.getRollouts(), job.getEstimate().getRollouts());
+    }
+
+    @Test
+    void testNoRollouts() {
+        BattlePlan plan = new BattlePlan();
+        plan.addBattle(hero, brute);
+        RolloutEstimate estimate = forecaster.start(plan, 0, 1, LONG_TIME_BOX).await();
+        assertTrue(estimate.isComplete());
+        assertEquals(0, estimate.getDeathChance(hero));
+        assertEquals(6, estimate.getExpectedHp(hero));
+    }
+}
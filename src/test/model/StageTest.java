@@ -8,8 +8,11 @@ import org.junit.jupiter.api.Test;
 import ui.ImagePath;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -137,4 +140,296 @@ public class StageTest {
             // success
         }
     }
+
+    @Test
+    void testLargeStage() {
+        Stage large = new Stage(2000, 2000);
+        assertEquals(1999, large.getFarthestBottom());
+        assertEquals(1999, large.getFarthestRight());
+        try {
+            assertNull(large.getPosition(1999, 1999).getUnit());
+            assertTrue(large.getPosition(1999, 0).placeUnit(w1));
+            large.getPosition(0, 1999).setModifiers(1, 2, 3, 4, 5, 6);
+            assertEquals(w1, large.getPosition(1999, 0).getUnit());
+            assertEquals(large.getPosition(1999, 0), w1.getPosition());
+            assertEquals(6, large.getPosition(0, 1999).getRangeModifier());
+            assertEquals(0, large.getPosition(1, 1999).getRangeModifier());
+            w1.reduceHP(1);
+            assertNull(large.getPosition(1999, 0).getUnit());
+        } catch (InvalidPositionException e) {
+            fail("Should not have thrown exception.");
+        }
+    }
+
+    @Test
+    void testPositionViews() {
+        try {
+            Position pos = stage2.getPosition(3, 4);
+            assertEquals(pos, stage2.getPosition(3, 4));
+            assertEquals(pos.hashCode(), stage2.getPosition(3, 4).hashCode());
+            assertNotEquals(pos, stage2.getPosition(4, 3));
+            assertNotEquals(pos, new Position(3, 4));
+            Stage wide = new Stage(40, 2000);
+            assertEquals(40 * 2000, wide.sweep().map(Position::hashCode).distinct().count());
+            pos.setDefenseModifier(7);
+            assertEquals(7, stage2.getPosition(3, 4).getDefenseModifier());
+            assertEquals(7, stage2.getGrid().get(4).get(3).getDefenseModifier());
+        } catch (InvalidPositionException e) {
+            fail("Should not have thrown exception.");
+        }
+    }
+
+    @Test
+    void testLookupOrNull() {
+        assertNull(stage2.unitAtOrNull(5, 6));
+        assertNull(stage2.unitAtOrNull(-1, 6));
+        assertNull(stage2.unitAtOrNull(5, 15));
+        assertNull(stage2.positionOrNull(13, 0));
+        assertNull(stage2.positionOrNull(0, -1));
+        assertEquals(12, stage2.positionOrNull(12, 14).getPosX());
+        stage2.positionOrNull(5, 6).placeUnit(w1);
+        assertEquals(w1, stage2.unitAtOrNull(5, 6));
+        assertEquals(stage2.positionOrNull(5, 6), w1.getPosition());
+    }
+
+    @Test
+    void testRegion() {
+        ArrayList<Position> positions = new ArrayList<>();
+        for (Position p : stage2.region(-3, 13, 1, 20)) {
+            positions.add(p);
+        }
+        assertEquals(4, positions.size());
+        assertEquals("(0,13)", positions.get(0).toString());
+        assertEquals("(1,13)", positions.get(1).toString());
+        assertEquals("(0,14)", positions.get(2).toString());
+        assertEquals("(1,14)", positions.get(3).toString());
+        assertFalse(stage2.region(13, 0, 20, 14).iterator().hasNext());
+        assertFalse(stage2.region(0, -5, 12, -1).iterator().hasNext());
+        Iterator<Position> iterator = stage1.region(1, 1, 1, 1).iterator();
+        assertEquals("(1,1)", iterator.next().toString());
+        try {
+            iterator.next();
+            fail("Should have thrown exception");
+        } catch (NoSuchElementException e) {
+            // success
+        }
+    }
+
+    @Test
+    void testAnyEnemyWithin() {
+        w1.setFaction("Good");
+        w2.setFaction("Good");
+        stage2.positionOrNull(5, 6).placeUnit(w1);
+        stage2.positionOrNull(8, 6).placeUnit(w2);
+        assertFalse(stage2.anyEnemyWithin(5, 6, 20, "Good"));
+        assertTrue(stage2.anyEnemyWithin(5, 6, 3, "Bad"));
+        assertFalse(stage2.anyEnemyWithin(0, 0, 10, "Bad"));
+        assertTrue(stage2.anyEnemyWithin(0, 0, 11, "Bad"));
+        w2.setFaction("Bad");
+        assertTrue(stage2.anyEnemyWithin(5, 6, 3, "Good"));
+        assertFalse(stage2.anyEnemyWithin(5, 6, 2, "Good"));
+        w2.reduceHP(1);
+        assertFalse(stage2.anyEnemyWithin(5, 6, 20, "Good"));
+    }
+
+    @Test
+    void testCountEnemiesWithin() {
+        w1.setFaction("Good");
+        w2.setFaction("Good");
+        stage2.positionOrNull(5, 6).placeUnit(w1);
+        assertEquals(0, stage2.countEnemiesWithin(5, 6, 20, "Good"));
+        assertEquals(1, stage2.countEnemiesWithin(5, 6, 0, "Bad"));
+        stage2.positionOrNull(8, 6).placeUnit(w2);
+        assertEquals(2, stage2.countEnemiesWithin(5, 6, 3, "Bad"));
+        assertEquals(0, stage2.countEnemiesWithin(0, 0, 10, "Bad"));
+        assertEquals(1, stage2.countEnemiesWithin(0, 0, 11, "Bad"));
+        w2.setFaction("Bad");
+        assertEquals(1, stage2.countEnemiesWithin(5, 6, 3, "Good"));
+        assertEquals(0, stage2.countEnemiesWithin(5, 6, 2, "Good"));
+        stage2.positionOrNull(7, 6).placeUnit(w2);
+        assertEquals(1, stage2.countEnemiesWithin(5, 6, 2, "Good"));
+        w2.reduceHP(1);
+        assertEquals(0, stage2.countEnemiesWithin(5, 6, 20, "Good"));
+        assertEquals(1, stage2.countEnemiesWithin(5, 6, 20, "Bad"));
+    }
+
+    @Test
+    void testFreeCells() {
+        assertEquals(4, stage1.countFreeCells(-5, -5, 5, 5));
+        assertEquals(195, stage2.countFreeCells(0, 0, 12, 14));
+        assertEquals(0, stage2.countFreeCells(13, 0, 20, 14));
+        stage1.positionOrNull(0, 0).placeUnit(w1);
+        stage1.positionOrNull(1, 0).placeUnit(w2);
+        assertEquals(2, stage1.countFreeCells(0, 0, 1, 1));
+        assertEquals(0, stage1.countFreeCells(0, 0, 1, 0));
+        assertEquals(stage1.positionOrNull(0, 1), stage1.firstFreeCell(0, 0));
+        assertEquals(stage1.positionOrNull(1, 1), stage1.firstFreeCell(1, 1));
+        assertNull(stage1.firstFreeCell(2, 2));
+        stage1.positionOrNull(0, 1).placeUnit(w1);
+        assertEquals(stage1.positionOrNull(0, 1), w1.getPosition());
+        assertEquals(stage1.positionOrNull(0, 0), stage1.firstFreeCell(0, 0));
+    }
+
+    @Test
+    void testEnemiesWithin() {
+        Stage large = new Stage(300, 300);
+        w1.setFaction("Good");
+        w2.setFaction("Bad");
+        large.positionOrNull(150, 150).placeUnit(w1);
+        large.positionOrNull(10, 290).placeUnit(w2);
+        assertTrue(large.enemiesWithin(150, 150, 279, "Good").isEmpty());
+        assertEquals(w2, large.enemiesWithin(150, 150, 280, "Good").get(0));
+        assertEquals(1, large.enemiesWithin(150, 150, 280, "Bad").size());
+        assertEquals(2, large.enemiesWithin(150, 150, 600, "Other").size());
+        w2.reduceHP(1);
+        assertTrue(large.enemiesWithin(150, 150, 600, "Good").isEmpty());
+        assertEquals(1, large.enemiesWithin(150, 150, 600, "Other").size());
+    }
+
+    @Test
+    void testEnemiesWithinOrder() {
+        ArrayList<Warrior> expected = new ArrayList<>();
+        try {
+            for (int i = 0; i < 12; i++) {
+                Warrior w = new Warrior("enemy " + i, 1, 1, 1, 1, 1, 1, 1, ImagePath.NONE);
+                w.setFaction("Bad");
+                stage2.positionOrNull((i * 7) % 13, (i * 5) % 15).placeUnit(w);
+            }
+        } catch (DuplicateNameException e) {
+            fail("Should not have thrown exception.");
+        }
+        DiamondOffsets diamond = DiamondOffsets.of(30);
+        for (int i = 0; i < diamond.size(); i++) {
+            Warrior unit = stage2.unitAtOrNull(6 + diamond.getX(i), 7 + diamond.getY(i));
+            if (unit != null) {
+                expected.add(unit);
+            }
+        }
+        assertEquals(12, expected.size());
+        assertEquals(expected, stage2.enemiesWithin(6, 7, 30, "Good"));
+        ArrayList<Warrior> near = new ArrayList<>();
+        for (Warrior w : expected) {
+            if (w.getPosition().getDistance(stage2.positionOrNull(6, 7)) <= 6) {
+                near.add(w);
+            }
+        }
+        assertFalse(near.isEmpty());
+        assertEquals(near, stage2.enemiesWithin(6, 7, 6, "Good"));
+        near.removeIf(w -> w.getPosition().getDistance(stage2.positionOrNull(6, 7)) > 2);
+        assertEquals(near, stage2.enemiesWithin(6, 7, 2, "Good"));
+    }
+
+    @Test
+    void testChunksAllocatedLazily() {
+        Stage large = new Stage(1000, 1000);
+        assertEquals(0, large.getAllocatedChunks());
+        assertNull(large.unitAtOrNull(999, 999));
+        assertEquals(0, large.positionOrNull(500, 500).getDefenseModifier());
+        large.positionOrNull(500, 500).setDefenseModifier(0);
+        assertEquals(0, large.getAllocatedChunks());
+        large.positionOrNull(0, 0).placeUnit(w1);
+        large.positionOrNull(31, 31).placeUnit(w2);
+        assertEquals(1, large.getAllocatedChunks());
+        large.positionOrNull(32, 31).setRangeModifier(2);
+        assertEquals(2, large.getAllocatedChunks());
+        assertEquals(2, large.positionOrNull(32, 31).getRangeModifier());
+        assertEquals(0, large.positionOrNull(31, 31).getRangeModifier());
+        assertEquals(w2, large.unitAtOrNull(31, 31));
+        large.positionOrNull(0, 0).removeUnit();
+        assertEquals(2, large.getAllocatedChunks());
+        large.positionOrNull(31, 31).removeUnit();
+        large.positionOrNull(32, 31).setRangeModifier(0);
+        assertEquals(0, large.getAllocatedChunks());
+        assertNull(large.unitAtOrNull(31, 31));
+    }
+
+    @Test
+    void testAddStatRegions() {
+        Stage large = new Stage(1000, 1000);
+        StatRegion forest = new StatRegion(100, 100, 299, 299, 0, -1, 3, 0, 0, 0);
+        StatRegion hill = new StatRegion(250, 250, 400, 260, 2, 0, 1, 0, 0, 1);
+        large.positionOrNull(250, 250).placeUnit(w1);
+        try {
+            large.addStatRegions(Arrays.asList(forest, new StatRegion(990, 990, 1000, 1000, 1, 1, 1, 1, 1, 1)));
+            fail("Should have thrown exception.");
+        } catch (InvalidPositionException e) {
+            // pass
+        }
+        assertTrue(large.getStatRegions().isEmpty());
+        try {
+            large.addStatRegions(Arrays.asList(forest, hill));
+        } catch (InvalidPositionException e) {
+            fail("Should not have thrown exception.");
+        }
+        assertEquals(Arrays.asList(forest, hill), large.getStatRegions());
+        assertEquals(4, large.positionOrNull(250, 260).getDefenseModifier());
+        assertEquals(3, large.positionOrNull(100, 100).getDefenseModifier());
+        assertEquals(2, w1.getRealRange());
+    }
+
+    @Test
+    void testStatRegions() {
+        Stage large = new Stage(1000, 1000);
+        StatRegion forest = new StatRegion(100, 100, 299, 299, 0, -1, 3, 0, 0, 0);
+        StatRegion hill = new StatRegion(250, 250, 400, 260, 2, 0, 1, 0, 0, 1);
+        try {
+            large.addStatRegion(forest);
+            large.addStatRegion(hill);
+            large.addStatRegion(new StatRegion(990, 990, 1000, 1000, 1, 1, 1, 1, 1, 1));
+            fail("Should have thrown exception.");
+        } catch (InvalidPositionException e) {
+            // pass
+        }
+        assertEquals(2, large.getStatRegions().size());
+        assertEquals(0, large.getAllocatedChunks());
+        assertEquals(3, large.positionOrNull(100, 100).getDefenseModifier());
+        assertEquals(-1, large.positionOrNull(299, 299).getSpeedModifier());
+        assertEquals(0, large.positionOrNull(300, 299).getDefenseModifier());
+        assertEquals(0, large.positionOrNull(99, 150).getDefenseModifier());
+        assertEquals(4, large.positionOrNull(250, 260).getDefenseModifier());
+        assertEquals(2, large.positionOrNull(250, 260).getStrengthModifier());
+        assertEquals(1, large.positionOrNull(400, 255).getDefenseModifier());
+        assertEquals(0, large.positionOrNull(401, 255).getDefenseModifier());
+        large.positionOrNull(250, 250).setDefenseModifier(2);
+        large.positionOrNull(250, 250).placeUnit(w1);
+        assertEquals(6, large.positionOrNull(250, 250).getDefenseModifier());
+        assertEquals(7, w1.getRealDefense());
+        assertEquals(2, w1.getRealRange());
+        assertEquals(2, large.positionOrNull(250, 250).toJson().getInt("defense"));
+        assertTrue(large.removeStatRegion(hill));
+        assertFalse(large.removeStatRegion(hill));
+        assertEquals(5, large.positionOrNull(250, 250).getDefenseModifier());
+        assertEquals(1, w1.getRealRange());
+        assertEquals(1, large.toJson().getJSONArray("regions").length());
+    }
+
+    @Test
+    void testSpliterator() {
+        ArrayList<Position> expected = new ArrayList<>();
+        for (Position pos : stage2) {
+            expected.add(pos);
+        }
+        assertEquals(expected, stage2.stream().collect(Collectors.toList()));
+        assertEquals(expected, stage2.parallelStream().collect(Collectors.toList()));
+        assertEquals(expected, stage2.sweep().collect(Collectors.toList()));
+        assertFalse(stage2.isLarge());
+        assertTrue(new Stage(256, 256).isLarge());
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14),
+                stage2.sweepRows().boxed().collect(Collectors.toList()));
+        assertTrue(new Stage(256, 256).sweepRows().isParallel());
+        assertFalse(stage2.sweepRows().isParallel());
+
+        Spliterator<Position> rest = stage2.spliterator();
+        assertEquals(195, rest.getExactSizeIfKnown());
+        assertTrue(rest.tryAdvance(pos -> assertEquals(expected.get(0), pos)));
+        Spliterator<Position> top = rest.trySplit();
+        assertEquals(194, top.estimateSize() + rest.estimateSize());
+        ArrayList<Position> split = new ArrayList<>();
+        split.add(expected.get(0));
+        top.forEachRemaining(split::add);
+        rest.forEachRemaining(split::add);
+        assertEquals(expected, split);
+        assertFalse(rest.tryAdvance(pos -> fail("Should not have any positions left.")));
+        assertNull(new Stage(1, 5).spliterator().trySplit());
+    }
 }
@@ -0,0 +1,206 @@
+package model;
+
+import model.exceptions.CheckedGameException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ui.ImagePath;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for the ThreatMap class
+public class ThreatMapTest {
+
+    private Stage stage;
+    private List<Army> armies;
+    private ThreatMap threats;
+    private Warrior good;
+    private Warrior bad1;
+    private Warrior bad2;
+
+    @BeforeEach
+    void setup() {
+        stage = new Stage(20, 20);
+        Army.resetNames();
+        Warrior.resetNames();
+        try {
+            Army army1 = new Army("Good");
+            Army army2 = new Army("Bad");
+            good = new Warrior("good", 10, 5, 5, 5, 5, 2, 1, ImagePath.NONE);
+            bad1 = new Warrior("bad1", 10, 8, 5, 5, 5, 2, 1, ImagePath.NONE);
+            bad2 = new Warrior("bad2", 10, 4, 5, 5, 5, 1, 1, ImagePath.NONE);
+            army1.addWarrior(good);
+            army2.addWarrior(bad1);
+            army2.addWarrior(bad2);
+            good.placeWarrior(stage, 0, 0);
+            bad1.placeWarrior(stage, 10, 10);
+            bad2.placeWarrior(stage, 12, 10);
+            armies = Arrays.asList(army1, army2);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+        threats = new ThreatMap(stage, armies);
+    }
+
+    @Test
+    void testBuild() {
+        assertEquals(1, threats.getThreatCount("Good", 10, 13));
+        assertEquals(0, threats.getThreatCount("Good", 10, 14));
+        assertEquals(2, threats.getThreatCount("Good", 11, 10));
+        assertEquals(5, threats.getMaxIncomingDamage("Good", 11, 10, 3));
+        assertEquals(1, threats.getThreatCount("Good", 14, 10));
+        assertEquals(1, threats.getMaxIncomingDamage("Good", 14, 10, 3));
+        assertEquals(0, threats.getMaxIncomingDamage("Good", 14, 10, 9));
+        assertEquals(0, threats.getThreatCount("Bad", 11, 10));
+        assertEquals(1, threats.getThreatCount("Bad", 0, 3));
+        assertEquals(0, threats.getThreatCount("Good", 0, 0));
+        assertEquals(0, threats.getThreatCount("Good", -1, 0));
+        assertEquals(0, threats.getMaxIncomingDamage("Good", 20, 0, 0));
+    }
+
+    @Test
+    void testPatchedOnMoveAndDeath() {
+        bad1.setCanMove(true);
+        try {
+            bad1.move(stage, 0, 2);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+        assertEquals(1, threats.getThreatCount("Good", 10, 15));
+        assertEquals(0, threats.getThreatCount("Good", 10, 7));
+        assertEquals(2, threats.getThreatCount("Good", 11, 10));
+        assertSameAsRebuilt();
+        bad1.reduceHP(10);
+        assertEquals(1, threats.getThreatCount("Good", 11, 10));
+        assertEquals(1, threats.getMaxIncomingDamage("Good", 11, 10, 3));
+        assertEquals(0, threats.getThreatCount("Good", 10, 15));
+        assertSameAsRebuilt();
+    }
+
+    @Test
+    void testPatchedOnStatsAndFaction() {
+        bad2.getPosition().setStrengthModifier(3);
+        assertEquals(4, threats.getMaxIncomingDamage("Good", 14, 10, 3));
+        bad2.getPosition().setRangeModifier(2);
+        assertEquals(1, threats.getThreatCount("Good", 16, 10));
+        assertSameAsRebuilt();
+        bad2.setFaction("Good");
+        assertEquals(0, threats.getThreatCount("Good", 16, 10));
+        assertEquals(1, threats.getThreatCount("Bad", 16, 10));
+        assertSameAsRebuilt();
+    }
+
+    @Test
+    void testViewer() {
+        Visibility visibility = new Visibility(stage, armies);
+        ThreatMap seen = new ThreatMap(stage, armies, visibility, "Good");
+        assertEquals("Good", seen.getViewer());
+        assertEquals(2, threats.getThreatCount("Good", 11, 10));
+        assertEquals(2, threats.countEnemiesWithin("Good", 11, 10, 1));
+        assertEquals(0, seen.getThreatCount("Good", 11, 10));
+        assertEquals(0, seen.countEnemiesWithin("Good", 11, 10, 1));
+        good.getPosition().setRangeModifier(20);
+        assertEquals(2, seen.getThreatCount("Good", 11, 10));
+        assertEquals(5, seen.getMaxIncomingDamage("Good", 11, 10, 3));
+        assertEquals(2, seen.countEnemiesWithin("Good", 11, 10, 1));
+        assertEquals(0, seen.getThreatCount("Bad", 1, 0));
+        good.getPosition().setRangeModifier(0);
+        assertEquals(2, seen.getThreatCount("Good", 11, 10));
+        bad1.reduceHP(10);
+        assertEquals(1, seen.getThreatCount("Good", 11, 10));
+        assertEquals(1, seen.countEnemiesWithin("Good", 11, 10, 1));
+        seen.rebuild(armies);
+        assertEquals(0, seen.getThreatCount("Good", 11, 10));
+        seen.rebuild(armies, "Bad");
+        assertEquals("Bad", seen.getViewer());
+        assertEquals(1, threats.getThreatCount("Bad", 0, 3));
+        assertEquals(0, seen.getThreatCount("Bad", 0, 3));
+        int listeners = stage.getCellListenerCount();
+        seen.close();
+        assertEquals(listeners - 1, stage.getCellListenerCount());
+    }
+
+    @Test
+    void testWholeBoardSweeps() {
+        bad1.setCanMove(true);
+        try {
+            bad1.move(stage, 1, 1);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+        for (String faction : new String[]{"Good", "Bad"}) {
+            int[] counts = threats.getThreatCounts(faction);
+            int[] strengths = threats.getMaxStrengths(faction);
+            int threatened = 0;
+            int doubled = 0;
+            for (Position pos : stage) {
+                int index = pos.getPosY() * 20 + pos.getPosX();
+                int count = threats.getThreatCount(faction, pos.getPosX(), pos.getPosY());
+                assertEquals(count, counts[index]);
+                assertEquals(threats.getMaxIncomingDamage(faction, pos.getPosX(), pos.getPosY(), 0),
+                        strengths[index]);
+                threatened += count >= 1 ? 1 : 0;
+                doubled += count >= 2 ? 1 : 0;
+            }
+            assertEquals(threatened, threats.countThreatenedPositions(faction, 1));
+            assertEquals(doubled, threats.countThreatenedPositions(faction, 2));
+        }
+        assertEquals(10, threats.countThreatenedPositions("Bad", 1));
+        assertEquals(0, threats.countThreatenedPositions("Bad", 2));
+    }
+
+    @Test
+    void testLargeStageRebuild() {
+        Stage large = new Stage(300, 300);
+        assertTrue(large.isLarge());
+        Random random = new Random(8);
+        Warrior.resetNames();
+        try {
+            Army army1 = new Army("Left");
+            Army army2 = new Army("Right");
+            for (int i = 0; i < 60; i++) {
+                Warrior w = new Warrior("unit" + i, 10, random.nextInt(9), 5, 5, 5,
+                        random.nextInt(8), random.nextInt(4), ImagePath.NONE);
+                (i % 2 == 0 ? army1 : army2).addWarrior(w);
+                w.placeWarrior(large, 7 * i % 300, random.nextInt(300));
+            }
+            ThreatMap map = new ThreatMap(large, Arrays.asList(army1, army2));
+            for (int i = 0; i < 500; i++) {
+                int x = random.nextInt(300);
+                int y = random.nextInt(300);
+                int count = 0;
+                int strength = 0;
+                for (Warrior w : army1) {
+                    if (large.positionOrNull(x, y).getDistance(w.getPosition())
+                            <= w.getRealMovement() + w.getRealRange()) {
+                        count++;
+                        strength = Math.max(strength, w.getRealStrength());
+                    }
+                }
+                assertEquals(count, map.getThreatCount("Right", x, y));
+                assertEquals(strength, map.getMaxIncomingDamage("Right", x, y, 0));
+            }
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+    }
+
+    // EFFECTS: checks that the patched map agrees with one built from scratch at every position
+    private void assertSameAsRebuilt() {
+        ThreatMap rebuilt = new ThreatMap(stage, armies);
+        for (Position pos : stage) {
+            for (String faction : new String[]{"Good", "Bad"}) {
+                assertEquals(rebuilt.getThreatCount(faction, pos.getPosX(), pos.getPosY()),
+                        threats.getThreatCount(faction, pos.getPosX(), pos.getPosY()));
+                assertEquals(rebuilt.getMaxIncomingDamage(faction, pos.getPosX(), pos.getPosY(), 0),
+                        threats.getMaxIncomingDamage(faction, pos.getPosX(), pos.getPosY(), 0));
+                assertEquals(rebuilt.countEnemiesWithin(faction, pos.getPosX(), pos.getPosY(), 3),
+                        threats.countEnemiesWithin(faction, pos.getPosX(), pos.getPosY(), 3));
+            }
+        }
+        rebuilt.close();
+    }
+}
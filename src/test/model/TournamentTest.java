@@ -0,0 +1,118 @@
+package model;
+
+import model.exceptions.CheckedGameException;
+import model.exceptions.InvalidBattleException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ui.ImagePath;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for the Tournament, TournamentMatchup, TournamentReport and ArmyComposition classes
+public class TournamentTest {
+
+    private ArmyComposition knights;
+    private ArmyComposition rabble;
+
+    @BeforeEach
+    void setup() {
+        Army.resetNames();
+        Warrior.resetNames();
+        try {
+            Army strong = new Army("Knights");
+            strong.addWarrior(new Warrior("knight1", 12, 6, 4, 4, 10, 3, 1, ImagePath.NONE));
+            strong.addWarrior(new Warrior("knight2", 12, 6, 4, 4, 10, 3, 1, ImagePath.NONE));
+            Warrior fallen = new Warrior("fallen", 12, 6, 4, 4, 10, 3, 1, ImagePath.NONE);
+            fallen.reduceHP(12);
+            strong.addWarrior(fallen);
+            Army weak = new Army("Rabble");
+            weak.addWarrior(new Warrior("peasant1", 5, 2, 2, 1, 5, 3, 1, ImagePath.NONE));
+            weak.addWarrior(new Warrior("peasant2", 5, 2, 2, 1, 5, 3, 1, ImagePath.NONE));
+            weak.addWarrior(new Warrior("peasant3", 5, 2, 2, 1, 5, 3, 1, ImagePath.NONE));
+            knights = new ArmyComposition("knights", strong);
+            rabble = new ArmyComposition("rabble", weak);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+    }
+
+    @Test
+    void testComposition() {
+        assertEquals("knights", knights.getName());
+        assertEquals(2, knights.size());
+        assertEquals(3, rabble.size());
+        Army first = knights.build("A");
+        Army second = knights.build("B");
+        assertEquals("A", first.getFactionName());
+        assertEquals(2, first.getWarriors().size());
+        assertEquals("knight1", first.getWarriors().get(0).getName());
+        assertEquals("A", first.getWarriors().get(0).getFaction());
+        assertNotSame(first.getWarriors().get(0), second.getWarriors().get(0));
+        assertNull(first.getWarriors().get(0).getPosition());
+        assertEquals(12, second.getWarriors().get(1).getHP());
+    }
+
+    @Test
+    void testRoundRobin() {
+        EventLog.getInstance().setEnabled(true);
+        Tournament tournament = new Tournament(Arrays.asList(knights, rabble),
+                Arrays.asList(AiStrategy.NEAREST, AiStrategy.WEAKEST),
+                Arrays.asList(new Dimension(6, 6), new Dimension(8, 4)), 50, new ForkJoinPool(2));
+        assertEquals(4, tournament.entrantCount());
+        assertEquals("knights (NEAREST)", tournament.entrantName(0));
+        assertEquals("rabble (WEAKEST)", tournament.entrantName(3));
+        TournamentReport report = tournament.run(40, 9);
+        assertTrue(EventLog.getInstance().isEnabled());
+        List<TournamentMatchup> matchups = report.getMatchups();
+        assertEquals(24, matchups.size());
+        assertEquals(24 * 40, report.getGames());
+        assertTrue(report.getGamesPerSecond() > 0);
+        assertTrue(report.getCpuNanos() > 0);
+        TournamentMatchup matchup = matchups.get(1);
+        assertEquals("knights (NEAREST)", matchup.getFirst());
+        assertEquals("rabble (NEAREST)", matchup.getSecond());
+        assertEquals(new Dimension(6, 6), matchup.getStageSize());
+        SimulationReport games = matchup.getReport();
+        assertEquals(40, games.getGames());
+        assertEquals(40, games.getWins(Tournament.FIRST) + games.getWins(Tournament.SECOND) + games.getDraws());
+        assertTrue(games.getWins(Tournament.FIRST) > games.getWins(Tournament.SECOND));
+        assertTrue(games.getWinRateLow(Tournament.FIRST) <= games.getWinRate(Tournament.FIRST));
+        assertTrue(games.getWinRateHigh(Tournament.FIRST) >= games.getWinRate(Tournament.FIRST));
+    }
+
+    @Test
+    void testSameSeedAnyPool() {
+        List<ArmyComposition> armies = Arrays.asList(knights, rabble);
+        List<AiStrategy> strategies = Arrays.asList(AiStrategy.NEAREST, AiStrategy.BEST_ODDS);
+        List<Dimension> sizes = Collections.singletonList(new Dimension(6, 6));
+        TournamentReport serial = new Tournament(armies, strategies, sizes, 50, new ForkJoinPool(1)).run(70, 4);
+        TournamentReport parallel = new Tournament(armies, strategies, sizes, 50, new ForkJoinPool(4)).run(70, 4);
+        for (int i = 0; i < serial.getMatchups().size(); i++) {
+            SimulationReport one = serial.getMatchups().get(i).getReport();
+            SimulationReport other = parallel.getMatchups().get(i).getReport();
+            assertEquals(70, one.getGames());
+            assertEquals(one.getWins(Tournament.FIRST), other.getWins(Tournament.FIRST));
+            assertEquals(one.getWins(Tournament.SECOND), other.getWins(Tournament.SECOND));
+            assertEquals(one.getAverageTurns(), other.getAverageTurns());
+        }
+    }
+
+    @Test
+    void testStageTooSmall() {
+        try {
+            new Tournament(Arrays.asList(knights, rabble), Collections.singletonList(AiStrategy.NEAREST),
+                    Collections.singletonList(new Dimension(3, 2)), 50, new ForkJoinPool(1));
+            fail("Should have thrown exception.");
+        } catch (InvalidBattleException e) {
+            // success
+        }
+        new Tournament(Arrays.asList(knights, rabble), Collections.singletonList(AiStrategy.NEAREST),
+                Collections.singletonList(new Dimension(4, 2)), 50, new ForkJoinPool(1));
+    }
+}
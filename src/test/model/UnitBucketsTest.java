@@ -0,0 +1,66 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for the UnitBuckets class
+public class UnitBucketsTest {
+
+    private static final int WIDTH = 100;
+
+    private UnitBuckets buckets;
+
+    @BeforeEach
+    void setup() {
+        buckets = new UnitBuckets(WIDTH, 50);
+    }
+
+    @Test
+    void testAddAndRemove() {
+        assertEquals(1, buckets.queryCost(0, 0, 1));
+        buckets.add(index(0, 0));
+        buckets.add(index(1, 1));
+        buckets.add(index(20, 0));
+        assertEquals(3, buckets.queryCost(0, 0, 1));
+        assertEquals(2, found(0, 0, 2).size());
+        assertEquals(1, found(0, 0, 1).size());
+        assertEquals(3, found(0, 0, 20).size());
+        buckets.remove(index(1, 1));
+        buckets.remove(index(5, 5));
+        assertEquals(1, found(0, 0, 2).size());
+        assertEquals(index(0, 0), found(0, 0, 2).get(0));
+    }
+
+    @Test
+    void testGrowingBucket() {
+        for (int x = 0; x < 16; x++) {
+            buckets.add(index(x, 3));
+        }
+        assertEquals(17, buckets.queryCost(8, 3, 2));
+        assertEquals(5, found(8, 3, 2).size());
+        assertEquals(16, found(8, 3, 8).size());
+    }
+
+    @Test
+    void testClippedQuery() {
+        buckets.add(index(99, 49));
+        assertEquals(1, found(99, 49, 1000).size());
+        assertEquals(0, found(0, 0, 147).size());
+        assertEquals(1, found(0, 0, 148).size());
+    }
+
+    private int index(int x, int y) {
+        return y * WIDTH + x;
+    }
+
+    private List<Integer> found(int x, int y, int radius) {
+        List<Integer> cells = new ArrayList<>();
+        buckets.forEachWithin(x, y, radius, cells::add);
+        return cells;
+    }
+}
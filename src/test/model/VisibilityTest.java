@@ -0,0 +1,120 @@
+package model;
+
+import model.exceptions.CheckedGameException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ui.ImagePath;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for the Visibility class
+public class VisibilityTest {
+
+    private Stage stage;
+    private Army army1;
+    private Army army2;
+    private Warrior good1;
+    private Warrior good2;
+    private Warrior bad;
+
+    @BeforeEach
+    void setup() {
+        stage = new Stage(20, 20);
+        Army.resetNames();
+        Warrior.resetNames();
+        try {
+            army1 = new Army("Good");
+            army2 = new Army("Bad");
+            good1 = new Warrior("good1", 10, 5, 5, 5, 5, 2, 1, ImagePath.NONE);
+            good2 = new Warrior("good2", 10, 5, 5, 5, 5, 2, 1, ImagePath.NONE);
+            bad = new Warrior("bad", 10, 5, 5, 5, 5, 2, 1, ImagePath.NONE);
+            army1.addWarrior(good1);
+            army1.addWarrior(good2);
+            army2.addWarrior(bad);
+            good1.placeWarrior(stage, 0, 0);
+            good2.placeWarrior(stage, 4, 0);
+            bad.placeWarrior(stage, 15, 15);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+    }
+
+    @Test
+    void testOpenGround() {
+        Visibility visibility = new Visibility(stage, Arrays.asList(army1, army2));
+        assertEquals(5, good1.getVisionRadius());
+        assertTrue(visibility.isVisible("Good", 0, 0));
+        assertTrue(visibility.isVisible("Good", 0, 5));
+        assertTrue(visibility.isVisible("Good", 2, 3));
+        assertFalse(visibility.isVisible("Good", 0, 6));
+        assertTrue(visibility.isVisible("Good", 9, 0));
+        assertFalse(visibility.isVisible("Good", 10, 0));
+        assertFalse(visibility.isVisible("Good", 15, 15));
+        assertTrue(visibility.isVisible("Bad", 15, 15));
+        assertTrue(visibility.isVisible("Bad", 19, 16));
+        assertFalse(visibility.isVisible("Bad", 0, 0));
+        assertFalse(visibility.isVisible("Good", -1, 0));
+        assertFalse(visibility.isVisible("Nobody", 0, 0));
+        assertEquals(2, visibility.countWatchers("Good", 2, 0));
+        assertEquals(1, visibility.countWatchers("Good", 0, 2));
+        assertEquals(0, visibility.countWatchers("Good", 20, 0));
+    }
+
+    @Test
+    void testWallsBlock() {
+        for (int y = 13; y <= 17; y++) {
+            stage.positionOrNull(13, y).setMoveCost(Position.IMPASSABLE);
+        }
+        Visibility visibility = new Visibility(stage, Arrays.asList(army1, army2));
+        assertTrue(visibility.isVisible("Bad", 13, 15));
+        assertFalse(visibility.isVisible("Bad", 12, 15));
+        assertFalse(visibility.isVisible("Bad", 11, 15));
+        assertTrue(visibility.isVisible("Bad", 14, 11));
+        assertTrue(visibility.isVisible("Bad", 15, 10));
+        stage.positionOrNull(13, 15).setMoveCost(1);
+        assertTrue(visibility.isVisible("Bad", 12, 15));
+        assertTrue(visibility.isVisible("Bad", 11, 15));
+        stage.positionOrNull(15, 14).setMoveCost(Position.IMPASSABLE);
+        assertTrue(visibility.isVisible("Bad", 15, 14));
+        assertFalse(visibility.isVisible("Bad", 15, 13));
+        assertFalse(visibility.isVisible("Bad", 15, 10));
+    }
+
+    @Test
+    void testMoveAndDeath() {
+        Visibility visibility = new Visibility(stage, Arrays.asList(army1, army2));
+        assertEquals(2, visibility.countWatchers("Good", 0, 1));
+        assertFalse(visibility.isVisible("Good", 10, 0));
+        good2.setCanMove(true);
+        try {
+            good2.move(stage, 2, 0);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+        assertEquals(1, visibility.countWatchers("Good", 0, 1));
+        assertTrue(visibility.isVisible("Good", 10, 0));
+        assertTrue(visibility.isVisible("Good", 0, 1));
+        good1.reduceHP(100);
+        assertEquals(0, visibility.countWatchers("Good", 0, 1));
+        assertFalse(visibility.isVisible("Good", 0, 1));
+        assertTrue(visibility.isVisible("Good", 10, 0));
+        good2.reduceHP(100);
+        assertFalse(visibility.isVisible("Good", 10, 0));
+        assertTrue(visibility.isVisible("Bad", 15, 15));
+    }
+
+    @Test
+    void testFactionAndVisionChanges() {
+        Visibility visibility = new Visibility(stage, Arrays.asList(army1, army2));
+        good2.setFaction("Bad");
+        assertEquals(1, visibility.countWatchers("Good", 2, 0));
+        assertFalse(visibility.isVisible("Good", 9, 0));
+        assertTrue(visibility.isVisible("Bad", 9, 0));
+        stage.positionOrNull(4, 0).setRangeModifier(2);
+        assertEquals(7, good2.getVisionRadius());
+        assertTrue(visibility.isVisible("Bad", 11, 0));
+        assertFalse(visibility.isVisible("Bad", 12, 0));
+    }
+}
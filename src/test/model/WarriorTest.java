@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import ui.ImagePath;
 
 import java.util.ArrayList;
+import java.util.SplittableRandom;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -190,6 +191,43 @@ public class WarriorTest {
         }
     }
 
+    @Test
+    void testMoveAroundTerrain() {
+        w1.setCanMove(true);
+        try {
+            w1.placeWarrior(stage, 1, 1);
+            w3.setFaction("Bad");
+            w3.placeWarrior(stage, 2, 1);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+        stage.positionOrNull(1, 2).setMoveCost(Position.IMPASSABLE);
+        stage.positionOrNull(1, 0).setMoveCost(3);
+        stage.positionOrNull(0, 1).setMoveCost(2);
+        try {
+            w1.move(stage, 1, 1);
+            fail("Should have thrown exception");
+        } catch (TooFarException e) {
+            // pass
+        } catch (Exception e) {
+            fail("Wrong Exception");
+        }
+        try {
+            w1.move(stage, 0, 1);
+            fail("Should have thrown exception");
+        } catch (TooFarException e) {
+            // pass
+        } catch (Exception e) {
+            fail("Wrong Exception");
+        }
+        try {
+            w1.move(stage, -1, 1);
+            assertEquals(stage.getPosition(0, 2), w1.getPosition());
+        } catch (Exception e) {
+            fail("Wrong Exception");
+        }
+    }
+
     @Test
     void testReduceHP() {
         w1.setCanMove(true);
@@ -263,8 +301,8 @@ public class WarriorTest {
         list2.add(w1);
         assertEquals(list2, w2.checkValidOpponents(stage));
         ArrayList<Warrior> list3 = new ArrayList<>();
-        list3.add(w1);
         list3.add(w2);
+        list3.add(w1);
         assertEquals(list3, w3.checkValidOpponents(stage));
         ArrayList<Warrior> list4 = new ArrayList<>();
         assertEquals(list4, w4.checkValidOpponents(stage));
@@ -435,6 +473,84 @@ public class WarriorTest {
         assertFalse(w2.findMove(stage));
     }
 
+    @Test
+    void testFindMoveWithAttackField() {
+        w3.setFaction("Good");
+        w1.setFaction("Bad");
+        w3.setCanMove(true);
+        try {
+            w3.placeWarrior(stage, 0, 0);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+        AttackField field = stage.attackField();
+        field.build("Good", 2, new ArrayList<>());
+        assertFalse(w3.findMove(stage, stage.reachability().compute(w3, 4, 2), field, null));
+        assertEquals(stage.positionOrNull(0, 0), w3.getPosition());
+        try {
+            w1.placeWarrior(stage, 3, 3);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+        ArrayList<Warrior> enemies = new ArrayList<>();
+        enemies.add(w1);
+        field.build("Good", 2, enemies);
+        assertTrue(w3.findMove(stage, stage.reachability().compute(w3, 4, 2), field, null));
+        assertEquals(2, w3.getPosition().getDistance(w1.getPosition()));
+        assertEquals(0, field.distanceAt(w3.getPosition().getPosX(), w3.getPosition().getPosY()));
+        assertNull(stage.positionOrNull(0, 0).getUnit());
+    }
+
+    @Test
+    void testFindMoveAwayFromCrowd() {
+        w3.setFaction("Good");
+        w1.setFaction("Bad");
+        w2.setFaction("Bad");
+        w3.setCanMove(true);
+        try {
+            w3.placeWarrior(stage, 3, 0);
+            w1.placeWarrior(stage, 3, 3);
+            w2.placeWarrior(stage, 9, 1);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+        ArrayList<Warrior> enemies = new ArrayList<>();
+        enemies.add(w1);
+        AttackField field = stage.attackField();
+        field.build("Good", 2, enemies);
+        assertTrue(w3.findMove(stage, stage.reachability().compute(w3, 4, 2), field, null));
+        assertEquals(stage.positionOrNull(2, 2), w3.getPosition());
+    }
+
+    @Test
+    void testFollowFlow() {
+        w1.setFaction("Good");
+        w2.setFaction("Good");
+        w4.setFaction("Bad");
+        w1.setCanMove(true);
+        try {
+            w1.placeWarrior(stage, 0, 0);
+            w2.placeWarrior(stage, 3, 0);
+            w4.placeWarrior(stage, 5, 0);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+        ArrayList<Warrior> enemies = new ArrayList<>();
+        enemies.add(w4);
+        AttackField field = stage.attackField();
+        field.build("Good", 1, enemies);
+        assertTrue(w1.followFlow(stage, field));
+        assertEquals(stage.positionOrNull(2, 0), w1.getPosition());
+        assertFalse(w1.getCanMove());
+        assertFalse(w1.followFlow(stage, field));
+        w2.setCanMove(true);
+        assertTrue(w2.followFlow(stage, field));
+        assertEquals(stage.positionOrNull(4, 0), w2.getPosition());
+        w2.setCanMove(true);
+        assertFalse(w2.followFlow(stage, field));
+        assertEquals(stage.positionOrNull(4, 0), w2.getPosition());
+    }
+
     @Test
     void testDuplicateNames() {
         assertEquals("A", w1.toString());
@@ -617,4 +733,21 @@ public class WarriorTest {
         }
         assertFalse(lucky1.getIsAlive() && lucky2.getIsAlive());
     }
+
+    @Test
+    void testSeededCriticalHits() {
+        try {
+            Warrior target1 = new Warrior("Target1", 999, 1, 1, 10, 0, 1, 1, ImagePath.NONE);
+            Warrior target2 = new Warrior("Target2", 999, 1, 1, 10, 0, 1, 1, ImagePath.NONE);
+            SplittableRandom random1 = new SplittableRandom(42);
+            SplittableRandom random2 = new SplittableRandom(42);
+            for (int i = 0; i < 200; i++) {
+                assertEquals(lucky1.attack(target1, random1), lucky1.attack(target2, random2));
+                assertEquals(target1.getHP(), target2.getHP());
+            }
+            assertTrue(target1.getHP() < 999);
+        } catch (DuplicateNameException e) {
+            fail("Should not have thrown exception");
+        }
+    }
 }
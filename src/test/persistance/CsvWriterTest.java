@@ -0,0 +1,70 @@
+package persistance;
+
+import model.SimulationReport;
+import model.Tournament;
+import model.TournamentMatchup;
+import model.TournamentReport;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for the CsvWriter class
+public class CsvWriterTest {
+
+    @Test
+    void testWriterInvalidFile() {
+        try {
+            CsvWriter writer = new CsvWriter("./date/my\0illegalFileName.csv");
+            writer.open();
+            fail("Should have thrown exception.");
+        } catch (FileNotFoundException e) {
+            // success
+        }
+    }
+
+    @Test
+    void testWriteTournament() {
+        TournamentMatchup plain = new TournamentMatchup("Red (NEAREST)", "Blue (WEAKEST)", new Dimension(12, 10));
+        SimulationReport games = plain.getReport();
+        games.addGame(Tournament.FIRST, 4);
+        games.addGame(Tournament.FIRST, 6);
+        games.addGame(Tournament.SECOND, 5);
+        games.addGame(null, 200);
+        TournamentMatchup quoted = new TournamentMatchup("Red, \"Elite\"", "Blue", new Dimension(8, 8));
+        String path = "./data/testTournament.csv";
+        try {
+            CsvWriter writer = new CsvWriter(path);
+            writer.open();
+            writer.write(new TournamentReport(Arrays.asList(plain, quoted), 1000));
+            writer.close();
+            List<String> lines = Files.readAllLines(Paths.get(path));
+            assertEquals(3, lines.size());
+            assertEquals(CsvWriter.HEADER, lines.get(0));
+            String[] row = lines.get(1).split(",");
+            assertEquals(CsvWriter.HEADER.split(",").length, row.length);
+            assertEquals("Red (NEAREST)", row[0]);
+            assertEquals("Blue (WEAKEST)", row[1]);
+            assertEquals("12", row[2]);
+            assertEquals("10", row[3]);
+            assertEquals("4", row[4]);
+            assertEquals("2", row[5]);
+            assertEquals("1", row[6]);
+            assertEquals("1", row[7]);
+            assertEquals("0.5000", row[8]);
+            assertEquals(String.format(Locale.ROOT, "%.4f", games.getWinRateLow(Tournament.FIRST)), row[9]);
+            assertEquals("53.7500", row[14]);
+            assertTrue(lines.get(2).startsWith("\"Red, \"\"Elite\"\"\",Blue,8,8,0,0,0,0,0.0000,0.0000,1.0000,"));
+        } catch (IOException e) {
+            fail("Should not have thrown exception.");
+        }
+    }
+}
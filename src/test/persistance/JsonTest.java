@@ -4,6 +4,8 @@ import model.*;
 import model.exceptions.DuplicateNameException;
 import model.exceptions.CheckedGameException;
 import model.exceptions.SaveException;
+import org.json.JSONArray;
+import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import ui.ImagePath;
@@ -127,6 +129,10 @@ public class JsonTest {
                 stage.getPosition(0,2).setModifiers(1,2,3,0,4,5);
                 stage.getPosition(3,5).setModifiers(3,5,2,-5,4,1);
                 stage.getPosition(1,3).setModifiers(3,3,5,3,-4,-3);
+                stage.getPosition(2,2).setMoveCost(3);
+                stage.getPosition(5,1).setMoveCost(Position.IMPASSABLE);
+                stage.addStatRegion(new StatRegion(0, 1, 3, 4, 2, 0, -1, 0, 1, 0));
+                stage.addStatRegion(new StatRegion(3, 4, 6, 5, 0, 1, 1, 1, 0, -1));
             } catch (Exception e) {
                 fail("should not have thrown exception");
             }
@@ -193,6 +199,92 @@ public class JsonTest {
         }
     }
 
+    @Test
+    void testOldStageEncoding() {
+        reader = new JsonReader("./data/testOldStage.json");
+        try {
+            data = reader.read();
+            assertEquals(6, data.getStageHeight());
+            assertEquals(7, data.getStageWidth());
+            for (Position pos : data) {
+                int strength = 0;
+                if (pos.getPosX() == 0 && pos.getPosY() == 2) {
+                    strength = 1;
+                    assertEquals(5, pos.getRangeModifier());
+                } else if (pos.getPosX() == 1 && pos.getPosY() == 3) {
+                    strength = 3;
+                    assertEquals(-4, pos.getMovementModifier());
+                } else if (pos.getPosX() == 3 && pos.getPosY() == 5) {
+                    strength = 3;
+                    assertEquals(-5, pos.getLuckModifier());
+                    assertEquals("Evil 3", pos.getUnit().getName());
+                }
+                assertEquals(strength, pos.getStrengthModifier());
+                assertEquals(1, pos.getMoveCost());
+            }
+        } catch (IOException e) {
+            fail("File should be readable");
+        } catch (CheckedGameException e) {
+            fail("File should be valid");
+        }
+    }
+
+    @Test
+    void testSparseStageEncoding() {
+        stage = new Stage(1000, 1000);
+        try {
+            for (int x = 100; x < 300; x++) {
+                stage.getPosition(x, 7).setDefenseModifier(3);
+            }
+            stage.getPosition(300, 7).setDefenseModifier(2);
+            stage.getPosition(999, 7).setMoveCost(Position.IMPASSABLE);
+            stage.getPosition(0, 8).setMoveCost(Position.IMPASSABLE);
+        } catch (CheckedGameException e) {
+            fail("Should not have thrown exception.");
+        }
+        JSONObject json = stage.toJson();
+        JSONArray runs = json.getJSONArray(JsonReader.RUNS);
+        assertFalse(json.has(JsonReader.POSITIONS));
+        assertEquals(4, runs.length());
+        assertEquals(100, runs.getJSONObject(0).getInt(JsonReader.X));
+        assertEquals(7, runs.getJSONObject(0).getInt(JsonReader.Y));
+        assertEquals(200, runs.getJSONObject(0).getInt(JsonReader.COUNT));
+        assertEquals(3, runs.getJSONObject(0).getInt(JsonReader.DEFENSE));
+        assertFalse(runs.getJSONObject(0).has(JsonReader.STRENGTH));
+        assertEquals(1, runs.getJSONObject(1).getInt(JsonReader.COUNT));
+        assertEquals(-1, runs.getJSONObject(2).getInt(JsonReader.MOVE_COST));
+        assertEquals(0, runs.getJSONObject(3).getInt(JsonReader.X));
+        assertTrue(json.toString().length() < 1000);
+
+        try {
+            String path = "./data/testSparseStage.json";
+            army1.addWarrior(good1);
+            good1.placeWarrior(stage, 150, 7);
+            army2.addWarrior(evil1);
+            evil1.placeWarrior(stage, 0, 0);
+            original = new Battle(stage, Arrays.asList(army1, army2));
+            writer = new JsonWriter(path);
+            writer.open();
+            writer.write(original);
+            writer.close();
+            data = new JsonReader(path).read();
+            assertEquals(1000, data.getStageWidth());
+            int modified = 0;
+            for (Position pos : data) {
+                if (pos.getDefenseModifier() != 0 || pos.getMoveCost() != 1) {
+                    checkPosition(pos, stage.getPosition(pos.getPosX(), pos.getPosY()));
+                    modified++;
+                }
+            }
+            assertEquals(203, modified);
+            assertEquals(7, data.getCompetitors().get(0).getWarriors().get(0).getRealDefense());
+        } catch (IOException e) {
+            fail("File should be readable");
+        } catch (CheckedGameException e) {
+            fail("File should be valid");
+        }
+    }
+
     @Test
     void testIncorrectlySavedBattle() {
         String path = "./data/testInvalid.json";
@@ -213,6 +305,19 @@ public class JsonTest {
         }
     }
 
+    @Test
+    void testInvalidMoveCost() {
+        reader = new JsonReader("./data/testBadMoveCost.json");
+        try {
+            data = reader.read();
+            fail("Should have thrown exception.");
+        } catch (SaveException e) {
+            // pass
+        } catch (Exception e) {
+            fail("Wrong exception.");
+        }
+    }
+
     private void checkPosition(Position pos1, Position pos2) {
         assertEquals(pos1.getStrengthModifier(), pos2.getStrengthModifier());
         assertEquals(pos1.getSpeedModifier(), pos2.getSpeedModifier());
@@ -220,6 +325,7 @@ public class JsonTest {
         assertEquals(pos1.getLuckModifier(), pos2.getLuckModifier());
         assertEquals(pos1.getMovementModifier(), pos2.getMovementModifier());
         assertEquals(pos1.getRangeModifier(), pos2.getRangeModifier());
+        assertEquals(pos1.getMoveCost(), pos2.getMoveCost());
         if (pos1.getUnit() == null) {
             assertNull(pos2.getUnit());
         } else {